@@ -0,0 +1,78 @@
+package com.washer.demo.entities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la serialización a JSON de listas de turnos, vehículos y cobros, como las que devuelven
+ * los endpoints de listado. El ObjectMapper se construye con los mismos valores por defecto que
+ * usa Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"20", "100"})
+    private int cantidad;
+
+    private ObjectMapper objectMapper;
+    private List<Turno> turnos;
+    private List<Vehiculo> vehiculos;
+    private List<Cobro> cobros;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Cliente cliente = Cliente.builder().id(1L).nombre("Juan Perez")
+                .correoElectronico("juan.perez@example.com").telefono("1234567890").build();
+        turnos = new ArrayList<>();
+        vehiculos = new ArrayList<>();
+        cobros = new ArrayList<>();
+        Date fecha = new Date(1_735_138_800_000L);
+        for (long i = 1; i <= cantidad; i++) {
+            Vehiculo vehiculo = Vehiculo.builder().id(i).modelo("Toyota Corolla")
+                    .matricula("ABC" + i).tipo("Sedán").cliente(cliente).build();
+            Turno turno = Turno.builder().id(i).fechaHora(fecha).estado("programado")
+                    .tipoServicio("lavado completo").vehiculo(vehiculo).build();
+            vehiculos.add(vehiculo);
+            turnos.add(turno);
+            cobros.add(Cobro.builder().id(i).monto(1500.0).fecha(fecha).turno(turno).build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarTurnos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(turnos);
+    }
+
+    @Benchmark
+    public byte[] serializarVehiculos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(vehiculos);
+    }
+
+    @Benchmark
+    public byte[] serializarCobros() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cobros);
+    }
+}
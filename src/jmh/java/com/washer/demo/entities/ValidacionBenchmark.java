@@ -0,0 +1,76 @@
+package com.washer.demo.entities;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la validación de las entidades anotadas, en particular las reglas {@code @Pattern}
+ * del estado del turno y de la matrícula del vehículo, con datos válidos e inválidos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacionBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private Turno turnoValido;
+    private Turno turnoInvalido;
+    private Vehiculo vehiculoValido;
+    private Vehiculo vehiculoInvalido;
+
+    @Setup
+    public void preparar() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        turnoValido = Turno.builder().fechaHora(new Date()).estado("programado").tipoServicio("lavado completo").build();
+        turnoInvalido = Turno.builder().fechaHora(new Date()).estado("pendiente").tipoServicio("lavado completo").build();
+        vehiculoValido = Vehiculo.builder().modelo("Toyota Corolla").matricula("ABC123").tipo("Sedán").build();
+        vehiculoInvalido = Vehiculo.builder().modelo("Toyota Corolla").matricula("abc-123").tipo("Sedán").build();
+    }
+
+    @TearDown
+    public void cerrar() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Turno>> validarTurno() {
+        return validator.validate(turnoValido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Turno>> validarTurnoInvalido() {
+        return validator.validate(turnoInvalido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Vehiculo>> validarVehiculo() {
+        return validator.validate(vehiculoValido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Vehiculo>> validarVehiculoInvalido() {
+        return validator.validate(vehiculoInvalido);
+    }
+}
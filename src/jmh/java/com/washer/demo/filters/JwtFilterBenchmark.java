@@ -0,0 +1,186 @@
+package com.washer.demo.filters;
+
+import com.washer.demo.services.RevocacionService;
+import com.washer.demo.util.JwtUtil;
+import com.washer.demo.util.TokensVerificados;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Mide el recorrido completo del filtro JWT para una solicitud con token, con el servicio de usuarios en memoria
+ * (como en {@code UserConfig}) y el de revocación reemplazado por un mock.
+ *
+ * El parámetro {@code camino} compara el filtro original con el actual:
+ * <ul>
+ *   <li>{@code anterior}: el filtro previo a la verificación en un único análisis. Analiza el token tres veces
+ *   (usuario, usuario otra vez y expiración), cada una con un parser nuevo, y consulta el usuario en cada solicitud.</li>
+ *   <li>{@code sinCache}: {@link JwtFilter} con la caché de tokens verificados desactivada; analiza el token una vez
+ *   con el parser compartido y consulta el usuario.</li>
+ *   <li>{@code conCache}: {@link JwtFilter} como se configura por defecto; a partir de la segunda solicitud con el
+ *   mismo token no verifica la firma ni consulta el usuario.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRETO = "clave-de-benchmark-de-al-menos-32-caracteres";
+
+    @Param({"anterior", "sinCache", "conCache"})
+    private String camino;
+
+    private OncePerRequestFilter filtro;
+    private String encabezado;
+    private final FilterChain cadena = (request, response) -> { };
+
+    @Setup
+    public void preparar() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRETO);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 900_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "inicializar");
+        encabezado = "Bearer " + jwtUtil.generateToken("admin");
+
+        UserDetails usuario = User.withUsername("admin").password("{noop}admin").roles("USER", "ADMIN").build();
+        UserDetailsService userDetailsService = new InMemoryUserDetailsManager(usuario);
+        if (camino.equals("anterior")) {
+            filtro = new JwtFilterAnterior(Keys.hmacShaKeyFor(SECRETO.getBytes()), userDetailsService);
+        } else {
+            filtro = crearJwtFilter(jwtUtil, userDetailsService);
+        }
+        // Los tres caminos deben autenticar la solicitud; si no, se estaría midiendo el rechazo del token
+        try {
+            if (filtrarSolicitud() == null) {
+                throw new IllegalStateException("El camino " + camino + " no autenticó la solicitud");
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JwtFilter crearJwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+
+        TokensVerificados tokensVerificados = new TokensVerificados();
+        ReflectionTestUtils.setField(tokensVerificados, "tamanioMaximo", 10_000L);
+        ReflectionTestUtils.setField(tokensVerificados, "vidaMaximaSegundos", camino.equals("conCache") ? 300L : 0L);
+        ReflectionTestUtils.invokeMethod(tokensVerificados, "inicializar");
+        RevocacionService revocacionService = Mockito.mock(RevocacionService.class);
+        Mockito.when(revocacionService.estaRevocado(Mockito.anyString())).thenReturn(false);
+
+        JwtFilter jwtFilter = new JwtFilter();
+        ReflectionTestUtils.setField(jwtFilter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(jwtFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtFilter, "tokensVerificados", tokensVerificados);
+        ReflectionTestUtils.setField(jwtFilter, "revocacionService", revocacionService);
+        ReflectionTestUtils.setField(jwtFilter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtFilter, "inicializarMetricas");
+        return jwtFilter;
+    }
+
+    @Benchmark
+    public Object filtrarSolicitud() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clientes");
+        request.setServletPath("/api/clientes");
+        request.addHeader("Authorization", encabezado);
+        try {
+            filtro.doFilter(request, new MockHttpServletResponse(), cadena);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext(); // Cada solicitud llega sin autenticación previa
+        }
+    }
+
+    /**
+     * Copia del filtro y de la validación de tokens anteriores a la verificación en un único análisis,
+     * conservada solo como referencia para la comparación.
+     */
+    private static class JwtFilterAnterior extends OncePerRequestFilter {
+
+        private final Key signingKey;
+        private final UserDetailsService userDetailsService;
+
+        JwtFilterAnterior(Key signingKey, UserDetailsService userDetailsService) {
+            this.signingKey = signingKey;
+            this.userDetailsService = userDetailsService;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            final String authorizationHeader = request.getHeader("Authorization");
+
+            String username = null;
+            String jwt = null;
+
+            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+                jwt = authorizationHeader.substring(7);
+                username = extractClaim(jwt, Claims::getSubject);
+            }
+
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (validateToken(jwt, userDetails.getUsername())) {
+                    var authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            }
+
+            chain.doFilter(request, response);
+        }
+
+        private boolean validateToken(String token, String username) {
+            return extractClaim(token, Claims::getSubject).equals(username)
+                    && !extractClaim(token, Claims::getExpiration).before(new Date());
+        }
+
+        private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+            Claims claims = Jwts.parserBuilder()
+                    .setSigningKey(signingKey)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            return claimsResolver.apply(claims);
+        }
+    }
+}
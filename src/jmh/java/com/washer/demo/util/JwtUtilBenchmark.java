@@ -0,0 +1,71 @@
+package com.washer.demo.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la generación y validación de tokens JWT con {@link JwtUtil}.
+ * Compara la validación original, que analiza el token dos veces (usuario y expiración),
+ * con la verificación en un único análisis que usa el filtro JWT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String USUARIO = "admin";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = crearJwtUtil();
+        token = jwtUtil.generateToken(USUARIO);
+    }
+
+    /**
+     * Crea una instancia configurada como en application.properties, sin contexto de Spring.
+     */
+    static JwtUtil crearJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "clave-de-benchmark-de-al-menos-32-caracteres");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 900_000L);
+        jwtUtil.inicializar();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return jwtUtil.generateToken(USUARIO);
+    }
+
+    @Benchmark
+    public boolean validarToken() {
+        return jwtUtil.validateToken(token, USUARIO);
+    }
+
+    @Benchmark
+    public String extraerUsuario() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Object verificarToken() {
+        return jwtUtil.verificarToken(token);
+    }
+}
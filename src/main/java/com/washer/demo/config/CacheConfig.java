@@ -0,0 +1,41 @@
+package com.washer.demo.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+/**
+ * Configuración de la caché de segundo nivel de Hibernate.
+ * Las regiones se definen en {@code application.conf} (tamaño máximo y tiempo de vida) y se
+ * almacenan en Caffeine a través de JCache.
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Define el administrador de cachés JCache respaldado por Caffeine.
+     *
+     * @return el {@link CacheManager} con las regiones configuradas en {@code application.conf}.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager jCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+    }
+
+    /**
+     * Hace que Hibernate use el mismo administrador de cachés que el resto de la aplicación,
+     * de modo que las estadísticas de las regiones puedan consultarse desde los servicios.
+     *
+     * @param jCacheManager Administrador de cachés JCache.
+     * @return una instancia de {@link HibernatePropertiesCustomizer} que registra el administrador.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheManagerCustomizer(CacheManager jCacheManager) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, jCacheManager);
+    }
+}
@@ -0,0 +1,42 @@
+package com.washer.demo.config;
+
+import com.washer.demo.services.GeneradorDatosService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la generación de datos sintéticos al iniciar la aplicación.
+ * Se activa con {@code datos.sinteticos.generar=true}; con {@code datos.sinteticos.salir=true}
+ * la aplicación termina una vez insertados los datos, para usarla como comando de carga.
+ */
+@Configuration
+public class DatosSinteticosConfig {
+
+    // Indica si la aplicación debe terminar después de generar los datos.
+    @Value("${datos.sinteticos.salir:false}")
+    private boolean salir;
+
+    /**
+     * Genera los datos sintéticos configurados al terminar de iniciar el contexto.
+     *
+     * @param generadorDatosService servicio que genera e inserta los datos.
+     * @param contexto              contexto de la aplicación, para terminarla si corresponde.
+     * @return Tarea de inicio que ejecuta la generación.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datos.sinteticos.generar", havingValue = "true")
+    public ApplicationRunner generarDatosSinteticos(GeneradorDatosService generadorDatosService,
+                                                    ConfigurableApplicationContext contexto) {
+        return argumentos -> {
+            generadorDatosService.generar();
+            if (salir) {
+                System.exit(SpringApplication.exit(contexto, () -> 0));
+            }
+        };
+    }
+}
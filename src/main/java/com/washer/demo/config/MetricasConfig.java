@@ -0,0 +1,45 @@
+package com.washer.demo.config;
+
+import com.washer.demo.util.ContadorConsultas;
+import com.washer.demo.util.MetricasConsultasInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuración de las métricas propias de la aplicación, que complementan las que publica Actuator
+ * (latencia de los endpoints, estadísticas de Hibernate y del pool de conexiones).
+ */
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Registra el contador de sentencias SQL como inspector de sentencias de Hibernate.
+     *
+     * @param contadorConsultas Contador de sentencias por hilo.
+     * @return una instancia de {@link HibernatePropertiesCustomizer} que registra el inspector.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer contadorConsultasCustomizer(ContadorConsultas contadorConsultas) {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, contadorConsultas);
+    }
+
+    /**
+     * Registra el interceptor que mide las sentencias SQL de cada solicitud a la API.
+     *
+     * @param interceptor Interceptor de métricas de consultas.
+     * @return una instancia de {@link WebMvcConfigurer} con el interceptor registrado.
+     */
+    @Bean
+    public WebMvcConfigurer metricasConsultasConfigurer(MetricasConsultasInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.washer.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita la ejecución de tareas programadas ({@code @Scheduled}), como la limpieza
+ * periódica de tokens revocados ya vencidos o la cancelación de turnos por inasistencia.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
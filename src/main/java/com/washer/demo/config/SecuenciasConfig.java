@@ -0,0 +1,93 @@
+package com.washer.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Ajusta al iniciar las secuencias de IDs de las entidades para que no repitan IDs existentes.
+ *
+ * En MySQL, Hibernate emula cada secuencia con una tabla {@code *_seq} de una sola fila, que crea con el valor
+ * inicial 1 al actualizar el esquema. En una base creada cuando los IDs eran autoincrementales, esa tabla
+ * aparece con tablas que ya tienen filas y el primer alta repetiría un ID. Por eso, antes de atender
+ * solicitudes, cada secuencia se lleva por encima del mayor ID de sus tablas, incluidas las de archivo, que
+ * conservan los IDs originales. Solo se aumenta el valor, de modo que varias instancias pueden iniciar a la vez.
+ *
+ * Las bases con secuencias nativas (H2 en los perfiles {@code perf} y {@code test}) se crean vacías junto con
+ * sus secuencias, por lo que no necesitan ajuste.
+ */
+@Configuration
+@DependsOn("entityManagerFactory") // Las tablas de secuencias existen una vez que Hibernate actualizó el esquema
+public class SecuenciasConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecuenciasConfig.class);
+
+    // IDs que reserva cada consulta a una secuencia; coincide con el allocationSize de las entidades.
+    private static final int INCREMENTO = 50;
+
+    // Tabla de cada secuencia y tablas cuyos IDs se toman de ella.
+    private static final List<Secuencia> SECUENCIAS = List.of(
+            new Secuencia("cliente_seq", List.of("cliente")),
+            new Secuencia("vehiculo_seq", List.of("vehiculo")),
+            new Secuencia("turno_seq", List.of("turno", "turno_archivo")),
+            new Secuencia("cobro_seq", List.of("cobro", "cobro_archivo")));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    record Secuencia(String tabla, List<String> tablasIds) {
+    }
+
+    /**
+     * Ajusta todas las secuencias emuladas con tablas.
+     */
+    @PostConstruct
+    void ajustarSecuencias() {
+        SECUENCIAS.forEach(this::ajustar);
+    }
+
+    /**
+     * Lleva una secuencia emulada con una tabla por encima del mayor ID de sus tablas.
+     * Con el optimizador de Hibernate, un valor guardado V entrega los IDs V - INCREMENTO + 1 a V, por lo que
+     * el valor mínimo es el mayor ID más el incremento.
+     *
+     * @param secuencia Secuencia a ajustar.
+     * @return true si se aumentó el valor de la secuencia.
+     */
+    boolean ajustar(Secuencia secuencia) {
+        if (!existeTabla(secuencia.tabla())) {
+            return false;
+        }
+        long maximoId = 0;
+        for (String tabla : secuencia.tablasIds()) {
+            if (existeTabla(tabla)) {
+                maximoId = Math.max(maximoId, jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class));
+            }
+        }
+        if (maximoId == 0) {
+            return false;
+        }
+        long minimo = maximoId + INCREMENTO;
+        int actualizadas = jdbcTemplate.update("UPDATE " + secuencia.tabla() + " SET next_val = ? WHERE next_val < ?", minimo, minimo);
+        if (actualizadas > 0) {
+            log.info("Se ajustó la secuencia {} a {}, por encima del mayor ID existente ({})", secuencia.tabla(), minimo, maximoId);
+        }
+        return actualizadas > 0;
+    }
+
+    private boolean existeTabla(String tabla) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) conexion -> {
+            try (ResultSet tablas = conexion.getMetaData().getTables(conexion.getCatalog(), null, tabla, null)) {
+                return tablas.next();
+            }
+        }));
+    }
+}
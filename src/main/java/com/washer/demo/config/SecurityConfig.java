@@ -1,8 +1,10 @@
 package com.washer.demo.config;
 
 import com.washer.demo.filters.JwtFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -39,7 +41,10 @@ public class SecurityConfig {
      *
      * Detalles:
      * - Deshabilita CSRF para facilitar pruebas y desarrollo.
+     * - Permite el despacho asíncrono de respuestas en streaming, ya autorizadas en la solicitud original.
+     * - Restringe la revocación de tokens a administradores y exige una sesión válida para cerrarla.
      * - Permite acceso público a endpoints relacionados con autenticación y documentación de API (Swagger y OpenAPI).
+     * - Permite consultar la salud y las métricas en formato Prometheus sin token, y restringe el resto de Actuator a administradores.
      * - Exige autenticación para cualquier otra solicitud.
      * - Añade un filtro JWT antes del filtro de autenticación por nombre de usuario y contraseña.
      */
@@ -48,6 +53,9 @@ public class SecurityConfig {
         http
                 .csrf(AbstractHttpConfigurer::disable) // Deshabilitar CSRF para simplificar las pruebas
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Respuestas en streaming ya autorizadas en la solicitud original
+                        .requestMatchers(HttpMethod.POST, "/api/auth/revocar").hasRole("ADMIN") // Revocación administrativa
+                        .requestMatchers(HttpMethod.POST, "/api/auth/logout").authenticated() // Cierre de la sesión actual
                         .requestMatchers(
                                 "/api/auth/**",       // Endpoints de autenticación
                                 "/swagger-ui/**",     // Swagger UI
@@ -55,6 +63,8 @@ public class SecurityConfig {
                                 "/swagger-ui.html",   // Página principal de Swagger
                                 "/api-docs/**"        // Swagger configuración
                         ).permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Sondeos de salud y recolección de métricas
+                        .requestMatchers("/actuator/**").hasRole("ADMIN") // Resto de los endpoints de Actuator
                         .anyRequest().authenticated() // Proteger todos los demás endpoints
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class); // Registrar el filtro JWT
@@ -24,7 +24,7 @@ public class UserConfig {
      * - Crea un usuario con las siguientes credenciales:
      *   - Nombre de usuario: admin
      *   - Contraseña: password (encriptada con BCrypt).
-     *   - Rol: USER.
+     *   - Roles: USER y ADMIN (este último permite revocar tokens).
      */
     @Bean
     public UserDetailsService userDetailsService() {
@@ -32,7 +32,7 @@ public class UserConfig {
         UserDetails user = User.builder()
                 .username("admin") // Nombre de usuario
                 .password(new BCryptPasswordEncoder().encode("password")) // Contraseña encriptada con BCrypt
-                .roles("USER") // Rol asignado al usuario
+                .roles("USER", "ADMIN") // Roles asignados al usuario
                 .build();
 
         return new InMemoryUserDetailsManager(user); // Retorna un administrador de usuarios en memoria
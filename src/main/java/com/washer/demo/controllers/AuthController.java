@@ -1,7 +1,11 @@
 package com.washer.demo.controllers;
 
-import com.washer.demo.util.JwtUtil;
+import com.washer.demo.dto.TokensSesion;
+import com.washer.demo.services.RevocacionService;
+import com.washer.demo.services.TokenRefrescoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
@@ -12,7 +16,8 @@ import java.util.Map;
 
 /**
  * Controlador REST que gestiona la autenticación de usuarios y la generación de tokens JWT.
- * Proporciona un endpoint para iniciar sesión y obtener un token de autenticación.
+ * Proporciona endpoints para iniciar sesión y obtener un token de autenticación, renovarlo con un
+ * token de refresco, cerrar la sesión y revocar tokens emitidos.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -22,19 +27,23 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private TokenRefrescoService tokenRefrescoService;
+
+    @Autowired
+    private RevocacionService revocacionService;
 
     /**
      * Endpoint POST para autenticar a un usuario y generar un token JWT.
      *
      * @param loginRequest Objeto que contiene las credenciales del usuario (username y password).
-     * @return Un mapa con el token JWT generado si la autenticación es exitosa.
+     * @return Un mapa con el token JWT y el token de refresco generados si la autenticación es exitosa.
      * @throws RuntimeException en caso de credenciales inválidas.
      *
      * Flujo:
      * 1. Se autentica al usuario con el AuthenticationManager.
-     * 2. Si las credenciales son válidas, se genera un token JWT asociado al username.
-     * 3. El token se retorna como parte de la respuesta en formato JSON.
+     * 2. Si las credenciales son válidas, se genera un token JWT de corta duración asociado al username
+     *    y un token de refresco para renovarlo sin volver a enviar las credenciales.
+     * 3. Los tokens se retornan como parte de la respuesta en formato JSON.
      */
     @PostMapping("/login")
     public Map<String, String> login(@RequestBody LoginRequest loginRequest) {
@@ -47,19 +56,75 @@ public class AuthController {
                     )
             );
 
-            // Generar el token JWT
-            String token = jwtUtil.generateToken(loginRequest.getUsername());
+            // Generar el token JWT y el primer token de refresco de la sesión
+            TokensSesion tokens = tokenRefrescoService.iniciarSesion(loginRequest.getUsername());
 
-            // Respuesta con el token
-            Map<String, String> response = new HashMap<>();
-            response.put("token", token);
-            return response;
+            // Respuesta con los tokens
+            return respuesta(tokens);
 
         } catch (AuthenticationException e) {
             throw new RuntimeException("Credenciales inválidas."); // Error en caso de autenticación fallida
         }
     }
 
+    /**
+     * Endpoint POST para obtener un nuevo token JWT presentando un token de refresco.
+     * El token de refresco presentado se consume y se entrega uno nuevo junto con el token JWT.
+     *
+     * @param refreshRequest Objeto que contiene el token de refresco.
+     * @return Un mapa con el nuevo token JWT y el nuevo token de refresco.
+     * @throws IllegalArgumentException si el token de refresco no es válido, venció o ya fue usado.
+     */
+    @PostMapping("/refresh")
+    public Map<String, String> refresh(@RequestBody RefreshRequest refreshRequest) {
+        TokensSesion tokens = tokenRefrescoService.refrescar(refreshRequest.getRefreshToken());
+        return respuesta(tokens);
+    }
+
+    /**
+     * Endpoint POST para cerrar la sesión, revocando el token con el que se realiza la solicitud
+     * y los tokens de refresco de la sesión.
+     *
+     * @param authorization Encabezado "Authorization" con el token JWT de la sesión.
+     * @return {@link ResponseEntity} con un código de estado 204 (NO CONTENT).
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        String jti = revocacionService.revocarToken(authorization.substring("Bearer ".length()));
+        if (jti != null) {
+            tokenRefrescoService.cerrarSesion(jti);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint POST para que un administrador revoque un token, indicando el token completo
+     * o solo su identificador ("jti").
+     *
+     * @param revocacionRequest Objeto con el token o el identificador a revocar.
+     * @return {@link ResponseEntity} con un código de estado 204 (NO CONTENT).
+     * @throws IllegalArgumentException si no se indica un token o identificador válido.
+     */
+    @PostMapping("/revocar")
+    public ResponseEntity<Void> revocar(@RequestBody RevocacionRequest revocacionRequest) {
+        if (revocacionRequest.getToken() != null) {
+            revocacionService.revocarToken(revocacionRequest.getToken());
+        } else {
+            revocacionService.revocar(revocacionRequest.getJti(), null);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Arma la respuesta con los tokens de la sesión.
+     */
+    private Map<String, String> respuesta(TokensSesion tokens) {
+        Map<String, String> response = new HashMap<>();
+        response.put("token", tokens.getToken());
+        response.put("refreshToken", tokens.getRefreshToken());
+        return response;
+    }
+
     /**
      * Clase interna que representa la estructura del cuerpo de la solicitud de inicio de sesión.
      * Incluye los campos de username y password requeridos para la autenticación.
@@ -85,4 +150,46 @@ public class AuthController {
             this.password = password;
         }
     }
+
+    /**
+     * Clase interna que representa el cuerpo de la solicitud de revocación.
+     * Se indica el token completo o, si no se dispone de él, su identificador.
+     */
+    public static class RevocacionRequest {
+        private String token;
+        private String jti;
+
+        // Getters y Setters
+        public String getToken() {
+            return token;
+        }
+
+        public void setToken(String token) {
+            this.token = token;
+        }
+
+        public String getJti() {
+            return jti;
+        }
+
+        public void setJti(String jti) {
+            this.jti = jti;
+        }
+    }
+
+    /**
+     * Clase interna que representa el cuerpo de la solicitud de refresco.
+     */
+    public static class RefreshRequest {
+        private String refreshToken;
+
+        // Getters y Setters
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
 }
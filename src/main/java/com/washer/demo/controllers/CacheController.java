@@ -0,0 +1,45 @@
+package com.washer.demo.controllers;
+
+import com.washer.demo.dto.EstadisticaCache;
+import com.washer.demo.dto.EstadisticaCacheRespuestas;
+import com.washer.demo.services.EstadisticasCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controlador REST para consultar el estado de la caché de segundo nivel y de la caché de respuestas.
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    @Autowired
+    private EstadisticasCacheService estadisticasCacheService;
+
+    /**
+     * Endpoint para obtener los aciertos, fallos y desalojos de cada región de la caché.
+     *
+     * @return {@link ResponseEntity} con las estadísticas de cada región.
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<List<EstadisticaCache>> getEstadisticas() {
+        List<EstadisticaCache> estadisticas = estadisticasCacheService.getEstadisticas();
+        return ResponseEntity.ok(estadisticas);
+    }
+
+    /**
+     * Endpoint para obtener los aciertos, fallos y cargas coalescidas de la caché de respuestas serializadas.
+     *
+     * @return {@link ResponseEntity} con las estadísticas de cada recurso.
+     */
+    @GetMapping("/respuestas")
+    public ResponseEntity<List<EstadisticaCacheRespuestas>> getEstadisticasRespuestas() {
+        List<EstadisticaCacheRespuestas> estadisticas = estadisticasCacheService.getEstadisticasRespuestas();
+        return ResponseEntity.ok(estadisticas);
+    }
+}
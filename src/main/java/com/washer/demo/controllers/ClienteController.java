@@ -1,9 +1,15 @@
 package com.washer.demo.controllers;
 
+import com.washer.demo.dto.CoincidenciaCliente;
+import com.washer.demo.dto.PaginaCursor;
+import com.washer.demo.dto.ResultadoLote;
 import com.washer.demo.entities.Cliente;
 import com.washer.demo.services.ClienteService;
+import com.washer.demo.util.Etags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,29 +38,69 @@ public class ClienteController {
         return ResponseEntity.status(201).body(savedCliente);
     }
 
+    /**
+     * Endpoint para crear varios clientes en una sola solicitud.
+     *
+     * @param clientes Lista de clientes a crear; cada uno se valida de forma independiente.
+     * @return {@link ResponseEntity} con el resultado de cada elemento: el ID asignado o los errores de validación.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoLote>> createClientes(@RequestBody List<Cliente> clientes) {
+        List<ResultadoLote> resultados = clienteService.saveClientes(clientes);
+        return ResponseEntity.ok(resultados);
+    }
+
     /**
      * Endpoint para obtener un cliente por su ID.
      *
      * @param id Identificador único del cliente.
-     * @return {@link ResponseEntity} con el cliente encontrado o un estado 404 (NOT FOUND) si no existe.
+     * @param ifNoneMatch ETag de la versión que ya tiene quien consulta, si la envía.
+     * @return {@link ResponseEntity} con el cliente encontrado y su ETag, 304 (NOT MODIFIED) si no cambió desde
+     *         la versión indicada, o un estado 404 (NOT FOUND) si no existe.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Cliente> getClienteById(@PathVariable Long id) {
+    public ResponseEntity<Cliente> getClienteById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Primero se compara solo la versión: si no cambió, el cliente no se carga ni se serializa
+        if (ifNoneMatch != null) {
+            String etag = Etags.deVersion(clienteService.getVersionCliente(id));
+            if (Etags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         Cliente cliente = clienteService.getCliente(id);
-        return ResponseEntity.ok(cliente);
+        return ResponseEntity.ok().eTag(Etags.deVersion(cliente.getVersion())).body(cliente);
     }
 
     /**
-     * Endpoint para obtener la lista de todos los clientes.
+     * Endpoint para buscar clientes por parte de su nombre, correo electrónico o teléfono.
      *
-     * @return {@link ResponseEntity} con una lista de todos los clientes.
+     * @param q     Texto a buscar (al menos dos caracteres).
+     * @param limit Cantidad máxima de resultados, acotada por el servidor.
+     * @return {@link ResponseEntity} con los clientes encontrados, del más al menos parecido.
      */
-    @GetMapping
-    public ResponseEntity<List<Cliente>> getAllClientes() {
-        List<Cliente> clientes = clienteService.getAllClientes();
+    @GetMapping("/buscar")
+    public ResponseEntity<List<CoincidenciaCliente>> buscarClientes(@RequestParam String q,
+                                                                   @RequestParam(required = false) Integer limit) {
+        List<CoincidenciaCliente> clientes = clienteService.buscarClientes(q, limit);
         return ResponseEntity.ok(clientes);
     }
 
+    /**
+     * Endpoint para obtener los clientes paginados por cursor.
+     *
+     * @param after Cursor opaco recibido en la página anterior; se omite para obtener la primera página.
+     * @param limit Cantidad máxima de clientes a devolver, acotada por el servidor.
+     * @return {@link ResponseEntity} con la página de clientes, el cursor de la siguiente página y el ETag de la página;
+     *         304 (NOT MODIFIED), sin serializar la página, si no cambió desde el ETag indicado en If-None-Match.
+     */
+    @GetMapping
+    public ResponseEntity<PaginaCursor<Cliente>> getAllClientes(@RequestParam(required = false) String after,
+                                                                @RequestParam(required = false) Integer limit) {
+        PaginaCursor<Cliente> clientes = clienteService.getAllClientes(after, limit);
+        return ResponseEntity.ok().eTag(Etags.deLista(clientes)).body(clientes);
+    }
+
     /**
      * Endpoint para eliminar un cliente por su ID.
      *
@@ -72,11 +118,14 @@ public class ClienteController {
      *
      * @param id Identificador único del cliente a actualizar.
      * @param cliente Objeto Cliente validado con los nuevos datos para actualizar.
-     * @return {@link ResponseEntity} con el cliente actualizado.
+     * @param ifMatch ETag de la versión que se modificó; si el cliente cambió desde entonces se responde
+     *                412 (PRECONDITION FAILED) en lugar de pisar el cambio.
+     * @return {@link ResponseEntity} con el cliente actualizado y su nuevo ETag.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Cliente> updateCliente(@PathVariable Long id, @Valid @RequestBody Cliente cliente) {
-        Cliente updatedCliente = clienteService.updateCliente(id, cliente);
-        return ResponseEntity.ok(updatedCliente);
+    public ResponseEntity<Cliente> updateCliente(@PathVariable Long id, @Valid @RequestBody Cliente cliente,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Cliente updatedCliente = clienteService.updateCliente(id, cliente, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.deVersion(updatedCliente.getVersion())).body(updatedCliente);
     }
 }
@@ -1,14 +1,24 @@
 package com.washer.demo.controllers;
 
+import com.washer.demo.dto.PaginaCursor;
+import com.washer.demo.dto.ResumenCobros;
 import com.washer.demo.entities.Cobro;
+import com.washer.demo.entities.Turno;
 import com.washer.demo.services.CobroService;
+import com.washer.demo.services.ResumenCobroService;
 import com.washer.demo.services.TurnoService;
+import com.washer.demo.util.Etags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
 
 /**
  * Controlador REST para gestionar operaciones relacionadas con la entidad Cobro.
@@ -24,14 +34,19 @@ public class CobroController {
     @Autowired
     private TurnoService turnoService;
 
+    @Autowired
+    private ResumenCobroService resumenCobroService;
+
     /**
      * Endpoint para crear un nuevo cobro.
      *
      * @param cobro Objeto Cobro validado que contiene los datos del cobro a crear.
+     * @param turnoId ID del turno cobrado; el cobro se agrupa en los resúmenes bajo su tipo de servicio.
      * @return {@link ResponseEntity} con el cobro creado y un código de estado 201 (CREATED).
      */
     @PostMapping
-    public ResponseEntity<Cobro> createCobro(@Valid @RequestBody Cobro cobro) {
+    public ResponseEntity<Cobro> createCobro(@Valid @RequestBody Cobro cobro, @RequestParam(required = false) Long turnoId) {
+        asignarTurno(cobro, turnoId);
         Cobro savedCobro = cobroService.saveCobro(cobro);
         return ResponseEntity.status(201).body(savedCobro);
     }
@@ -40,12 +55,22 @@ public class CobroController {
      * Endpoint para obtener un cobro por su ID.
      *
      * @param id Identificador único del cobro.
-     * @return {@link ResponseEntity} con el cobro encontrado o un estado 404 (NOT FOUND) si no existe.
+     * @param ifNoneMatch ETag de la versión que ya tiene quien consulta, si la envía.
+     * @return {@link ResponseEntity} con el cobro encontrado y su ETag, 304 (NOT MODIFIED) si no cambió desde
+     *         la versión indicada, o un estado 404 (NOT FOUND) si no existe.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Cobro> getCobroById(@PathVariable Long id) {
+    public ResponseEntity<Cobro> getCobroById(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Primero se compara solo la versión: si no cambió, el cobro no se carga ni se serializa
+        if (ifNoneMatch != null) {
+            String etag = Etags.deVersion(cobroService.getVersionCobro(id));
+            if (Etags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         Cobro cobro = cobroService.getCobro(id);
-        return ResponseEntity.ok(cobro);
+        return ResponseEntity.ok().eTag(Etags.deVersion(cobro.getVersion())).body(cobro);
     }
 
     /**
@@ -53,23 +78,67 @@ public class CobroController {
      *
      * @param id Identificador único del turno.
      * @param estado Nuevo estado del turno.
-     * @return {@link ResponseEntity} con un código de estado 204 (NO CONTENT) si la operación es exitosa.
+     * @param ifMatch ETag de la versión del turno que se modificó; si el turno cambió desde entonces se responde
+     *                412 (PRECONDITION FAILED).
+     * @return {@link ResponseEntity} con un código de estado 204 (NO CONTENT) y el nuevo ETag del turno si la operación es exitosa.
      */
     @PutMapping("/{id}/estado")
-    public ResponseEntity<Void> updateEstadoTurno(@PathVariable Long id, @RequestParam String estado) {
-        turnoService.updateEstadoTurno(id, estado);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Void> updateEstadoTurno(@PathVariable Long id, @RequestParam String estado,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Turno turno = turnoService.updateEstadoTurno(id, estado, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.noContent().eTag(Etags.deVersion(turno.getVersion())).build();
     }
 
     /**
-     * Endpoint para obtener la lista de todos los cobros.
+     * Endpoint para obtener los cobros paginados por cursor.
      *
-     * @return {@link ResponseEntity} con una lista de todos los cobros registrados.
+     * @param after Cursor opaco recibido en la página anterior; se omite para obtener la primera página.
+     * @param limit Cantidad máxima de cobros a devolver, acotada por el servidor.
+     * @return {@link ResponseEntity} con la página de cobros, el cursor de la siguiente página y el ETag de la página;
+     *         304 (NOT MODIFIED), sin serializar la página, si no cambió desde el ETag indicado en If-None-Match.
      */
     @GetMapping
-    public ResponseEntity<List<Cobro>> getAllCobros() {
-        List<Cobro> cobros = cobroService.getAllCobros();
-        return ResponseEntity.ok(cobros);
+    public ResponseEntity<PaginaCursor<Cobro>> getAllCobros(@RequestParam(required = false) String after,
+                                                            @RequestParam(required = false) Integer limit) {
+        PaginaCursor<Cobro> cobros = cobroService.getAllCobros(after, limit);
+        return ResponseEntity.ok().eTag(Etags.deLista(cobros)).body(cobros);
+    }
+
+    /**
+     * Endpoint para exportar todos los cobros en formato NDJSON (un cobro por línea).
+     * La respuesta se escribe a medida que se leen las filas, sin armar la lista completa en memoria.
+     *
+     * @return {@link ResponseEntity} con el cuerpo de la exportación en streaming.
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarCobros() {
+        StreamingResponseBody cuerpo = salida -> cobroService.exportarCobros(salida);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
+    }
+
+    /**
+     * Endpoint para obtener la recaudación de un rango de días, por día y tipo de servicio.
+     *
+     * @param desde Primer día del período (formato ISO, inclusive).
+     * @param hasta Último día del período (formato ISO, inclusive).
+     * @return {@link ResponseEntity} con los totales del período y su detalle.
+     */
+    @GetMapping("/resumen")
+    public ResponseEntity<ResumenCobros> getResumen(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        ResumenCobros resumen = resumenCobroService.consultar(desde, hasta);
+        return ResponseEntity.ok(resumen);
+    }
+
+    /**
+     * Endpoint para recalcular los resúmenes de recaudación a partir de todos los cobros.
+     *
+     * @return {@link ResponseEntity} con la cantidad de resúmenes generados.
+     */
+    @PostMapping("/resumen/reconstruir")
+    public ResponseEntity<Integer> reconstruirResumen() {
+        int resumenes = resumenCobroService.reconstruir();
+        return ResponseEntity.ok(resumenes);
     }
 
     /**
@@ -89,11 +158,27 @@ public class CobroController {
      *
      * @param id Identificador único del cobro a actualizar.
      * @param cobro Objeto Cobro validado con los nuevos datos para actualizar.
-     * @return {@link ResponseEntity} con el cobro actualizado.
+     * @param turnoId ID del nuevo turno del cobro, o null para conservar el actual.
+     * @param ifMatch ETag de la versión que se modificó; si el cobro cambió desde entonces se responde
+     *                412 (PRECONDITION FAILED) en lugar de pisar el cambio.
+     * @return {@link ResponseEntity} con el cobro actualizado y su nuevo ETag.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Cobro> updateCobro(@PathVariable Long id, @Valid @RequestBody Cobro cobro) {
-        Cobro updatedCobro = cobroService.updateCobro(id, cobro);
-        return ResponseEntity.ok(updatedCobro);
+    public ResponseEntity<Cobro> updateCobro(@PathVariable Long id, @Valid @RequestBody Cobro cobro,
+                                             @RequestParam(required = false) Long turnoId,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        asignarTurno(cobro, turnoId);
+        Cobro updatedCobro = cobroService.updateCobro(id, cobro, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.deVersion(updatedCobro.getVersion())).body(updatedCobro);
+    }
+
+    /**
+     * Asocia al cobro el turno indicado en la solicitud. El turno no se recibe en el cuerpo porque
+     * no forma parte del JSON del cobro; el servicio lo carga a partir de su ID.
+     */
+    private void asignarTurno(Cobro cobro, Long turnoId) {
+        if (turnoId != null) {
+            cobro.setTurno(Turno.builder().id(turnoId).build());
+        }
     }
 }
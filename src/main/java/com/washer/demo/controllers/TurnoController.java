@@ -1,12 +1,27 @@
 package com.washer.demo.controllers;
 
+import com.washer.demo.dto.FranjaDisponible;
+import com.washer.demo.dto.PaginaCursor;
+import com.washer.demo.dto.ResultadoLote;
+import com.washer.demo.dto.ResultadoTransicion;
+import com.washer.demo.dto.TransicionTurnos;
+import com.washer.demo.dto.TurnoResumen;
 import com.washer.demo.entities.Turno;
 import com.washer.demo.services.TurnoService;
+import com.washer.demo.util.CacheRespuestas;
+import com.washer.demo.util.Etags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,6 +36,9 @@ public class TurnoController {
     @Autowired
     private TurnoService turnoService;
 
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
     /**
      * Endpoint para crear un nuevo turno.
      *
@@ -33,27 +51,114 @@ public class TurnoController {
         return ResponseEntity.status(201).body(savedTurno);
     }
 
+    /**
+     * Endpoint para crear varios turnos en una sola solicitud.
+     *
+     * @param turnos Lista de turnos a crear, cada uno con el ID de su vehículo.
+     * @return {@link ResponseEntity} con el resultado de cada elemento: el ID asignado o los errores de validación.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoLote>> createTurnos(@RequestBody List<Turno> turnos) {
+        List<ResultadoLote> resultados = turnoService.saveTurnos(turnos);
+        return ResponseEntity.ok(resultados);
+    }
+
+    /**
+     * Endpoint para consultar los horarios disponibles de un día.
+     *
+     * @param fecha Día a consultar, en formato ISO (yyyy-MM-dd).
+     * @return {@link ResponseEntity} con las franjas del día y la cantidad de boxes libres en cada una.
+     */
+    @GetMapping("/disponibilidad")
+    public ResponseEntity<List<FranjaDisponible>> getDisponibilidad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        List<FranjaDisponible> franjas = turnoService.getDisponibilidad(fecha);
+        return ResponseEntity.ok(franjas);
+    }
+
     /**
      * Endpoint para obtener un turno por su ID.
      *
      * @param id Identificador único del turno.
-     * @return {@link ResponseEntity} con el turno encontrado o un estado 404 (NOT FOUND) si no existe.
+     * @param ifNoneMatch ETag de la versión que ya tiene quien consulta, si la envía.
+     * @return {@link ResponseEntity} con el turno encontrado serializado a JSON y su ETag, 304 (NOT MODIFIED) si no
+     *         cambió desde la versión indicada, o un estado 404 (NOT FOUND) si no existe.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Turno> getTurnoById(@PathVariable Long id) {
-        Turno turno = turnoService.getTurno(id);
-        return ResponseEntity.ok(turno);
+    public ResponseEntity<byte[]> getTurnoById(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CacheRespuestas.RespuestaSerializada respuesta = null;
+        // Primero se compara solo la versión, la de la respuesta guardada o, si no está, la leída sin cargar el turno
+        if (ifNoneMatch != null) {
+            respuesta = cacheRespuestas.buscar(CacheRespuestas.TURNOS, id);
+            String etag = respuesta != null ? respuesta.etag() : Etags.deVersion(turnoService.getVersionTurno(id));
+            if (Etags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        // Las solicitudes simultáneas de un turno que no está en la caché comparten una única carga
+        if (respuesta == null) {
+            respuesta = cacheRespuestas.obtener(CacheRespuestas.TURNOS, id, () -> turnoService.getTurno(id), Turno::getVersion);
+        }
+        return ResponseEntity.ok().eTag(respuesta.etag()).contentType(MediaType.APPLICATION_JSON).body(respuesta.cuerpo());
     }
 
     /**
-     * Endpoint para obtener la lista de todos los turnos.
+     * Endpoint para obtener los turnos paginados por cursor.
      *
-     * @return {@link ResponseEntity} con una lista de todos los turnos registrados.
+     * @param after Cursor opaco recibido en la página anterior; se omite para obtener la primera página.
+     * @param limit Cantidad máxima de turnos a devolver, acotada por el servidor.
+     * @return {@link ResponseEntity} con la página de turnos resumidos (incluida la matrícula del vehículo),
+     *         el cursor de la siguiente página y el ETag de la página; 304 (NOT MODIFIED), sin serializar la página,
+     *         si no cambió desde el ETag indicado en If-None-Match.
      */
     @GetMapping
-    public ResponseEntity<List<Turno>> getAllTurnos() {
-        List<Turno> turnos = turnoService.getAllTurnos();
-        return ResponseEntity.ok(turnos);
+    public ResponseEntity<PaginaCursor<TurnoResumen>> getAllTurnos(@RequestParam(required = false) String after,
+                                                                   @RequestParam(required = false) Integer limit) {
+        PaginaCursor<TurnoResumen> turnos = turnoService.getAllTurnos(after, limit);
+        return ResponseEntity.ok().eTag(Etags.deLista(turnos)).body(turnos);
+    }
+
+    /**
+     * Endpoint para buscar turnos combinando filtros opcionales, por ejemplo los turnos programados del día,
+     * los de un vehículo en los últimos 90 días o los cancelados de la semana.
+     *
+     * @param desde        Fecha y hora desde la que buscar (inclusive), en formato ISO.
+     * @param hasta        Fecha y hora hasta la que buscar (exclusive), en formato ISO.
+     * @param estado       Estado de los turnos.
+     * @param tipoServicio Tipo de servicio de los turnos.
+     * @param vehiculoId   ID del vehículo.
+     * @param clienteId    ID del cliente dueño de los vehículos.
+     * @param after        Cursor opaco recibido en la página anterior; se omite para obtener la primera página.
+     * @param limit        Cantidad máxima de turnos a devolver, acotada por el servidor.
+     * @return {@link ResponseEntity} con la página de turnos resumidos, ordenados por fecha, el cursor de la siguiente página
+     *         y el ETag de la página; 304 (NOT MODIFIED) si no cambió desde el ETag indicado en If-None-Match.
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<PaginaCursor<TurnoResumen>> buscarTurnos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String tipoServicio,
+            @RequestParam(required = false) Long vehiculoId,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        PaginaCursor<TurnoResumen> turnos = turnoService.buscarTurnos(
+                desde, hasta, estado, tipoServicio, vehiculoId, clienteId, after, limit);
+        return ResponseEntity.ok().eTag(Etags.deLista(turnos)).body(turnos);
+    }
+
+    /**
+     * Endpoint para exportar todos los turnos en formato NDJSON (un turno por línea).
+     * La respuesta se escribe a medida que se leen las filas, sin armar la lista completa en memoria.
+     *
+     * @return {@link ResponseEntity} con el cuerpo de la exportación en streaming.
+     */
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarTurnos() {
+        StreamingResponseBody cuerpo = salida -> turnoService.exportarTurnos(salida);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
     }
 
     /**
@@ -73,12 +178,30 @@ public class TurnoController {
      *
      * @param id Identificador único del turno.
      * @param estado Nuevo estado del turno.
-     * @return {@link ResponseEntity} con un código de estado 204 (NO CONTENT) si la operación es exitosa.
+     * @param ifMatch ETag de la versión del turno que se modificó; si el turno cambió desde entonces se responde
+     *                412 (PRECONDITION FAILED).
+     * @return {@link ResponseEntity} con un código de estado 204 (NO CONTENT) y el nuevo ETag del turno si la operación es exitosa.
      */
     @PutMapping("/{id}/estado")
-    public ResponseEntity<Void> updateEstadoTurno(@PathVariable Long id, @RequestParam String estado) {
-        turnoService.updateEstadoTurno(id, estado);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Void> updateEstadoTurno(@PathVariable Long id, @RequestParam String estado,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Turno turno = turnoService.updateEstadoTurno(id, estado, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.noContent().eTag(Etags.deVersion(turno.getVersion())).build();
+    }
+
+    /**
+     * Endpoint para pasar varios turnos programados a completado o cancelado en una sola solicitud,
+     * indicándolos por ID o por un rango de fechas (por ejemplo, para cerrar el día).
+     *
+     * @param transicion IDs de los turnos, o rango de fechas, y el nuevo estado.
+     * @return {@link ResponseEntity} con la cantidad de turnos que cambiaron de estado.
+     */
+    @PutMapping("/estado")
+    public ResponseEntity<ResultadoTransicion> transicionarTurnos(@RequestBody TransicionTurnos transicion) {
+        ResultadoTransicion resultado = transicion.getIds() != null && !transicion.getIds().isEmpty()
+                ? turnoService.transicionarTurnos(transicion.getIds(), transicion.getEstado())
+                : turnoService.transicionarTurnosEntre(transicion.getDesde(), transicion.getHasta(), transicion.getEstado());
+        return ResponseEntity.ok(resultado);
     }
 
     /**
@@ -86,11 +209,14 @@ public class TurnoController {
      *
      * @param id Identificador único del turno a actualizar.
      * @param turno Objeto Turno validado con los nuevos datos para actualizar.
-     * @return {@link ResponseEntity} con el turno actualizado.
+     * @param ifMatch ETag de la versión que se modificó; si el turno cambió desde entonces se responde
+     *                412 (PRECONDITION FAILED) en lugar de pisar el cambio.
+     * @return {@link ResponseEntity} con el turno actualizado y su nuevo ETag.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Turno> updateTurno(@PathVariable Long id, @Valid @RequestBody Turno turno) {
-        Turno updatedTurno = turnoService.updateTurno(id, turno);
-        return ResponseEntity.ok(updatedTurno);
+    public ResponseEntity<Turno> updateTurno(@PathVariable Long id, @Valid @RequestBody Turno turno,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Turno updatedTurno = turnoService.updateTurno(id, turno, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.deVersion(updatedTurno.getVersion())).body(updatedTurno);
     }
 }
@@ -1,9 +1,18 @@
 package com.washer.demo.controllers;
 
+import com.washer.demo.dto.CoincidenciaMatricula;
+import com.washer.demo.dto.ItemLoteVehiculo;
+import com.washer.demo.dto.PaginaCursor;
+import com.washer.demo.dto.ResultadoLote;
 import com.washer.demo.entities.Vehiculo;
 import com.washer.demo.services.VehiculoService;
+import com.washer.demo.util.CacheRespuestas;
+import com.washer.demo.util.Etags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +30,9 @@ public class VehiculoController {
     @Autowired
     private VehiculoService vehiculoService;
 
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
     /**
      * Endpoint para crear un nuevo vehículo y asociarlo a un cliente existente.
      *
@@ -34,27 +46,85 @@ public class VehiculoController {
         return ResponseEntity.status(201).body(savedVehiculo);
     }
 
+    /**
+     * Endpoint para crear varios vehículos en una sola solicitud, por ejemplo al dar de alta una flota.
+     *
+     * @param items Lista de elementos con el ID del cliente y los datos de cada vehículo.
+     * @return {@link ResponseEntity} con el resultado de cada elemento: el ID asignado o los errores de validación.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoLote>> createVehiculos(@RequestBody List<ItemLoteVehiculo> items) {
+        List<ResultadoLote> resultados = vehiculoService.saveVehiculos(items);
+        return ResponseEntity.ok(resultados);
+    }
+
     /**
      * Endpoint para obtener un vehículo por su ID.
      *
      * @param id Identificador único del vehículo.
-     * @return {@link ResponseEntity} con el vehículo encontrado o un estado 404 (NOT FOUND) si no existe.
+     * @param ifNoneMatch ETag de la versión que ya tiene quien consulta, si la envía.
+     * @return {@link ResponseEntity} con el vehículo encontrado serializado a JSON y su ETag, 304 (NOT MODIFIED) si no
+     *         cambió desde la versión indicada, o un estado 404 (NOT FOUND) si no existe.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Vehiculo> getVehiculoById(@PathVariable Long id) {
-        Vehiculo vehiculo = vehiculoService.getVehiculo(id);
-        return ResponseEntity.ok(vehiculo);
+    public ResponseEntity<byte[]> getVehiculoById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        CacheRespuestas.RespuestaSerializada respuesta = null;
+        // Primero se compara solo la versión, la de la respuesta guardada o, si no está, la leída sin cargar el vehículo
+        if (ifNoneMatch != null) {
+            respuesta = cacheRespuestas.buscar(CacheRespuestas.VEHICULOS, id);
+            String etag = respuesta != null ? respuesta.etag() : Etags.deVersion(vehiculoService.getVersionVehiculo(id));
+            if (Etags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        // Las solicitudes simultáneas de un vehículo que no está en la caché comparten una única carga
+        if (respuesta == null) {
+            respuesta = cacheRespuestas.obtener(CacheRespuestas.VEHICULOS, id, () -> vehiculoService.getVehiculo(id), Vehiculo::getVersion);
+        }
+        return ResponseEntity.ok().eTag(respuesta.etag()).contentType(MediaType.APPLICATION_JSON).body(respuesta.cuerpo());
+    }
+
+    /**
+     * Endpoint para obtener un vehículo por su matrícula.
+     *
+     * @param matricula Matrícula del vehículo.
+     * @return {@link ResponseEntity} con el vehículo encontrado y su ETag; 304 (NOT MODIFIED) si no cambió
+     *         desde la versión indicada en If-None-Match.
+     */
+    @GetMapping("/matricula/{matricula}")
+    public ResponseEntity<Vehiculo> getVehiculoByMatricula(@PathVariable String matricula) {
+        Vehiculo vehiculo = vehiculoService.getVehiculoPorMatricula(matricula);
+        return ResponseEntity.ok().eTag(Etags.deVersion(vehiculo.getVersion())).body(vehiculo);
+    }
+
+    /**
+     * Endpoint para buscar vehículos por el comienzo de su matrícula (autocompletado).
+     *
+     * @param prefijo Comienzo de la matrícula.
+     * @param limit   Cantidad máxima de resultados, acotada por el servidor.
+     * @return {@link ResponseEntity} con las matrículas encontradas y el ID de cada vehículo.
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<List<CoincidenciaMatricula>> buscarPorMatricula(@RequestParam String prefijo,
+                                                                         @RequestParam(required = false) Integer limit) {
+        List<CoincidenciaMatricula> coincidencias = vehiculoService.buscarPorPrefijo(prefijo, limit);
+        return ResponseEntity.ok(coincidencias);
     }
 
     /**
-     * Endpoint para obtener la lista de todos los vehículos registrados.
+     * Endpoint para obtener los vehículos paginados por cursor.
      *
-     * @return {@link ResponseEntity} con una lista de todos los vehículos registrados.
+     * @param after Cursor opaco recibido en la página anterior; se omite para obtener la primera página.
+     * @param limit Cantidad máxima de vehículos a devolver, acotada por el servidor.
+     * @return {@link ResponseEntity} con la página de vehículos, el cursor de la siguiente página y el ETag de la página;
+     *         304 (NOT MODIFIED), sin serializar la página, si no cambió desde el ETag indicado en If-None-Match.
      */
     @GetMapping
-    public ResponseEntity<List<Vehiculo>> getAllVehiculos() {
-        List<Vehiculo> vehiculos = vehiculoService.getAllVehiculos();
-        return ResponseEntity.ok(vehiculos);
+    public ResponseEntity<PaginaCursor<Vehiculo>> getAllVehiculos(@RequestParam(required = false) String after,
+                                                                  @RequestParam(required = false) Integer limit) {
+        PaginaCursor<Vehiculo> vehiculos = vehiculoService.getAllVehiculos(after, limit);
+        return ResponseEntity.ok().eTag(Etags.deLista(vehiculos)).body(vehiculos);
     }
 
     /**
@@ -74,11 +144,14 @@ public class VehiculoController {
      *
      * @param id Identificador único del vehículo a actualizar.
      * @param vehiculo Objeto Vehiculo validado con los nuevos datos para actualizar.
-     * @return {@link ResponseEntity} con el vehículo actualizado.
+     * @param ifMatch ETag de la versión que se modificó; si el vehículo cambió desde entonces se responde
+     *                412 (PRECONDITION FAILED) en lugar de pisar el cambio.
+     * @return {@link ResponseEntity} con el vehículo actualizado y su nuevo ETag.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Vehiculo> updateVehiculo(@PathVariable Long id, @Valid @RequestBody Vehiculo vehiculo) {
-        Vehiculo updatedVehiculo = vehiculoService.updateVehiculo(id, vehiculo);
-        return ResponseEntity.ok(updatedVehiculo);
+    public ResponseEntity<Vehiculo> updateVehiculo(@PathVariable Long id, @Valid @RequestBody Vehiculo vehiculo,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Vehiculo updatedVehiculo = vehiculoService.updateVehiculo(id, vehiculo, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.deVersion(updatedVehiculo.getVersion())).body(updatedVehiculo);
     }
 }
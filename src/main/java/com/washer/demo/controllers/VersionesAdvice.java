@@ -0,0 +1,32 @@
+package com.washer.demo.controllers;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Traduce los conflictos de versión de las entidades en respuestas HTTP.
+ * Si la solicitud indicaba la versión esperada con If-Match se responde 412 (PRECONDITION FAILED);
+ * si no, el conflicto se produjo con una modificación concurrente y se responde 409 (CONFLICT).
+ * En ambos casos quien modificaba debe volver a leer el recurso antes de reintentar.
+ */
+@RestControllerAdvice
+public class VersionesAdvice {
+
+    /**
+     * Maneja una modificación rechazada porque la entidad cambió desde la versión leída.
+     *
+     * @param e         Excepción con el detalle del conflicto.
+     * @param solicitud Solicitud rechazada, para saber si indicaba la versión esperada.
+     * @return {@link ResponseEntity} con el estado 412 o 409 y el motivo del rechazo.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> versionDesactualizada(OptimisticLockingFailureException e, WebRequest solicitud) {
+        HttpStatus estado = solicitud.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(estado).body(e.getMessage());
+    }
+}
@@ -0,0 +1,24 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cliente encontrado por la búsqueda aproximada, con la proporción del texto buscado que coincide.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoincidenciaCliente {
+
+    private Long id; // Identificador único del cliente.
+
+    private String nombre; // Nombre del cliente.
+
+    private String correoElectronico; // Correo electrónico del cliente.
+
+    private String telefono; // Teléfono del cliente.
+
+    private double puntaje; // Proporción de trigramas de la búsqueda presentes en el cliente (0 a 1).
+}
@@ -0,0 +1,18 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vehículo cuya matrícula coincide con una búsqueda por prefijo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoincidenciaMatricula {
+
+    private String matricula; // Matrícula del vehículo.
+
+    private Long vehiculoId; // Identificador único del vehículo.
+}
@@ -0,0 +1,26 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores de una región de la caché de segundo nivel, acumulados desde el inicio de la aplicación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaCache {
+
+    private String region; // Nombre de la región (ver application.conf).
+
+    private long entradas; // Cantidad aproximada de entradas almacenadas.
+
+    private long aciertos; // Lecturas resueltas desde la caché.
+
+    private long fallos; // Lecturas que tuvieron que ir a la base de datos.
+
+    private long desalojos; // Entradas quitadas por tamaño o por vencimiento.
+
+    private double tasaAciertos; // Proporción de aciertos sobre el total de lecturas (0 a 1).
+}
@@ -0,0 +1,26 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores de la caché de respuestas serializadas para un recurso, acumulados desde el inicio de la aplicación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaCacheRespuestas {
+
+    private String recurso; // Recurso cuyas consultas por ID se guardan (vehiculos o turnos).
+
+    private long entradas; // Cantidad de respuestas almacenadas.
+
+    private long aciertos; // Consultas resueltas desde la caché.
+
+    private long fallos; // Consultas que cargaron y serializaron el recurso.
+
+    private long coalescidas; // Consultas que esperaron la carga iniciada por otra solicitud en lugar de repetirla.
+
+    private double tasaAciertos; // Proporción de aciertos sobre el total de consultas (0 a 1).
+}
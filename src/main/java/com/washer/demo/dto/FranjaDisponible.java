@@ -0,0 +1,22 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Franja horaria de la agenda del lavadero con la cantidad de boxes que quedan libres.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranjaDisponible {
+
+    private LocalDateTime inicio; // Comienzo de la franja.
+
+    private LocalDateTime fin; // Fin de la franja (inicio más la duración de un turno).
+
+    private int boxesLibres; // Boxes sin turno programado durante toda la franja.
+}
@@ -0,0 +1,25 @@
+package com.washer.demo.dto;
+
+import com.washer.demo.entities.Vehiculo;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Elemento de una solicitud de alta de vehículos en lote.
+ * Asocia los datos del vehículo con el ID del cliente al que pertenece.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemLoteVehiculo {
+
+    @NotNull(message = "El ID del cliente no puede ser nulo.")
+    private Long clienteId; // Cliente al que se asociará el vehículo.
+
+    @NotNull(message = "Los datos del vehículo no pueden ser nulos.")
+    @Valid
+    private Vehiculo vehiculo; // Datos del vehículo a crear, validados con sus propias restricciones.
+}
@@ -0,0 +1,24 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida mediante paginación por cursor (keyset).
+ * Contiene los elementos de la página y un cursor opaco para solicitar la siguiente,
+ * que es nulo cuando no quedan más resultados.
+ *
+ * @param <T> Tipo de los elementos contenidos en la página.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursor<T> {
+
+    private List<T> contenido; // Elementos de la página actual, ordenados por ID ascendente.
+
+    private String siguienteCursor; // Cursor opaco para pedir la siguiente página o null si es la última.
+}
@@ -0,0 +1,46 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de un elemento dentro de una operación de creación en lote.
+ * Indica la posición del elemento en la solicitud, el ID asignado si fue creado
+ * o los errores que impidieron crearlo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLote {
+
+    private int indice; // Posición del elemento en la lista recibida (comenzando en 0).
+
+    private Long id; // ID asignado al elemento creado, o null si fue rechazado.
+
+    private List<String> errores; // Motivos del rechazo; vacío si el elemento fue creado.
+
+    /**
+     * Crea un resultado exitoso.
+     *
+     * @param indice Posición del elemento en la solicitud.
+     * @param id     ID asignado al elemento.
+     * @return Resultado sin errores.
+     */
+    public static ResultadoLote creado(int indice, Long id) {
+        return new ResultadoLote(indice, id, List.of());
+    }
+
+    /**
+     * Crea un resultado rechazado.
+     *
+     * @param indice  Posición del elemento en la solicitud.
+     * @param errores Motivos del rechazo.
+     * @return Resultado sin ID asignado.
+     */
+    public static ResultadoLote rechazado(int indice, List<String> errores) {
+        return new ResultadoLote(indice, null, errores);
+    }
+}
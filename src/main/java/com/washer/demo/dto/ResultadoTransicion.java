@@ -0,0 +1,16 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de un cambio de estado masivo de turnos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoTransicion {
+
+    private int actualizados; // Cantidad de turnos programados que cambiaron de estado.
+}
@@ -0,0 +1,28 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reporte de recaudación para un rango de fechas, con los totales del período
+ * y el detalle por día y tipo de servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCobros {
+
+    private LocalDate desde; // Primer día del período (inclusive).
+
+    private LocalDate hasta; // Último día del período (inclusive).
+
+    private Double total; // Recaudación total del período.
+
+    private Long cantidad; // Cantidad total de cobros del período.
+
+    private List<ResumenDiario> detalle; // Recaudación por día y tipo de servicio.
+}
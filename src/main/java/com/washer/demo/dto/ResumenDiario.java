@@ -0,0 +1,24 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Recaudación de un día para un tipo de servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenDiario {
+
+    private LocalDate fecha; // Día de los cobros.
+
+    private String tipoServicio; // Tipo de servicio del turno cobrado.
+
+    private Double total; // Suma de los montos cobrados.
+
+    private Long cantidad; // Cantidad de cobros.
+}
@@ -0,0 +1,25 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una carga de datos sintéticos: cantidad de filas insertadas por tabla
+ * y tiempo total empleado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenGeneracion {
+
+    private long clientes; // Clientes insertados.
+
+    private long vehiculos; // Vehículos insertados.
+
+    private long turnos; // Turnos insertados, en cualquier estado.
+
+    private long cobros; // Cobros insertados.
+
+    private long milisegundos; // Duración total, incluyendo la recarga de los índices en memoria.
+}
@@ -0,0 +1,18 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tokens entregados al iniciar o refrescar una sesión.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokensSesion {
+
+    private String token; // Token JWT de acceso, de corta duración.
+
+    private String refreshToken; // Token de refresco, de un solo uso, para obtener nuevos tokens sin credenciales.
+}
@@ -0,0 +1,25 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Solicitud de cambio de estado de varios turnos programados, indicados por ID o por un rango de fechas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransicionTurnos {
+
+    private List<Long> ids; // Turnos a actualizar; si se indican, se ignora el rango de fechas.
+
+    private LocalDateTime desde; // Comienzo del rango de fechas de los turnos a actualizar (inclusive).
+
+    private LocalDateTime hasta; // Fin del rango de fechas de los turnos a actualizar (exclusive).
+
+    private String estado; // Nuevo estado de los turnos: completado o cancelado.
+}
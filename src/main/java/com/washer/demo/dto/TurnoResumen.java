@@ -0,0 +1,29 @@
+package com.washer.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Vista resumida de un turno para los listados: solo los datos que se muestran,
+ * junto con la matrícula del vehículo, obtenidos en una única consulta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnoResumen {
+
+    private Long id; // Identificador único del turno.
+
+    private Date fechaHora; // Fecha y hora programadas para el turno.
+
+    private String estado; // Estado actual del turno.
+
+    private String tipoServicio; // Tipo de servicio asignado al turno.
+
+    private String matricula; // Matrícula del vehículo del turno.
+
+    private Long version; // Versión del turno, para enviarla en If-Match al modificarlo.
+}
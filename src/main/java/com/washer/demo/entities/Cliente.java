@@ -2,12 +2,19 @@ package com.washer.demo.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.Set;
 
@@ -21,10 +28,13 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cliente") // Se guarda en la caché de segundo nivel, ver application.conf
 public class Cliente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_seq")
+    @SequenceGenerator(name = "cliente_seq", sequenceName = "cliente_seq", allocationSize = 50) // IDs por bloques para permitir inserciones en lote
     private Long id; // Identificador único del cliente, generado automáticamente.
 
     @NotBlank(message = "El nombre no puede estar vacío.")
@@ -39,8 +49,17 @@ public class Cliente {
     @Pattern(regexp = "\\d{10}", message = "El teléfono debe contener exactamente 10 dígitos.")
     private String telefono; // Teléfono del cliente con validación de formato y longitud exacta.
 
+    @Version
+    @ColumnDefault("0") // Las filas existentes y las insertadas por JDBC comienzan en la versión 0
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) // Se informa en las respuestas pero no se toma de las solicitudes
+    private Long version;  // Versión de la fila, aumenta con cada modificación y se usa como ETag.
+
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OptimisticLock(excluded = true) // Agregar o quitar vehículos no cambia la versión ni el ETag del cliente.
     @JsonManagedReference // Manejo de referencia para relaciones bidireccionales en JSON.
     @JsonIgnore // Previene la serialización de la lista de vehículos en respuestas JSON.
+    @ToString.Exclude // La colección no participa de toString, equals ni hashCode para no cargarla ni recorrerla.
+    @EqualsAndHashCode.Exclude
     private Set<Vehiculo> vehiculos; // Conjunto de vehículos asociados al cliente.
 }
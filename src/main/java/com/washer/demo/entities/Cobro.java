@@ -2,12 +2,16 @@ package com.washer.demo.entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.Date;
 
@@ -20,10 +24,12 @@ import java.util.Date;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = @Index(name = "idx_cobro_fecha", columnList = "fecha")) // Búsqueda de cobros antiguos para archivar
 public class Cobro {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cobro_seq")
+    @SequenceGenerator(name = "cobro_seq", sequenceName = "cobro_seq", allocationSize = 50) // IDs por bloques para permitir inserciones en lote
     private Long id;  // Identificador único del cobro, generado automáticamente.
 
     @NotNull(message = "El monto no puede ser nulo.")
@@ -32,14 +38,23 @@ public class Cobro {
 
     private Date fecha;  // Fecha en la que se realizó el cobro.
 
+    @Version
+    @ColumnDefault("0") // Las filas existentes y las insertadas por JDBC comienzan en la versión 0
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) // Se informa en las respuestas pero no se toma de las solicitudes
+    private Long version;  // Versión de la fila, aumenta con cada modificación y se usa como ETag.
+
     /**
      * Relación uno a uno con la entidad Turno.
      * Cada cobro está asociado a un turno específico en el sistema.
      * Utiliza anotaciones de JSON para prevenir problemas de serialización recursiva.
+     * Se carga de forma diferida: solo se necesita para agrupar el cobro en los resúmenes de recaudación.
      */
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "turno_id") // Define la columna en la base de datos para la relación.
     @JsonBackReference // Manejo de referencia inversa para relaciones bidireccionales en JSON.
     @JsonIgnore // Evita incluir la información del turno en las respuestas JSON del cobro.
+    @ToString.Exclude // Evita inicializar el turno al convertir el cobro en texto.
+    @EqualsAndHashCode.Exclude
     private Turno turno;
 }
@@ -0,0 +1,32 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.Date;
+
+/**
+ * Entidad CobroArchivado que conserva un cobro antiguo, movido junto con su turno
+ * (o solo, si no tiene turno) al archivo. El turno se guarda como un ID sin clave foránea.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "cobro_archivo", indexes = @Index(name = "idx_cobro_archivo_turno", columnList = "turno_id"))
+public class CobroArchivado {
+
+    @Id
+    private Long id; // Identificador que tenía el cobro antes de archivarse.
+
+    private Double monto; // Monto cobrado.
+
+    private Date fecha; // Fecha en la que se realizó el cobro.
+
+    @Column(name = "turno_id")
+    private Long turnoId; // Turno cobrado, también archivado.
+}
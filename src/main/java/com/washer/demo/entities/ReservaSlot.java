@@ -0,0 +1,28 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+/**
+ * Entidad ReservaSlot que representa la ocupación de un box en una franja horaria por un turno.
+ * La clave primaria (franja, box) impide que dos turnos tomen el mismo box en la misma franja,
+ * por lo que nunca puede haber más turnos simultáneos que boxes, aun con solicitudes concurrentes
+ * o varias instancias de la aplicación.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "idx_reserva_slot_turno", columnList = "turno_id"))
+public class ReservaSlot {
+
+    @EmbeddedId
+    private ReservaSlotId id; // Franja horaria y box reservados.
+
+    @Column(name = "turno_id", nullable = false)
+    private Long turnoId; // Turno que ocupa el box en la franja.
+}
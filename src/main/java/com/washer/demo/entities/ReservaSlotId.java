@@ -0,0 +1,25 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Clave compuesta de {@link ReservaSlot}: franja horaria y número de box.
+ * Al ser la clave primaria, garantiza a nivel de base de datos que cada box
+ * se asigne a un único turno por franja.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class ReservaSlotId implements Serializable {
+
+    private LocalDateTime inicio; // Comienzo de la franja horaria reservada.
+
+    private Integer box; // Número de box, entre 1 y la cantidad de boxes del lavadero.
+}
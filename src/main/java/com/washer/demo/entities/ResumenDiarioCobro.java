@@ -0,0 +1,27 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+/**
+ * Entidad ResumenDiarioCobro que acumula la recaudación por día y tipo de servicio.
+ * Se mantiene actualizada con cada alta, modificación o baja de un cobro, de modo que los
+ * reportes de recaudación se respondan leyendo unas pocas filas en lugar de sumar todos los cobros.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class ResumenDiarioCobro {
+
+    @EmbeddedId
+    private ResumenDiarioCobroId id; // Día y tipo de servicio del resumen.
+
+    private Double total; // Suma de los montos cobrados.
+
+    private Long cantidad; // Cantidad de cobros registrados.
+}
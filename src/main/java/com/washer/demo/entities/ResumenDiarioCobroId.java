@@ -0,0 +1,23 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Clave compuesta de {@link ResumenDiarioCobro}: día y tipo de servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class ResumenDiarioCobroId implements Serializable {
+
+    private LocalDate fecha; // Día en que se registraron los cobros.
+
+    private String tipoServicio; // Tipo de servicio del turno asociado a los cobros.
+}
@@ -0,0 +1,52 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.Date;
+
+/**
+ * Entidad TokenRefresco que representa un token de refresco emitido a un dispositivo.
+ * El token entregado al cliente tiene la forma {@code selector.verificador}: el selector identifica
+ * la fila y del verificador solo se guarda su hash, por lo que una copia de la tabla no permite
+ * usar los tokens.
+ *
+ * Cada refresco consume el token y emite uno nuevo de la misma familia. Todos los tokens de una
+ * familia vencen juntos, al cumplirse la duración de la sesión iniciada con el login.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_token_refresco_familia", columnList = "familia"),
+        @Index(name = "idx_token_refresco_jti_acceso", columnList = "jtiAcceso"),
+        @Index(name = "idx_token_refresco_expiracion", columnList = "expiracion")
+})
+public class TokenRefresco {
+
+    @Id
+    @Column(length = 32)
+    private String selector; // Parte pública del token, identifica la fila.
+
+    @Column(nullable = false, length = 44)
+    private String hashVerificador; // Hash SHA-256 (Base64) de la parte secreta del token.
+
+    @Column(nullable = false, length = 36)
+    private String familia; // Identificador de la sesión a la que pertenecen los tokens rotados.
+
+    @Column(nullable = false)
+    private String usuario; // Usuario al que se emitió el token.
+
+    @Column(length = 36)
+    private String jtiAcceso; // Identificador del token de acceso emitido junto con este token.
+
+    @Column(nullable = false)
+    private Date expiracion; // Vencimiento de la familia.
+
+    private boolean usado; // Indica si el token ya se usó para refrescar la sesión.
+}
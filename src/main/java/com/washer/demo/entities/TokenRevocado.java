@@ -0,0 +1,30 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.Date;
+
+/**
+ * Entidad TokenRevocado que registra un token JWT invalidado antes de su vencimiento
+ * (por cierre de sesión o revocación administrativa). Se conserva solo hasta que el token vence,
+ * ya que a partir de ese momento la propia expiración lo invalida.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "idx_token_revocado_expiracion", columnList = "expiracion"))
+public class TokenRevocado {
+
+    @Id
+    @Column(length = 36)
+    private String jti; // Identificador único del token (claim "jti").
+
+    @Column(nullable = false)
+    private Date expiracion; // Fecha en que vence el token revocado.
+}
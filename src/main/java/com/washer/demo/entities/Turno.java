@@ -1,12 +1,16 @@
 package com.washer.demo.entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.Date;
 
@@ -19,10 +23,16 @@ import java.util.Date;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_turno_estado_fecha", columnList = "estado, fechaHora"), // Turnos en un estado dentro de un rango de fechas
+        @Index(name = "idx_turno_vehiculo_fecha", columnList = "vehiculo_id, fechaHora"), // Historial de turnos de un vehículo
+        @Index(name = "idx_turno_fecha", columnList = "fechaHora") // Búsquedas solo por rango de fechas
+})
 public class Turno {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "turno_seq")
+    @SequenceGenerator(name = "turno_seq", sequenceName = "turno_seq", allocationSize = 50) // IDs por bloques para permitir inserciones en lote
     private Long id;  // Identificador único del turno, generado automáticamente.
 
     private Date fechaHora;  // Fecha y hora programadas para el turno.
@@ -35,12 +45,21 @@ public class Turno {
     @Size(max = 100, message = "El tipo de servicio no puede exceder los 100 caracteres.")
     private String tipoServicio;  // Descripción del tipo de servicio asignado al turno.
 
+    @Version
+    @ColumnDefault("0") // Las filas existentes y las insertadas por JDBC comienzan en la versión 0
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) // Se informa en las respuestas pero no se toma de las solicitudes
+    private Long version;  // Versión de la fila, aumenta con cada modificación y se usa como ETag.
+
     /**
      * Relación muchos a uno con la entidad Vehiculo.
      * Cada turno pertenece a un único vehículo, y utiliza anotaciones de JSON para prevenir recursión infinita.
+     * Se carga de forma diferida: las consultas que necesitan el vehículo lo piden explícitamente.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehiculo_id") // Define la columna que almacena el ID del vehículo en la base de datos.
     @JsonBackReference // Manejo de referencia inversa para relaciones bidireccionales en JSON.
+    @ToString.Exclude // Evita inicializar el vehículo al convertir el turno en texto.
+    @EqualsAndHashCode.Exclude
     private Vehiculo vehiculo;
 }
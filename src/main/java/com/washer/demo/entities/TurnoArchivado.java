@@ -0,0 +1,36 @@
+package com.washer.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.Date;
+
+/**
+ * Entidad TurnoArchivado que conserva un turno completado o cancelado anterior al horizonte de archivo.
+ * Los turnos antiguos se mueven a esta tabla para que la tabla de turnos y sus índices contengan
+ * solo la historia reciente. El vehículo se guarda como un ID sin clave foránea, por lo que el
+ * historial se conserva aunque el vehículo se elimine.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "turno_archivo")
+public class TurnoArchivado {
+
+    @Id
+    private Long id; // Identificador que tenía el turno antes de archivarse.
+
+    private Date fechaHora; // Fecha y hora del turno.
+
+    private String estado; // Estado final del turno: completado o cancelado.
+
+    private String tipoServicio; // Tipo de servicio del turno.
+
+    @Column(name = "vehiculo_id")
+    private Long vehiculoId; // Vehículo al que pertenecía el turno.
+}
@@ -3,12 +3,21 @@ package com.washer.demo.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.OptimisticLock;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.Set;
 
@@ -21,10 +30,15 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vehiculo") // Se guarda en la caché de segundo nivel, ver application.conf
+@NaturalIdCache(region = "vehiculo-matricula") // Cachea la resolución de matrícula a ID
+@Table(indexes = @Index(name = "uk_vehiculo_matricula", columnList = "matricula", unique = true))
 public class Vehiculo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehiculo_seq")
+    @SequenceGenerator(name = "vehiculo_seq", sequenceName = "vehiculo_seq", allocationSize = 50) // IDs por bloques para permitir inserciones en lote
     private Long id;  // Identificador único del vehículo, generado automáticamente.
 
     @NotBlank(message = "El modelo no puede estar vacío.")
@@ -33,21 +47,32 @@ public class Vehiculo {
 
     @NotBlank(message = "La matrícula no puede estar vacía.")
     @Pattern(regexp = "^[A-Z0-9]{1,10}$", message = "La matrícula debe contener entre 1 y 10 caracteres alfanuméricos en mayúsculas.")
-    private String matricula;  // Matrícula del vehículo con restricciones de formato y longitud.
+    @NaturalId(mutable = true)
+    @Column(nullable = false, length = 10)
+    private String matricula;  // Matrícula del vehículo, única, con restricciones de formato y longitud.
 
     @NotBlank(message = "El tipo de vehículo no puede estar vacío.")
     @Size(max = 30, message = "El tipo de vehículo no puede exceder los 30 caracteres.")
     private String tipo;  // Tipo de vehículo, como sedan, SUV, etc.
 
+    @Version
+    @ColumnDefault("0") // Las filas existentes y las insertadas por JDBC comienzan en la versión 0
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) // Se informa en las respuestas pero no se toma de las solicitudes
+    private Long version;  // Versión de la fila, aumenta con cada modificación y se usa como ETag.
+
     /**
      * Relación muchos a uno con la entidad Cliente.
      * Cada vehículo pertenece a un único cliente.
      * Se utiliza JsonBackReference para manejar relaciones bidireccionales en JSON.
+     * Se carga de forma diferida, ya que no forma parte de la respuesta JSON del vehículo.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id") // Define la columna que almacena el ID del cliente asociado.
     @JsonBackReference // Manejo de referencia inversa para evitar recursión infinita en JSON.
     @JsonIgnore // Excluye la información del cliente de la serialización JSON del vehículo.
+    @ToString.Exclude // Evita inicializar el cliente al convertir el vehículo en texto.
+    @EqualsAndHashCode.Exclude
     private Cliente cliente;
 
     /**
@@ -56,7 +81,10 @@ public class Vehiculo {
      * La relación incluye cascada para todas las operaciones y eliminación de huérfanos.
      */
     @OneToMany(mappedBy = "vehiculo", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OptimisticLock(excluded = true) // Agregar o quitar turnos no cambia la versión ni el ETag del vehículo.
     @JsonManagedReference // Administra la serialización para incluir turnos correctamente.
     @JsonIgnore // Previene la serialización de la lista de turnos en las respuestas JSON.
+    @ToString.Exclude // La colección no participa de toString, equals ni hashCode para no cargarla ni recorrerla.
+    @EqualsAndHashCode.Exclude
     private Set<Turno> turnos;
 }
@@ -1,11 +1,20 @@
 package com.washer.demo.filters;
 
+import com.washer.demo.services.RevocacionService;
 import com.washer.demo.util.JwtUtil;
+import com.washer.demo.util.TokensVerificados;
+import com.washer.demo.util.TokensVerificados.TokenVerificado;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,11 +24,18 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Filtro para validar el token JWT en cada solicitud HTTP.
  * Este filtro se ejecuta una vez por solicitud y valida el encabezado de autorización.
  * Si el token JWT es válido, se establece el contexto de seguridad para el usuario.
+ * Los tokens ya verificados se resuelven desde {@link TokensVerificados} sin repetir la
+ * verificación de la firma ni la consulta del usuario, pero siempre se comprueba que no hayan
+ * sido revocados.
+ *
+ * El tiempo de autenticación de cada token se registra en la métrica {@code jwt.verificacion},
+ * etiquetada según si el token se resolvió desde la caché, se verificó o fue rechazado.
  */
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -30,6 +46,37 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokensVerificados tokensVerificados;
+
+    @Autowired
+    private RevocacionService revocacionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Métricas creadas una única vez para no buscarlas en el registro en cada solicitud.
+    private Timer tiempoCache;
+    private Timer tiempoVerificado;
+    private Timer tiempoRechazado;
+
+    /**
+     * Crea las métricas de tiempo de verificación de tokens.
+     */
+    @PostConstruct
+    void inicializarMetricas() {
+        tiempoCache = tiempoVerificacion("cache");
+        tiempoVerificado = tiempoVerificacion("verificado");
+        tiempoRechazado = tiempoVerificacion("rechazado");
+    }
+
+    private Timer tiempoVerificacion(String resultado) {
+        return Timer.builder("jwt.verificacion")
+                .description("Tiempo de autenticación de un token JWT")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
     /**
      * Método que intercepta cada solicitud HTTP para validar el token JWT.
      *
@@ -52,19 +99,15 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
         // Extraer el token JWT del encabezado "Authorization" si está presente
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt); // Extraer el nombre de usuario del token
-        }
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            TokenVerificado verificado = autenticar(jwt);
 
-        // Validar el token y configurar el contexto de seguridad si es válido
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            // Configurar el contexto de seguridad si el token es válido y no fue revocado
+            if (verificado != null && !revocacionService.estaRevocado(verificado.jti())) {
+                UserDetails userDetails = verificado.usuario();
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -75,4 +118,30 @@ public class JwtFilter extends OncePerRequestFilter {
         // Continuar con el siguiente filtro en la cadena
         chain.doFilter(request, response);
     }
+
+    /**
+     * Obtiene el usuario autenticado por un token. Si el token no fue verificado antes, se analiza
+     * una única vez (firma y expiración), se carga el usuario y se registra en la caché.
+     *
+     * @param jwt Token JWT recibido.
+     * @return El token verificado con su usuario, o null si el token no es válido o el usuario no existe.
+     */
+    private TokenVerificado autenticar(String jwt) {
+        long inicio = System.nanoTime();
+        TokenVerificado verificado = tokensVerificados.obtener(jwt);
+        if (verificado != null) {
+            tiempoCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return verificado;
+        }
+        try {
+            Claims claims = jwtUtil.verificarToken(jwt);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            verificado = tokensVerificados.registrar(jwt, userDetails, claims);
+            tiempoVerificado.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return verificado;
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            tiempoRechazado.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return null; // La solicitud continúa sin autenticar y la rechaza la configuración de seguridad
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.washer.demo.repositories;
+
+import java.util.Date;
+
+/**
+ * Proyección mínima de un turno utilizada para construir la agenda de disponibilidad.
+ * Solo incluye los datos necesarios para ubicar el turno en el tiempo.
+ */
+public interface AgendaTurno {
+
+    Long getId();
+
+    Date getFechaHora();
+}
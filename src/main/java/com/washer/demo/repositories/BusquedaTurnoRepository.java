@@ -0,0 +1,28 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.dto.TurnoResumen;
+import com.washer.demo.entities.Turno;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Búsqueda de turnos con filtros dinámicos, implementada con la API Criteria
+ * en {@link BusquedaTurnoRepositoryImpl} y expuesta a través de {@link TurnoRepository}.
+ */
+public interface BusquedaTurnoRepository {
+
+    /**
+     * Obtiene la vista resumida de los turnos que cumplen el filtro, ordenados por fecha y luego por ID
+     * (paginación por cursor). Con los índices que comienzan por la columna filtrada y siguen por la fecha,
+     * la base de datos recorre solo el rango pedido y en el orden de la respuesta, sin ordenar las filas.
+     *
+     * @param filtro      Filtro de los turnos; puede ser nulo para no filtrar.
+     * @param fechaCursor Fecha del último turno entregado al cliente, o null para la primera página.
+     * @param idCursor    ID del último turno entregado al cliente; se ignora si no hay fecha de cursor.
+     * @param limite      Cantidad máxima de filas a devolver.
+     * @return Lista de resúmenes ordenada por fecha y ID ascendentes.
+     */
+    List<TurnoResumen> buscarResumenes(Specification<Turno> filtro, Date fechaCursor, Long idCursor, int limite);
+}
@@ -0,0 +1,62 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.dto.TurnoResumen;
+import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.Vehiculo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Implementación de {@link BusquedaTurnoRepository} con la API Criteria.
+ * Proyecta directamente sobre {@link TurnoResumen}, por lo que no se cargan entidades en el contexto
+ * de persistencia, y obtiene la matrícula con una única unión al vehículo.
+ */
+public class BusquedaTurnoRepositoryImpl implements BusquedaTurnoRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TurnoResumen> buscarResumenes(Specification<Turno> filtro, Date fechaCursor, Long idCursor, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TurnoResumen> query = cb.createQuery(TurnoResumen.class);
+        Root<Turno> turno = query.from(Turno.class);
+        Join<Turno, Vehiculo> vehiculo = TurnoEspecificaciones.vehiculo(turno);
+        Path<Date> fechaHora = turno.get("fechaHora");
+        Path<Long> id = turno.get("id");
+
+        List<Predicate> condiciones = new ArrayList<>();
+        if (filtro != null) {
+            Predicate predicado = filtro.toPredicate(turno, query, cb);
+            if (predicado != null) {
+                condiciones.add(predicado);
+            }
+        }
+        if (fechaCursor != null) {
+            // La condición >= es redundante, pero permite que la base de datos recorra el índice como un rango
+            condiciones.add(cb.greaterThanOrEqualTo(fechaHora, fechaCursor));
+            condiciones.add(cb.or(cb.greaterThan(fechaHora, fechaCursor),
+                    cb.and(cb.equal(fechaHora, fechaCursor), cb.greaterThan(id, idCursor))));
+        }
+
+        query.select(cb.construct(TurnoResumen.class,
+                        id, fechaHora, turno.get("estado"), turno.get("tipoServicio"), vehiculo.get("matricula"),
+                        turno.get("version")))
+                .where(condiciones.toArray(Predicate[]::new))
+                .orderBy(cb.asc(fechaHora), cb.asc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
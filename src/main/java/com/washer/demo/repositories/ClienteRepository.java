@@ -1,8 +1,13 @@
 package com.washer.demo.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import com.washer.demo.entities.Cliente;
 
+import java.util.List;
+
 /**
  * Repositorio JPA para gestionar la entidad Cliente en la base de datos.
  * Este repositorio proporciona operaciones CRUD (Crear, Leer, Actualizar, Eliminar)
@@ -15,5 +20,34 @@ import com.washer.demo.entities.Cliente;
  * - deleteById(): Elimina un cliente utilizando su ID.
  */
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
-    // Se pueden agregar métodos personalizados si es necesario, además de los proporcionados por JpaRepository.
+
+    /**
+     * Devuelve los clientes cuyo ID supera el indicado, en orden ascendente.
+     * Permite paginar por cursor usando el índice de la clave primaria.
+     *
+     * @param id    Último ID entregado al cliente (exclusivo).
+     * @param limit Cantidad máxima de filas a devolver.
+     * @return Lista de clientes ordenada por ID ascendente.
+     */
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Obtiene los datos de contacto de todos los clientes, para construir el índice de búsqueda.
+     * Al ser una proyección, no carga las entidades ni las agrega a la caché.
+     *
+     * @return Datos de contacto de cada cliente.
+     */
+    @Query("select c.id as id, c.nombre as nombre, c.correoElectronico as correoElectronico, c.telefono as telefono from Cliente c")
+    List<DatosCliente> findAllDatosBusqueda();
+
+    /**
+     * Elimina un cliente con una sentencia, sin cargarlo ni recorrer sus vehículos en cascada.
+     * Sus vehículos, turnos y cobros deben eliminarse antes.
+     *
+     * @param id ID del cliente.
+     * @return Cantidad de clientes eliminados.
+     */
+    @Modifying
+    @Query("delete from Cliente c where c.id = :id")
+    int deleteSinCascada(Long id);
 }
@@ -0,0 +1,37 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.entities.CobroArchivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+
+/**
+ * Repositorio JPA para los cobros archivados.
+ * Los cobros se copian desde la tabla de cobros con una única sentencia por bloque, sin cargarlos.
+ */
+public interface CobroArchivadoRepository extends JpaRepository<CobroArchivado, Long> {
+
+    /**
+     * Copia al archivo los cobros de los turnos indicados.
+     *
+     * @param turnoIds Identificadores de los turnos que se archivan.
+     * @return Cantidad de cobros copiados.
+     */
+    @Modifying
+    @Query("insert into CobroArchivado (id, monto, fecha, turnoId) "
+            + "select c.id, c.monto, c.fecha, c.turno.id from Cobro c where c.turno.id in :turnoIds")
+    int archivarDeTurnos(Collection<Long> turnoIds);
+
+    /**
+     * Copia al archivo los cobros indicados.
+     *
+     * @param ids Identificadores de los cobros.
+     * @return Cantidad de cobros copiados.
+     */
+    @Modifying
+    @Query("insert into CobroArchivado (id, monto, fecha, turnoId) "
+            + "select c.id, c.monto, c.fecha, c.turno.id from Cobro c where c.id in :ids")
+    int archivar(Collection<Long> ids);
+}
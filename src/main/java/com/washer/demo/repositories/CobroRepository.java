@@ -1,8 +1,21 @@
 package com.washer.demo.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import com.washer.demo.entities.Cobro;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Repositorio JPA para gestionar la entidad Cobro.
  * Proporciona acceso a las operaciones CRUD (Crear, Leer, Actualizar, Eliminar)
@@ -15,5 +28,98 @@ import com.washer.demo.entities.Cobro;
  * - deleteById(): Elimina un cobro utilizando su ID.
  */
 public interface CobroRepository extends JpaRepository<Cobro, Long> {
-    // Se pueden definir consultas personalizadas adicionales si es necesario.
+
+    /**
+     * Obtiene la siguiente página de cobros a partir del último ID leído.
+     * Se usa para recorrer la tabla por cursor sin cargarla completa en memoria.
+     *
+     * @param id    Último ID entregado al cliente (exclusivo).
+     * @param limit Cantidad máxima de filas a devolver.
+     * @return Lista de cobros ordenada por ID ascendente.
+     */
+    List<Cobro> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Recorre todos los cobros en orden de ID como un stream de solo avance para exportaciones masivas.
+     * El turno no forma parte de la exportación, por lo que no se carga, y las filas se leen en bloques desde el servidor de base de datos sin cargar la tabla completa.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     *
+     * @return Stream de cobros ordenado por ID ascendente.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select c from Cobro c order by c.id")
+    Stream<Cobro> streamAllByOrderByIdAsc();
+
+    /**
+     * Busca el cobro asociado a un turno.
+     *
+     * @param turnoId El identificador único del turno.
+     * @return El cobro del turno, si fue cobrado.
+     */
+    Optional<Cobro> findByTurnoId(Long turnoId);
+
+    /**
+     * Busca un cobro por su ID junto con su turno, en una única consulta.
+     * Se usa al modificar o eliminar un cobro, que necesitan el tipo de servicio del turno
+     * para actualizar el resumen diario de recaudación.
+     *
+     * @param id El identificador único del cobro.
+     * @return El cobro con su turno cargado, si existe.
+     */
+    @EntityGraph(attributePaths = "turno")
+    Optional<Cobro> findConTurnoById(Long id);
+
+    /**
+     * Obtiene la versión de un cobro sin cargarlo, para responder a las solicitudes condicionales.
+     *
+     * @param id ID del cobro.
+     * @return Versión del cobro, o vacío si no existe.
+     */
+    @Query("select c.version from Cobro c where c.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Obtiene IDs de cobros sin turno anteriores a una fecha, candidatos a archivarse.
+     * Los cobros con turno se archivan junto con él.
+     *
+     * @param limite Fecha a partir de la cual los cobros se conservan.
+     * @param limit  Cantidad máxima de IDs a devolver.
+     * @return IDs de cobros a archivar.
+     */
+    @Query("select c.id from Cobro c where c.turno is null and c.fecha < :limite")
+    List<Long> findIdsSinTurnoArchivables(Date limite, Limit limit);
+
+    /**
+     * Elimina los cobros de los turnos indicados con una única sentencia, sin cargarlos.
+     *
+     * @param turnoIds Identificadores de los turnos.
+     * @return Cantidad de cobros eliminados.
+     */
+    @Modifying
+    @Query("delete from Cobro c where c.turno.id in :turnoIds")
+    int deleteByTurnoIdIn(Collection<Long> turnoIds);
+
+    /**
+     * Elimina los cobros indicados con una única sentencia, sin cargarlos.
+     *
+     * @param ids Identificadores de los cobros.
+     * @return Cantidad de cobros eliminados.
+     */
+    @Modifying
+    @Query("delete from Cobro c where c.id in :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    /**
+     * Elimina los cobros de todos los turnos de un cliente con una única sentencia, sin cargarlos.
+     *
+     * @param clienteId ID del cliente.
+     * @return Cantidad de cobros eliminados.
+     */
+    @Modifying
+    @Query("delete from Cobro c where c.turno.id in (select t.id from Turno t where t.vehiculo.cliente.id = :clienteId)")
+    int deleteByClienteId(Long clienteId);
 }
@@ -0,0 +1,15 @@
+package com.washer.demo.repositories;
+
+/**
+ * Proyección de los datos de contacto de un cliente utilizada para construir el índice de búsqueda.
+ */
+public interface DatosCliente {
+
+    Long getId();
+
+    String getNombre();
+
+    String getCorreoElectronico();
+
+    String getTelefono();
+}
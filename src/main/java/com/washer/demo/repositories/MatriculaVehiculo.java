@@ -0,0 +1,11 @@
+package com.washer.demo.repositories;
+
+/**
+ * Proyección mínima de un vehículo utilizada para construir el índice de matrículas.
+ */
+public interface MatriculaVehiculo {
+
+    Long getId();
+
+    String getMatricula();
+}
@@ -0,0 +1,88 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.entities.ReservaSlot;
+import com.washer.demo.entities.ReservaSlotId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio JPA para gestionar las reservas de boxes por franja horaria.
+ * Las reservas se insertan de forma condicional para que los conflictos entre solicitudes
+ * concurrentes se resuelvan en la base de datos sin producir errores.
+ */
+public interface ReservaSlotRepository extends JpaRepository<ReservaSlot, ReservaSlotId> {
+
+    /**
+     * Inserta la reserva solo si el box está libre en la franja. Si otra transacción ya lo tomó,
+     * la fila se descarta y se devuelve 0 en lugar de fallar por clave duplicada.
+     * Solo sincroniza la tabla de reservas antes de ejecutarse, para no forzar el envío anticipado
+     * de otros cambios pendientes (por ejemplo, los turnos de un lote).
+     *
+     * @param inicio  Comienzo de la franja.
+     * @param box     Número de box.
+     * @param turnoId Turno que ocupa el box.
+     * @return 1 si se reservó el box; 0 si ya estaba ocupado.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reserva_slot"))
+    @Query(value = "INSERT IGNORE INTO reserva_slot (inicio, box, turno_id) VALUES (:inicio, :box, :turnoId)", nativeQuery = true)
+    int insertarSiLibre(LocalDateTime inicio, int box, Long turnoId);
+
+    /**
+     * Obtiene los números de box ya reservados en una franja.
+     *
+     * @param inicio Comienzo de la franja.
+     * @return Boxes ocupados.
+     */
+    @Query("select r.id.box from ReservaSlot r where r.id.inicio = :inicio")
+    List<Integer> findBoxesOcupados(LocalDateTime inicio);
+
+    /**
+     * Obtiene el inicio de cada reserva de otros turnos en las franjas indicadas, para contar cuántos
+     * boxes están ocupados en cada una.
+     *
+     * @param inicios Comienzo de las franjas.
+     * @param turnoId Turno cuyas reservas no se cuentan.
+     * @return Inicio de la franja de cada reserva encontrada.
+     */
+    @Query("select r.id.inicio from ReservaSlot r where r.id.inicio in :inicios and r.turnoId <> :turnoId")
+    List<LocalDateTime> findIniciosReservados(Collection<LocalDateTime> inicios, Long turnoId);
+
+    /**
+     * Elimina todas las reservas de un turno.
+     *
+     * @param turnoId El identificador único del turno.
+     * @return Cantidad de reservas eliminadas.
+     */
+    @Modifying
+    @Query("delete from ReservaSlot r where r.turnoId = :turnoId")
+    int deleteByTurnoId(Long turnoId);
+
+    /**
+     * Elimina todas las reservas de varios turnos con una única sentencia.
+     *
+     * @param turnoIds Identificadores de los turnos.
+     * @return Cantidad de reservas eliminadas.
+     */
+    @Modifying
+    @Query("delete from ReservaSlot r where r.turnoId in :turnoIds")
+    int deleteByTurnoIdIn(Collection<Long> turnoIds);
+
+    /**
+     * Elimina las reservas de todos los turnos de un cliente con una única sentencia.
+     *
+     * @param clienteId ID del cliente.
+     * @return Cantidad de reservas eliminadas.
+     */
+    @Modifying
+    @Query("delete from ReservaSlot r where r.turnoId in (select t.id from Turno t where t.vehiculo.cliente.id = :clienteId)")
+    int deleteByClienteId(Long clienteId);
+}
@@ -0,0 +1,95 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.dto.ResumenDiario;
+import com.washer.demo.entities.ResumenDiarioCobro;
+import com.washer.demo.entities.ResumenDiarioCobroId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repositorio JPA para los resúmenes diarios de recaudación.
+ * Las actualizaciones se aplican como incrementos atómicos en la base de datos, por lo que
+ * varios cobros simultáneos del mismo día no se pisan entre sí.
+ */
+public interface ResumenDiarioCobroRepository extends JpaRepository<ResumenDiarioCobro, ResumenDiarioCobroId> {
+
+    /**
+     * Suma un monto y una cantidad al resumen del día y tipo de servicio, creándolo si no existe.
+     * El día se obtiene en la base de datos a partir de la fecha del cobro, igual que en la reconstrucción.
+     *
+     * @param fecha        Fecha y hora del cobro.
+     * @param tipoServicio Tipo de servicio del turno cobrado.
+     * @param monto        Monto a sumar (negativo para restar).
+     * @param cantidad     Cantidad de cobros a sumar (negativa para restar).
+     * @return Cantidad de filas afectadas.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_cobro"))
+    @Query(value = "INSERT INTO resumen_diario_cobro (fecha, tipo_servicio, total, cantidad) "
+            + "VALUES (CAST(:fecha AS DATE), :tipoServicio, :monto, :cantidad) "
+            + "ON DUPLICATE KEY UPDATE total = total + :monto, cantidad = cantidad + :cantidad", nativeQuery = true)
+    int acumular(Date fecha, String tipoServicio, double monto, long cantidad);
+
+    /**
+     * Obtiene los resúmenes de un rango de días, ordenados por día y tipo de servicio.
+     *
+     * @param desde Primer día (inclusive).
+     * @param hasta Último día (inclusive).
+     * @return Recaudación por día y tipo de servicio.
+     */
+    @Query("select new com.washer.demo.dto.ResumenDiario(r.id.fecha, r.id.tipoServicio, r.total, r.cantidad) "
+            + "from ResumenDiarioCobro r where r.id.fecha between :desde and :hasta and r.cantidad > 0 "
+            + "order by r.id.fecha, r.id.tipoServicio")
+    List<ResumenDiario> findResumen(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Elimina todos los resúmenes antes de reconstruirlos.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_cobro"))
+    @Query(value = "DELETE FROM resumen_diario_cobro", nativeQuery = true)
+    void vaciar();
+
+    /**
+     * Recalcula los resúmenes a partir de todos los cobros registrados, incluidos los archivados.
+     *
+     * @param sinTipo Tipo de servicio usado para los cobros sin turno asociado.
+     * @return Cantidad de resúmenes generados.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_cobro"))
+    @Query(value = "INSERT INTO resumen_diario_cobro (fecha, tipo_servicio, total, cantidad) "
+            + "SELECT CAST(c.fecha AS DATE), COALESCE(c.tipo_servicio, :sinTipo), SUM(c.monto), COUNT(*) "
+            + "FROM (SELECT c.fecha, c.monto, t.tipo_servicio FROM cobro c LEFT JOIN turno t ON t.id = c.turno_id "
+            + "UNION ALL SELECT c.fecha, c.monto, t.tipo_servicio FROM cobro_archivo c LEFT JOIN turno_archivo t ON t.id = c.turno_id) c "
+            + "WHERE c.fecha IS NOT NULL AND c.monto IS NOT NULL "
+            + "GROUP BY CAST(c.fecha AS DATE), COALESCE(c.tipo_servicio, :sinTipo)", nativeQuery = true)
+    int reconstruir(String sinTipo);
+
+    /**
+     * Resta de los resúmenes los cobros de los turnos de un cliente, con una única sentencia
+     * agrupada por día y tipo de servicio. Los cobros archivados no se restan porque el archivo
+     * conserva la historia aunque el vehículo se elimine.
+     *
+     * @param clienteId ID del cliente.
+     * @param sinTipo   Tipo de servicio usado para los turnos sin tipo.
+     * @return Cantidad de filas afectadas.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_diario_cobro"))
+    @Query(value = "INSERT INTO resumen_diario_cobro (fecha, tipo_servicio, total, cantidad) "
+            + "SELECT CAST(c.fecha AS DATE), COALESCE(t.tipo_servicio, :sinTipo), -SUM(c.monto), -COUNT(*) "
+            + "FROM cobro c JOIN turno t ON t.id = c.turno_id JOIN vehiculo v ON v.id = t.vehiculo_id "
+            + "WHERE v.cliente_id = :clienteId AND c.fecha IS NOT NULL AND c.monto IS NOT NULL "
+            + "GROUP BY CAST(c.fecha AS DATE), COALESCE(t.tipo_servicio, :sinTipo) "
+            + "ON DUPLICATE KEY UPDATE total = total + VALUES(total), cantidad = cantidad + VALUES(cantidad)", nativeQuery = true)
+    int restarCliente(Long clienteId, String sinTipo);
+}
@@ -0,0 +1,63 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.entities.TokenRefresco;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA para los tokens de refresco.
+ */
+public interface TokenRefrescoRepository extends JpaRepository<TokenRefresco, String> {
+
+    /**
+     * Marca un token como usado solo si todavía no lo estaba. Como la condición se evalúa en la
+     * misma sentencia, de dos refrescos simultáneos con el mismo token solo uno puede ganar.
+     *
+     * @param selector Selector del token.
+     * @return 1 si el token se marcó; 0 si ya había sido usado.
+     */
+    @Modifying
+    @Query("update TokenRefresco t set t.usado = true where t.selector = :selector and t.usado = false")
+    int marcarUsado(String selector);
+
+    /**
+     * Obtiene los tokens de una familia, usados o no.
+     *
+     * @param familia Identificador de la familia.
+     * @return Tokens de la familia.
+     */
+    List<TokenRefresco> findByFamilia(String familia);
+
+    /**
+     * Busca el token de refresco emitido junto con un token de acceso.
+     *
+     * @param jtiAcceso Identificador del token de acceso.
+     * @return El token de refresco, si existe.
+     */
+    Optional<TokenRefresco> findByJtiAcceso(String jtiAcceso);
+
+    /**
+     * Elimina todos los tokens de una familia.
+     *
+     * @param familia Identificador de la familia.
+     * @return Cantidad de tokens eliminados.
+     */
+    @Modifying
+    @Query("delete from TokenRefresco t where t.familia = :familia")
+    int deleteByFamilia(String familia);
+
+    /**
+     * Elimina los tokens de las familias ya vencidas.
+     *
+     * @param fecha Fecha de referencia (normalmente, el momento actual).
+     * @return Cantidad de tokens eliminados.
+     */
+    @Modifying
+    @Query("delete from TokenRefresco t where t.expiracion <= :fecha")
+    int deleteVencidos(Date fecha);
+}
@@ -0,0 +1,41 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.entities.TokenRevocado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio JPA para los tokens revocados.
+ */
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+
+    /**
+     * Recorre los tokens revocados que todavía no vencieron, para cargarlos en memoria al iniciar.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     *
+     * @param fecha Fecha de referencia (normalmente, el momento actual).
+     * @return Stream de los tokens revocados vigentes.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<TokenRevocado> streamByExpiracionAfter(Date fecha);
+
+    /**
+     * Elimina los tokens revocados que ya vencieron.
+     *
+     * @param fecha Fecha de referencia (normalmente, el momento actual).
+     * @return Cantidad de registros eliminados.
+     */
+    @Modifying
+    @Query("delete from TokenRevocado t where t.expiracion <= :fecha")
+    int deleteVencidos(Date fecha);
+}
@@ -0,0 +1,26 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.entities.TurnoArchivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+
+/**
+ * Repositorio JPA para los turnos archivados.
+ * Los turnos se copian desde la tabla de turnos con una única sentencia por bloque, sin cargarlos.
+ */
+public interface TurnoArchivadoRepository extends JpaRepository<TurnoArchivado, Long> {
+
+    /**
+     * Copia los turnos indicados al archivo.
+     *
+     * @param ids Identificadores de los turnos.
+     * @return Cantidad de turnos copiados.
+     */
+    @Modifying
+    @Query("insert into TurnoArchivado (id, fechaHora, estado, tipoServicio, vehiculoId) "
+            + "select t.id, t.fechaHora, t.estado, t.tipoServicio, t.vehiculo.id from Turno t where t.id in :ids")
+    int archivar(Collection<Long> ids);
+}
@@ -0,0 +1,98 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.Vehiculo;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+
+/**
+ * Filtros combinables para la búsqueda de turnos.
+ * Cada método devuelve null cuando no recibe un valor, de modo que el filtro se omite al combinarlos.
+ *
+ * Los filtros están pensados para apoyarse en los índices de {@link Turno}:
+ * estado y fecha por {@code (estado, fechaHora)}, vehículo y fecha por {@code (vehiculo_id, fechaHora)}
+ * y solo fecha por {@code (fechaHora)}.
+ */
+public final class TurnoEspecificaciones {
+
+    private TurnoEspecificaciones() {
+    }
+
+    /**
+     * Excluye los turnos sin fecha asignada, que no tienen lugar en una búsqueda ordenada por fecha.
+     */
+    public static Specification<Turno> conFecha() {
+        return (turno, query, cb) -> cb.isNotNull(turno.get("fechaHora"));
+    }
+
+    /**
+     * Turnos a partir de la fecha indicada (inclusive).
+     */
+    public static Specification<Turno> desde(Date fecha) {
+        return fecha == null ? null : (turno, query, cb) -> cb.greaterThanOrEqualTo(turno.get("fechaHora"), fecha);
+    }
+
+    /**
+     * Turnos anteriores a la fecha indicada (exclusive).
+     */
+    public static Specification<Turno> hasta(Date fecha) {
+        return fecha == null ? null : (turno, query, cb) -> cb.lessThan(turno.get("fechaHora"), fecha);
+    }
+
+    /**
+     * Turnos en el estado indicado.
+     */
+    public static Specification<Turno> conEstado(String estado) {
+        return estado == null ? null : (turno, query, cb) -> cb.equal(turno.get("estado"), estado);
+    }
+
+    /**
+     * Turnos con el tipo de servicio indicado.
+     */
+    public static Specification<Turno> conTipoServicio(String tipoServicio) {
+        return tipoServicio == null ? null : (turno, query, cb) -> cb.equal(turno.get("tipoServicio"), tipoServicio);
+    }
+
+    /**
+     * Turnos de un vehículo. Compara directamente la clave foránea, sin unir la tabla de vehículos.
+     */
+    public static Specification<Turno> deVehiculo(Long vehiculoId) {
+        return vehiculoId == null ? null : (turno, query, cb) -> cb.equal(turno.get("vehiculo").get("id"), vehiculoId);
+    }
+
+    /**
+     * Turnos de los vehículos de un cliente. Se filtra la clave foránea del turno con los IDs de los vehículos
+     * del cliente en lugar de comparar el cliente a través de la unión externa con el vehículo: así la base
+     * busca los turnos de cada vehículo por {@code (vehiculo_id, fechaHora)} en vez de recorrer todos los turnos
+     * por fecha y descartar los de otros clientes.
+     */
+    public static Specification<Turno> deCliente(Long clienteId) {
+        return clienteId == null ? null : (turno, query, cb) -> {
+            Subquery<Long> vehiculos = query.subquery(Long.class);
+            Root<Vehiculo> vehiculo = vehiculos.from(Vehiculo.class);
+            vehiculos.select(vehiculo.get("id")).where(cb.equal(vehiculo.get("cliente").get("id"), clienteId));
+            return turno.get("vehiculo").get("id").in(vehiculos);
+        };
+    }
+
+    /**
+     * Obtiene la unión con el vehículo del turno, reutilizando la que ya tenga la consulta
+     * para no unir dos veces la misma tabla.
+     *
+     * @param turno Raíz de la consulta.
+     * @return Unión externa con el vehículo.
+     */
+    @SuppressWarnings("unchecked")
+    static Join<Turno, Vehiculo> vehiculo(Root<Turno> turno) {
+        return turno.getJoins().stream()
+                .filter(join -> "vehiculo".equals(join.getAttribute().getName()))
+                .map(join -> (Join<Turno, Vehiculo>) join)
+                .findFirst()
+                .orElseGet(() -> turno.join("vehiculo", JoinType.LEFT));
+    }
+}
@@ -1,8 +1,21 @@
 package com.washer.demo.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import com.washer.demo.dto.TurnoResumen;
 import com.washer.demo.entities.Turno;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Repositorio JPA para gestionar la entidad Turno.
  * Proporciona operaciones CRUD (Crear, Leer, Actualizar, Eliminar) de manera automática
@@ -15,7 +28,123 @@ import com.washer.demo.entities.Turno;
  * - deleteById(): Elimina un turno utilizando su ID.
  *
  * Además, se pueden agregar métodos personalizados para consultas específicas si es necesario.
+ * La búsqueda con filtros dinámicos se define en {@link BusquedaTurnoRepository}.
  */
-public interface TurnoRepository extends JpaRepository<Turno, Long> {
-    // Se pueden definir consultas personalizadas adicionales aquí si es necesario.
+public interface TurnoRepository extends JpaRepository<Turno, Long>, BusquedaTurnoRepository {
+
+    /**
+     * Obtiene la vista resumida de los turnos con ID mayor al indicado, ordenados por ID (paginación por cursor).
+     * La consulta busca directamente sobre la clave primaria, por lo que su costo no depende
+     * de cuántas filas se hayan recorrido en páginas anteriores.
+     * Lee solo las columnas que se muestran en los listados y la matrícula del vehículo
+     * en una única consulta, sin cargar las entidades ni sus asociaciones.
+     *
+     * @param id    Último ID entregado al cliente (exclusivo).
+     * @param limit Cantidad máxima de filas a devolver.
+     * @return Lista de resúmenes ordenada por ID ascendente.
+     */
+    @Query("select new com.washer.demo.dto.TurnoResumen(t.id, t.fechaHora, t.estado, t.tipoServicio, v.matricula, t.version) "
+            + "from Turno t left join t.vehiculo v where t.id > :id order by t.id")
+    List<TurnoResumen> findResumenes(Long id, Limit limit);
+
+    /**
+     * Obtiene la versión de un turno sin cargarlo, para responder a las solicitudes condicionales.
+     *
+     * @param id ID del turno.
+     * @return Versión del turno, o vacío si no existe.
+     */
+    @Query("select t.version from Turno t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Stream de solo avance sobre todos los turnos, usado por la exportación NDJSON.
+     * El vehículo no forma parte de la exportación, por lo que no se carga; las filas se leen en bloques de 500.
+     *
+     * @return Stream de turnos ordenado por ID; debe cerrarse dentro de la transacción que lo abrió.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from Turno t order by t.id")
+    Stream<Turno> streamAllByOrderByIdAsc();
+
+    /**
+     * Obtiene el ID y la fecha de todos los turnos en estado "programado".
+     * Se utiliza para construir en memoria la agenda de disponibilidad al iniciar la aplicación.
+     *
+     * @return Lista de proyecciones con el ID y la fecha y hora de cada turno programado.
+     */
+    @Query("select t.id as id, t.fechaHora as fechaHora from Turno t where t.estado = 'programado' and t.fechaHora is not null")
+    List<AgendaTurno> findAgendaProgramada();
+
+    /**
+     * Obtiene los IDs de los turnos programados dentro de un rango de fechas, del más antiguo al más reciente.
+     * Recorre el índice {@code (estado, fechaHora)}, por lo que solo lee las filas devueltas.
+     *
+     * @param desde Comienzo del rango (inclusive).
+     * @param hasta Fin del rango (exclusive).
+     * @param limit Cantidad máxima de IDs a devolver.
+     * @return IDs de los turnos programados en el rango.
+     */
+    @Query("select t.id from Turno t where t.estado = 'programado' and t.fechaHora >= :desde and t.fechaHora < :hasta "
+            + "order by t.fechaHora")
+    List<Long> findIdsProgramados(Date desde, Date hasta, Limit limit);
+
+    /**
+     * Cambia el estado de los turnos indicados con una única sentencia UPDATE, sin cargarlos.
+     * Solo se modifican los turnos que siguen programados, por lo que un turno ya completado
+     * o cancelado nunca cambia de estado por esta vía. La sentencia también incrementa la versión,
+     * para que cambie el ETag de los turnos modificados.
+     *
+     * @param ids    Identificadores de los turnos.
+     * @param estado Nuevo estado.
+     * @return Cantidad de turnos actualizados.
+     */
+    @Modifying
+    @Query("update versioned Turno t set t.estado = :estado where t.id in :ids and t.estado = 'programado'")
+    int transicionarProgramados(Collection<Long> ids, String estado);
+
+    /**
+     * Obtiene IDs de turnos en un estado y anteriores a una fecha, candidatos a archivarse.
+     * No se ordenan, para que la base de datos devuelva las primeras filas del rango del índice
+     * {@code (estado, fechaHora)} sin tener que ordenar toda la historia.
+     *
+     * @param estado Estado de los turnos.
+     * @param limite Fecha a partir de la cual los turnos se conservan.
+     * @param limit  Cantidad máxima de IDs a devolver.
+     * @return IDs de turnos a archivar.
+     */
+    @Query("select t.id from Turno t where t.estado = :estado and t.fechaHora < :limite")
+    List<Long> findIdsArchivables(String estado, Date limite, Limit limit);
+
+    /**
+     * Elimina los turnos indicados con una única sentencia, sin cargarlos.
+     *
+     * @param ids Identificadores de los turnos.
+     * @return Cantidad de turnos eliminados.
+     */
+    @Modifying
+    @Query("delete from Turno t where t.id in :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    /**
+     * Obtiene los IDs de los turnos programados de los vehículos de un cliente, que ocupan la agenda.
+     *
+     * @param clienteId ID del cliente.
+     * @return IDs de los turnos programados del cliente.
+     */
+    @Query("select t.id from Turno t where t.vehiculo.cliente.id = :clienteId and t.estado = 'programado'")
+    List<Long> findIdsProgramadosByClienteId(Long clienteId);
+
+    /**
+     * Elimina todos los turnos de los vehículos de un cliente con una única sentencia, sin cargarlos.
+     *
+     * @param clienteId ID del cliente.
+     * @return Cantidad de turnos eliminados.
+     */
+    @Modifying
+    @Query("delete from Turno t where t.vehiculo.id in (select v.id from Vehiculo v where v.cliente.id = :clienteId)")
+    int deleteByClienteId(Long clienteId);
 }
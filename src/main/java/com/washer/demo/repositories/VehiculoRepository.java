@@ -1,8 +1,14 @@
 package com.washer.demo.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import com.washer.demo.entities.Vehiculo;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Repositorio JPA para gestionar la entidad Vehiculo.
  * Proporciona operaciones CRUD (Crear, Leer, Actualizar, Eliminar) de manera automática
@@ -17,5 +23,49 @@ import com.washer.demo.entities.Vehiculo;
  * Además, se pueden agregar métodos personalizados para consultas específicas si es necesario.
  */
 public interface VehiculoRepository extends JpaRepository<Vehiculo, Long> {
-    // Se pueden definir consultas personalizadas adicionales aquí si es necesario.
+
+    /**
+     * Busca los vehículos posteriores al ID indicado, en orden de ID, para paginar por cursor.
+     *
+     * @param id    Último ID entregado al cliente (exclusivo).
+     * @param limit Cantidad máxima de filas a devolver.
+     * @return Lista de vehículos ordenada por ID ascendente.
+     */
+    List<Vehiculo> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Obtiene la matrícula de todos los vehículos, para construir el índice de búsqueda.
+     *
+     * @return Identificador y matrícula de cada vehículo.
+     */
+    @Query("select v.id as id, v.matricula as matricula from Vehiculo v")
+    List<MatriculaVehiculo> findAllMatriculas();
+
+    /**
+     * Obtiene cuáles de las matrículas indicadas ya están registradas.
+     *
+     * @param matriculas Matrículas a verificar.
+     * @return Matrículas que ya pertenecen a algún vehículo.
+     */
+    @Query("select v.matricula from Vehiculo v where v.matricula in :matriculas")
+    List<String> findMatriculasRegistradas(Collection<String> matriculas);
+
+    /**
+     * Obtiene la matrícula de los vehículos de un cliente.
+     *
+     * @param clienteId ID del cliente.
+     * @return Identificador y matrícula de cada vehículo del cliente.
+     */
+    @Query("select v.id as id, v.matricula as matricula from Vehiculo v where v.cliente.id = :clienteId")
+    List<MatriculaVehiculo> findMatriculasByClienteId(Long clienteId);
+
+    /**
+     * Elimina todos los vehículos de un cliente con una única sentencia, sin cargarlos.
+     *
+     * @param clienteId ID del cliente.
+     * @return Cantidad de vehículos eliminados.
+     */
+    @Modifying
+    @Query("delete from Vehiculo v where v.cliente.id = :clienteId")
+    int deleteByClienteId(Long clienteId);
 }
@@ -0,0 +1,124 @@
+package com.washer.demo.services;
+
+import com.washer.demo.repositories.CobroArchivadoRepository;
+import com.washer.demo.repositories.CobroRepository;
+import com.washer.demo.repositories.TurnoArchivadoRepository;
+import com.washer.demo.repositories.TurnoRepository;
+import com.washer.demo.util.CacheRespuestas;
+import com.washer.demo.util.ReintentoTransaccional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Servicio que mueve los turnos completados o cancelados más antiguos que el horizonte de archivo,
+ * junto con sus cobros, a las tablas de archivo. Así las tablas de turnos y cobros, y sus índices,
+ * crecen con la actividad reciente y no con los años de historia.
+ *
+ * El archivo avanza en bloques: cada bloque se copia y se elimina de las tablas principales en una
+ * transacción propia, por lo que una ejecución interrumpida no deja filas duplicadas ni perdidas
+ * y la siguiente continúa donde quedó la anterior.
+ */
+@Service
+public class ArchivoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoService.class);
+
+    // Estados de los turnos que ya no cambian y pueden archivarse.
+    private static final List<String> ESTADOS_ARCHIVABLES = List.of("completado", "cancelado");
+
+    // Días de historia que se conservan en las tablas de turnos y cobros.
+    @Value("${archivo.horizonte-dias:365}")
+    private int horizonteDias;
+
+    // Cantidad de turnos o cobros que se archivan por transacción.
+    @Value("${archivo.tamanio-bloque:500}")
+    private int tamanioBloque;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private CobroRepository cobroRepository;
+
+    @Autowired
+    private TurnoArchivadoRepository turnoArchivadoRepository;
+
+    @Autowired
+    private CobroArchivadoRepository cobroArchivadoRepository;
+
+    @Autowired
+    private ReintentoTransaccional reintentoTransaccional;
+
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
+    /**
+     * Archiva periódicamente los turnos y cobros anteriores al horizonte configurado.
+     */
+    @Scheduled(cron = "${archivo.cron:0 0 3 * * *}")
+    public void archivar() {
+        Date limite = Date.from(Instant.now().minus(horizonteDias, ChronoUnit.DAYS));
+        long turnos = 0;
+        long cobros = 0;
+        // Un estado por vez, para que cada bloque se lea de un único rango del índice (estado, fechaHora)
+        for (String estado : ESTADOS_ARCHIVABLES) {
+            int[] bloque;
+            do {
+                bloque = reintentoTransaccional.ejecutar(() -> archivarBloqueTurnos(estado, limite));
+                turnos += bloque[1];
+                cobros += bloque[2];
+            } while (bloque[0] == tamanioBloque && bloque[1] > 0);
+        }
+        int[] bloque;
+        do {
+            bloque = reintentoTransaccional.ejecutar(() -> archivarBloqueCobros(limite));
+            cobros += bloque[1];
+        } while (bloque[0] == tamanioBloque && bloque[1] > 0);
+        if (turnos > 0 || cobros > 0) {
+            log.info("Se archivaron {} turnos y {} cobros anteriores a {}", turnos, cobros, limite.toInstant());
+        }
+    }
+
+    /**
+     * Mueve al archivo un bloque de turnos y sus cobros. Los cobros se eliminan antes que los turnos
+     * por la clave foránea que los une.
+     *
+     * @return Cantidad de candidatos leídos, de turnos archivados y de cobros archivados.
+     */
+    private int[] archivarBloqueTurnos(String estado, Date limite) {
+        List<Long> ids = turnoRepository.findIdsArchivables(estado, limite, Limit.of(tamanioBloque));
+        if (ids.isEmpty()) {
+            return new int[]{0, 0, 0};
+        }
+        turnoArchivadoRepository.archivar(ids);
+        int cobros = cobroArchivadoRepository.archivarDeTurnos(ids);
+        cobroRepository.deleteByTurnoIdIn(ids);
+        int turnos = turnoRepository.deleteByIdIn(ids);
+        cacheRespuestas.invalidar(CacheRespuestas.TURNOS, ids); // Las respuestas guardadas informan una versión que el archivo no conserva
+        return new int[]{ids.size(), turnos, cobros};
+    }
+
+    /**
+     * Mueve al archivo un bloque de cobros sin turno.
+     *
+     * @return Cantidad de candidatos leídos y de cobros archivados.
+     */
+    private int[] archivarBloqueCobros(Date limite) {
+        List<Long> ids = cobroRepository.findIdsSinTurnoArchivables(limite, Limit.of(tamanioBloque));
+        if (ids.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        cobroArchivadoRepository.archivar(ids);
+        return new int[]{ids.size(), cobroRepository.deleteByIdIn(ids)};
+    }
+}
@@ -0,0 +1,328 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.CoincidenciaCliente;
+import com.washer.demo.entities.Cliente;
+import com.washer.demo.repositories.ClienteRepository;
+import com.washer.demo.repositories.DatosCliente;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Servicio que mantiene en memoria un índice invertido de trigramas sobre el nombre, el correo
+ * electrónico y el teléfono de los clientes, para búsquedas aproximadas (nombre parcial, últimos
+ * dígitos del teléfono, parte del correo) sin recorrer la tabla de clientes.
+ *
+ * Cada cliente indexado recibe un número de documento correlativo y, para cada trigrama, se guarda
+ * la lista ordenada de documentos que lo contienen. Una búsqueda exige que el cliente contenga al
+ * menos una proporción mínima de los trigramas buscados; por eso alcanza con tomar como candidatos
+ * los documentos de las listas más cortas y verificar el resto con búsqueda binaria, lo que acota
+ * el trabajo aun con cientos de miles de clientes.
+ *
+ * Las bajas y modificaciones dejan documentos obsoletos que se descartan al consultar; cuando
+ * superan una fracción del índice, este se compacta. Los cambios se aplican recién cuando la
+ * transacción que los originó se confirma.
+ */
+@Service
+public class BusquedaClienteService {
+
+    // Cantidad de símbolos distintos tras normalizar: espacio, letras, dígitos y algunos signos.
+    private static final int SIMBOLOS = 64;
+    private static final int LONGITUD_MINIMA = 2;
+
+    // Proporción mínima de trigramas de la búsqueda que debe contener un cliente para incluirse.
+    @Value("${busqueda.clientes.coincidencia-minima:0.5}")
+    private double coincidenciaMinima;
+
+    // Cantidad máxima de entradas de las listas de candidatos que se recorren por búsqueda.
+    @Value("${busqueda.clientes.max-candidatos:50000}")
+    private int maxCandidatos;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Listas[] listas;
+    private List<Documento> documentos;
+    private Map<Long, Integer> documentoPorCliente;
+    private int obsoletos;
+
+    /**
+     * Datos de un cliente indexado.
+     */
+    private record Documento(Long id, String nombre, String correoElectronico, String telefono) {
+    }
+
+    /**
+     * Lista de documentos que contienen un trigrama, en orden creciente.
+     */
+    private static final class Listas {
+        private int[] documentos = new int[4];
+        private int cantidad;
+
+        void agregar(int documento) {
+            if (cantidad == documentos.length) {
+                documentos = Arrays.copyOf(documentos, cantidad * 2);
+            }
+            documentos[cantidad++] = documento;
+        }
+
+        boolean contiene(int documento) {
+            return Arrays.binarySearch(documentos, 0, cantidad, documento) >= 0;
+        }
+    }
+
+    /**
+     * Carga el índice desde la base de datos al iniciar la aplicación.
+     */
+    @PostConstruct
+    void inicializar() {
+        recargar();
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de los clientes registrados en la base de datos.
+     */
+    public void recargar() {
+        List<DatosCliente> clientes = clienteRepository.findAllDatosBusqueda();
+        lock.writeLock().lock();
+        try {
+            vaciar();
+            for (DatosCliente cliente : clientes) {
+                agregar(cliente.getId(), cliente.getNombre(), cliente.getCorreoElectronico(), cliente.getTelefono());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los clientes que mejor coinciden con un texto, ordenados por puntaje.
+     *
+     * @param texto  Texto a buscar (parte del nombre, del correo o del teléfono).
+     * @param limite Cantidad máxima de resultados.
+     * @return Clientes encontrados, del más al menos parecido.
+     * @throws IllegalArgumentException Si el texto tiene menos de dos caracteres útiles.
+     */
+    public List<CoincidenciaCliente> buscar(String texto, int limite) {
+        if (normalizar(texto).replace(" ", "").length() < LONGITUD_MINIMA) {
+            throw new IllegalArgumentException("La búsqueda debe tener al menos " + LONGITUD_MINIMA + " caracteres.");
+        }
+        int[] trigramas = trigramas(texto);
+        lock.readLock().lock();
+        try {
+            // Las listas más cortas primero: son las que se recorren para obtener candidatos
+            Listas[] buscadas = new Listas[trigramas.length];
+            for (int i = 0; i < trigramas.length; i++) {
+                buscadas[i] = listas[trigramas[i]];
+            }
+            Arrays.sort(buscadas, Comparator.comparingInt(lista -> lista == null ? 0 : lista.cantidad));
+
+            int total = buscadas.length;
+            int minimo = Math.max(1, (int) Math.ceil(total * coincidenciaMinima));
+            // Un documento con al menos "minimo" trigramas aparece en alguna de las (total - minimo + 1) listas más cortas
+            int fuentes = total - minimo + 1;
+            Map<Integer, Integer> coincidencias = new HashMap<>();
+            int recorridos = 0;
+            for (int i = 0; i < fuentes && recorridos < maxCandidatos; i++) {
+                Listas lista = buscadas[i];
+                if (lista == null) {
+                    continue;
+                }
+                for (int j = 0; j < lista.cantidad && recorridos < maxCandidatos; j++, recorridos++) {
+                    coincidencias.merge(lista.documentos[j], 1, Integer::sum);
+                }
+            }
+
+            PriorityQueue<CoincidenciaCliente> mejores = new PriorityQueue<>(
+                    Comparator.comparingDouble(CoincidenciaCliente::getPuntaje)
+                            .thenComparing(CoincidenciaCliente::getId, Comparator.reverseOrder()));
+            for (Map.Entry<Integer, Integer> candidato : coincidencias.entrySet()) {
+                Documento documento = documentos.get(candidato.getKey());
+                if (documento == null) {
+                    continue; // Documento obsoleto
+                }
+                int cantidad = candidato.getValue();
+                for (int i = fuentes; i < total; i++) {
+                    if (buscadas[i] != null && buscadas[i].contiene(candidato.getKey())) {
+                        cantidad++;
+                    }
+                }
+                if (cantidad < minimo) {
+                    continue;
+                }
+                mejores.add(new CoincidenciaCliente(documento.id(), documento.nombre(), documento.correoElectronico(),
+                        documento.telefono(), (double) cantidad / total));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+
+            List<CoincidenciaCliente> resultado = new ArrayList<>(mejores);
+            resultado.sort(Comparator.comparingDouble(CoincidenciaCliente::getPuntaje).reversed()
+                    .thenComparing(CoincidenciaCliente::getId));
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registra el alta o la modificación de un cliente, que se aplica al confirmarse la transacción actual.
+     *
+     * @param cliente El cliente guardado, con su ID asignado.
+     */
+    public void indexar(Cliente cliente) {
+        Long id = cliente.getId();
+        String nombre = cliente.getNombre();
+        String correo = cliente.getCorreoElectronico();
+        String telefono = cliente.getTelefono();
+        alConfirmar(() -> {
+            quitar(id);
+            agregar(id, nombre, correo, telefono);
+        });
+    }
+
+    /**
+     * Registra la baja de un cliente, que se aplica al confirmarse la transacción actual.
+     *
+     * @param clienteId ID del cliente eliminado.
+     */
+    public void desindexar(Long clienteId) {
+        alConfirmar(() -> quitar(clienteId));
+    }
+
+    /**
+     * Agrega un documento al índice. Debe invocarse con el lock de escritura tomado.
+     */
+    private void agregar(Long id, String nombre, String correo, String telefono) {
+        int[] trigramas = trigramas(String.join(" ", valor(nombre), valor(correo), valor(telefono)));
+        int documento = documentos.size();
+        documentos.add(new Documento(id, nombre, correo, telefono));
+        documentoPorCliente.put(id, documento);
+        for (int trigrama : trigramas) {
+            Listas lista = listas[trigrama];
+            if (lista == null) {
+                lista = new Listas();
+                listas[trigrama] = lista;
+            }
+            lista.agregar(documento);
+        }
+    }
+
+    /**
+     * Marca como obsoleto el documento de un cliente y compacta el índice si acumula demasiados.
+     * Debe invocarse con el lock de escritura tomado.
+     */
+    private void quitar(Long id) {
+        Integer documento = documentoPorCliente.remove(id);
+        if (documento == null) {
+            return;
+        }
+        documentos.set(documento, null);
+        obsoletos++;
+        if (obsoletos > 1000 && obsoletos > documentos.size() / 4) {
+            List<Documento> vigentes = documentos.stream().filter(d -> d != null).toList();
+            vaciar();
+            for (Documento d : vigentes) {
+                agregar(d.id(), d.nombre(), d.correoElectronico(), d.telefono());
+            }
+        }
+    }
+
+    private void vaciar() {
+        listas = new Listas[SIMBOLOS * SIMBOLOS * SIMBOLOS];
+        documentos = new ArrayList<>();
+        documentoPorCliente = new HashMap<>();
+        obsoletos = 0;
+    }
+
+    private void alConfirmar(Runnable cambio) {
+        Runnable conLock = () -> {
+            lock.writeLock().lock();
+            try {
+                cambio.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            conLock.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                conLock.run();
+            }
+        });
+    }
+
+    /**
+     * Obtiene los trigramas distintos de un texto normalizado. Cada palabra se completa con dos
+     * espacios al comienzo y uno al final, de modo que también se indexan sus primeras letras.
+     */
+    private static int[] trigramas(String texto) {
+        String normalizado = normalizar(texto);
+        int[] codigos = new int[0];
+        int cantidad = 0;
+        for (String palabra : normalizado.split(" ")) {
+            if (palabra.isEmpty()) {
+                continue;
+            }
+            String conBordes = "  " + palabra + " ";
+            codigos = Arrays.copyOf(codigos, cantidad + conBordes.length() - 2);
+            for (int i = 0; i + 3 <= conBordes.length(); i++) {
+                codigos[cantidad++] = (simbolo(conBordes.charAt(i)) * SIMBOLOS + simbolo(conBordes.charAt(i + 1))) * SIMBOLOS
+                        + simbolo(conBordes.charAt(i + 2));
+            }
+        }
+        return Arrays.stream(codigos, 0, cantidad).distinct().toArray();
+    }
+
+    /**
+     * Pasa el texto a minúsculas, quita acentos y reemplaza por espacios los caracteres que no se indexan.
+     */
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinAcentos = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinAcentos.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9@._+-]+", " ").trim();
+    }
+
+    private static int simbolo(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return 1 + (c - 'a');
+        }
+        if (c >= '0' && c <= '9') {
+            return 27 + (c - '0');
+        }
+        return switch (c) {
+            case '@' -> 37;
+            case '.' -> 38;
+            case '_' -> 39;
+            case '+' -> 40;
+            case '-' -> 41;
+            default -> 0; // Espacio
+        };
+    }
+
+    private static String valor(String texto) {
+        return texto == null ? "" : texto;
+    }
+}
@@ -0,0 +1,126 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.CoincidenciaMatricula;
+import com.washer.demo.repositories.MatriculaVehiculo;
+import com.washer.demo.repositories.VehiculoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Servicio que mantiene en memoria un índice ordenado de las matrículas de los vehículos para
+ * responder búsquedas por prefijo (autocompletado en la recepción) sin consultar la base de datos.
+ *
+ * El índice es un mapa ordenado de matrícula a ID de vehículo: las matrículas que comienzan con un
+ * prefijo forman un rango contiguo, que se recorre solo hasta completar el límite pedido.
+ * Los cambios se aplican recién cuando la transacción que los originó se confirma.
+ */
+@Service
+public class BusquedaMatriculaService {
+
+    private static final Pattern FORMATO_MATRICULA = Pattern.compile("^[A-Z0-9]{1,10}$");
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    private volatile NavigableMap<String, Long> matriculas = new ConcurrentSkipListMap<>();
+
+    /**
+     * Carga el índice desde la base de datos al iniciar la aplicación.
+     */
+    @PostConstruct
+    void inicializar() {
+        recargar();
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de los vehículos registrados en la base de datos.
+     */
+    public void recargar() {
+        NavigableMap<String, Long> indice = new ConcurrentSkipListMap<>();
+        for (MatriculaVehiculo vehiculo : vehiculoRepository.findAllMatriculas()) {
+            indice.put(vehiculo.getMatricula(), vehiculo.getId());
+        }
+        matriculas = indice; // Las búsquedas en curso terminan sobre el índice anterior
+    }
+
+    /**
+     * Busca las matrículas que comienzan con un prefijo, en orden alfabético.
+     *
+     * @param prefijo Comienzo de la matrícula; se ignoran mayúsculas y espacios en los extremos.
+     * @param limite  Cantidad máxima de resultados.
+     * @return Matrículas encontradas con el ID de su vehículo.
+     * @throws IllegalArgumentException Si el prefijo no tiene el formato de una matrícula.
+     */
+    public List<CoincidenciaMatricula> buscarPorPrefijo(String prefijo, int limite) {
+        String normalizado = normalizar(prefijo);
+        List<CoincidenciaMatricula> coincidencias = new ArrayList<>(Math.min(limite, 16));
+        // Las matrículas solo contienen A-Z y 0-9, por lo que ninguna con el prefijo es mayor que prefijo + '~'
+        for (Map.Entry<String, Long> entrada : matriculas.subMap(normalizado, true, normalizado + '~', false).entrySet()) {
+            if (coincidencias.size() >= limite) {
+                break;
+            }
+            coincidencias.add(new CoincidenciaMatricula(entrada.getKey(), entrada.getValue()));
+        }
+        return coincidencias;
+    }
+
+    /**
+     * Registra un cambio de matrícula, que se aplica al confirmarse la transacción actual.
+     *
+     * @param vehiculoId ID del vehículo.
+     * @param anterior   Matrícula anterior, o null si el vehículo es nuevo.
+     * @param nueva      Matrícula nueva, o null si el vehículo se elimina.
+     */
+    public void actualizar(Long vehiculoId, String anterior, String nueva) {
+        if (anterior != null && anterior.equals(nueva)) {
+            return;
+        }
+        alConfirmar(() -> {
+            if (anterior != null) {
+                matriculas.remove(anterior, vehiculoId);
+            }
+            if (nueva != null) {
+                matriculas.put(nueva, vehiculoId);
+            }
+        });
+    }
+
+    /**
+     * Normaliza una matrícula o prefijo ingresado por el usuario.
+     *
+     * @param matricula Texto ingresado.
+     * @return La matrícula en mayúsculas y sin espacios en los extremos.
+     * @throws IllegalArgumentException Si el texto no tiene el formato de una matrícula.
+     */
+    public String normalizar(String matricula) {
+        String normalizada = matricula == null ? "" : matricula.trim().toUpperCase(Locale.ROOT);
+        if (!FORMATO_MATRICULA.matcher(normalizada).matches()) {
+            throw new IllegalArgumentException("Matrícula inválida: " + matricula);
+        }
+        return normalizada;
+    }
+
+    private void alConfirmar(Runnable cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cambio.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cambio.run();
+            }
+        });
+    }
+}
@@ -1,10 +1,27 @@
 package com.washer.demo.services;
 
+import com.washer.demo.dto.CoincidenciaCliente;
+import com.washer.demo.dto.PaginaCursor;
+import com.washer.demo.dto.ResultadoLote;
 import com.washer.demo.entities.Cliente;
 import com.washer.demo.repositories.ClienteRepository;
+import com.washer.demo.repositories.CobroRepository;
+import com.washer.demo.repositories.MatriculaVehiculo;
+import com.washer.demo.repositories.TurnoRepository;
+import com.washer.demo.repositories.VehiculoRepository;
+import com.washer.demo.util.CacheRespuestas;
+import com.washer.demo.util.Etags;
+import com.washer.demo.util.Paginacion;
+import com.washer.demo.util.PresupuestoConsultas;
+import com.washer.demo.util.ValidadorLote;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,14 +36,87 @@ public class ClienteService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private Paginacion paginacion;
+
+    @Autowired
+    private ValidadorLote validadorLote;
+
+    @Autowired
+    private VehiculoRepository vehiculoRepository;
+
+    @Autowired
+    private BusquedaMatriculaService busquedaMatriculaService;
+
+    @Autowired
+    private BusquedaClienteService busquedaClienteService;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private CobroRepository cobroRepository;
+
+    @Autowired
+    private ReservaSlotService reservaSlotService;
+
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private ResumenCobroService resumenCobroService;
+
     /**
      * Guarda un cliente en la base de datos.
      *
      * @param cliente El cliente a guardar.
      * @return El cliente guardado con su ID asignado por la base de datos.
      */
+    @PresupuestoConsultas(2)
     public Cliente saveCliente(Cliente cliente) {
-        return clienteRepository.save(cliente);
+        Cliente guardado = clienteRepository.save(cliente);
+        busquedaClienteService.indexar(guardado);
+        return guardado;
+    }
+
+    /**
+     * Guarda un lote de clientes en una única transacción.
+     * Cada cliente se valida por separado: los válidos se insertan juntos, aprovechando
+     * el envío de sentencias en lote de JDBC, y los inválidos se informan con sus errores.
+     *
+     * @param clientes Lista de clientes a guardar.
+     * @return Resultado de cada cliente, en el mismo orden en que fueron recibidos.
+     * @throws IllegalArgumentException Si el lote está vacío o supera el tamaño máximo permitido.
+     */
+    @PresupuestoConsultas(value = 2, porElemento = 0.05)
+    public List<ResultadoLote> saveClientes(List<Cliente> clientes) {
+        validadorLote.validarTamanio(clientes);
+        ResultadoLote[] resultados = new ResultadoLote[clientes.size()];
+        List<Integer> indicesValidos = new ArrayList<>();
+        List<Cliente> validos = new ArrayList<>();
+
+        for (int i = 0; i < clientes.size(); i++) {
+            Cliente cliente = clientes.get(i);
+            List<String> errores = validadorLote.validar(cliente);
+            if (!errores.isEmpty()) {
+                resultados[i] = ResultadoLote.rechazado(i, errores);
+                continue;
+            }
+            cliente.setId(null); // El lote solo crea clientes nuevos
+            indicesValidos.add(i);
+            validos.add(cliente);
+        }
+
+        List<Cliente> guardados = clienteRepository.saveAll(validos);
+        for (int i = 0; i < guardados.size(); i++) {
+            int indice = indicesValidos.get(i);
+            resultados[indice] = ResultadoLote.creado(indice, guardados.get(i).getId());
+            busquedaClienteService.indexar(guardados.get(i));
+        }
+        return List.of(resultados);
     }
 
     /**
@@ -36,30 +126,86 @@ public class ClienteService {
      * @return El cliente encontrado.
      * @throws IllegalArgumentException Si no existe un cliente con el ID proporcionado.
      */
+    @PresupuestoConsultas(1)
     public Cliente getCliente(Long id) {
         return clienteRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + id));
     }
 
     /**
-     * Obtiene una lista de todos los clientes registrados.
+     * Obtiene la versión de un cliente para responder a las solicitudes condicionales. Los clientes se guardan
+     * en la caché de segundo nivel, por lo que en general la versión se obtiene sin consultar la base de datos.
      *
-     * @return Lista de clientes.
+     * @param id El ID del cliente.
+     * @return La versión del cliente, o null si no existe.
      */
-    public List<Cliente> getAllClientes() {
-        return clienteRepository.findAll();
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public Long getVersionCliente(Long id) {
+        return clienteRepository.findById(id).map(Cliente::getVersion).orElse(null);
     }
 
     /**
-     * Elimina un cliente por su ID.
+     * Busca clientes por parte de su nombre, correo electrónico o teléfono, usando el índice en memoria.
+     *
+     * @param texto  Texto a buscar.
+     * @param limite Cantidad de resultados solicitada; se acota al máximo configurado.
+     * @return Clientes encontrados, del más al menos parecido.
+     * @throws IllegalArgumentException Si el texto es demasiado corto.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @PresupuestoConsultas(0)
+    public List<CoincidenciaCliente> buscarClientes(String texto, Integer limite) {
+        return busquedaClienteService.buscar(texto, paginacion.resolverLimite(limite));
+    }
+
+    /**
+     * Obtiene una página de clientes registrados, paginada por cursor sobre el ID.
+     *
+     * @param cursor Cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limite Cantidad de elementos solicitada; se acota al máximo configurado.
+     * @return Página de clientes con el cursor para continuar.
+     */
+    @PresupuestoConsultas(1)
+    public PaginaCursor<Cliente> getAllClientes(String cursor, Integer limite) {
+        int tamanio = paginacion.resolverLimite(limite);
+        List<Cliente> filas = clienteRepository.findByIdGreaterThanOrderByIdAsc(
+                paginacion.decodificarCursor(cursor), Limit.of(tamanio + 1));
+        return paginacion.construirPagina(filas, tamanio, Cliente::getId);
+    }
+
+    /**
+     * Elimina un cliente por su ID junto con sus vehículos, turnos y cobros. Los turnos y cobros
+     * archivados se conservan, igual que al eliminar un vehículo.
+     * En lugar de cargar el cliente y eliminar en cascada cada vehículo y turno, se ejecuta una sentencia
+     * por tabla, en el orden que imponen las claves foráneas, por lo que la cantidad de consultas no
+     * depende del tamaño de la flota ni de su historia.
      *
      * @param id El ID del cliente a eliminar.
      * @throws IllegalArgumentException Si no existe un cliente con el ID proporcionado.
      */
+    @PresupuestoConsultas(9)
     public void deleteCliente(Long id) {
-        Cliente cliente = clienteRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + id));
-        clienteRepository.delete(cliente);
+        if (!clienteRepository.existsById(id)) {
+            throw new IllegalArgumentException("Cliente no encontrado con ID: " + id);
+        }
+        // Los vehículos del cliente dejan de figurar en el índice de matrículas y en la caché de respuestas
+        for (MatriculaVehiculo vehiculo : vehiculoRepository.findMatriculasByClienteId(id)) {
+            busquedaMatriculaService.actualizar(vehiculo.getId(), vehiculo.getMatricula(), null);
+            cacheRespuestas.invalidar(CacheRespuestas.VEHICULOS, vehiculo.getId());
+        }
+        // Los turnos programados liberan sus boxes en la agenda al confirmarse la transacción
+        for (Long turnoId : turnoRepository.findIdsProgramadosByClienteId(id)) {
+            disponibilidadService.liberar(turnoId);
+        }
+        resumenCobroService.restarCliente(id);
+        reservaSlotService.liberarCliente(id);
+        cobroRepository.deleteByClienteId(id);
+        turnoRepository.deleteByClienteId(id);
+        cacheRespuestas.invalidarTodos(CacheRespuestas.TURNOS); // Los IDs de los turnos eliminados no se leen
+        vehiculoRepository.deleteByClienteId(id);
+        clienteRepository.deleteSinCascada(id);
+        busquedaClienteService.desindexar(id);
     }
 
     /**
@@ -67,12 +213,16 @@ public class ClienteService {
      *
      * @param id El ID del cliente a actualizar.
      * @param cliente Los nuevos datos del cliente.
+     * @param versionEsperada Versión indicada por el cliente en If-Match, o null para no verificarla.
      * @return El cliente actualizado.
      * @throws IllegalArgumentException Si no existe un cliente con el ID proporcionado.
+     * @throws OptimisticLockingFailureException Si el cliente fue modificado después de la versión indicada.
      */
-    public Cliente updateCliente(Long id, Cliente cliente) {
+    @PresupuestoConsultas(2)
+    public Cliente updateCliente(Long id, Cliente cliente, Long versionEsperada) {
         Cliente existingCliente = clienteRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + id));
+        Etags.validarVersion("cliente", id, existingCliente.getVersion(), versionEsperada);
 
         // Actualizar solo los campos no nulos proporcionados
         if (cliente.getNombre() != null) {
@@ -85,6 +235,8 @@ public class ClienteService {
             existingCliente.setTelefono(cliente.getTelefono());
         }
 
-        return clienteRepository.save(existingCliente);
+        Cliente guardado = clienteRepository.save(existingCliente);
+        busquedaClienteService.indexar(guardado);
+        return guardado;
     }
 }
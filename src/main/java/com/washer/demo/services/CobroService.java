@@ -1,14 +1,27 @@
 package com.washer.demo.services;
 
+import com.washer.demo.dto.PaginaCursor;
 import com.washer.demo.entities.Cobro;
+import com.washer.demo.entities.CobroArchivado;
 import com.washer.demo.entities.Turno;
+import com.washer.demo.repositories.CobroArchivadoRepository;
 import com.washer.demo.repositories.CobroRepository;
 import com.washer.demo.repositories.TurnoRepository;
+import com.washer.demo.util.Etags;
+import com.washer.demo.util.ExportadorNdjson;
+import com.washer.demo.util.Paginacion;
+import com.washer.demo.util.PresupuestoConsultas;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Servicio para gestionar las operaciones relacionadas con la entidad Cobro.
@@ -22,63 +35,129 @@ public class CobroService {
     @Autowired
     private CobroRepository cobroRepository;
 
+    @Autowired
+    private CobroArchivadoRepository cobroArchivadoRepository;
+
     @Autowired
     private TurnoRepository turnoRepository;
 
+    @Autowired
+    private Paginacion paginacion;
+
+    @Autowired
+    private ExportadorNdjson exportadorNdjson;
+
+    @Autowired
+    private ResumenCobroService resumenCobroService;
+
     /**
-     * Guarda un nuevo cobro en la base de datos.
+     * Guarda un nuevo cobro en la base de datos y lo suma al resumen diario de recaudación.
+     * El turno indicado se carga desde la base, de modo que el cobro se agrupe bajo su tipo de servicio
+     * aunque solo se haya recibido su ID.
      *
      * @param cobro El objeto Cobro a guardar.
      * @return El cobro guardado con su ID asignado automáticamente.
+     * @throws IllegalArgumentException Si el turno indicado no existe.
      */
+    @PresupuestoConsultas(4)
     public Cobro saveCobro(Cobro cobro) {
-        return cobroRepository.save(cobro);
+        cobro.setTurno(resolverTurno(cobro.getTurno()));
+        Cobro guardado = cobroRepository.save(cobro);
+        resumenCobroService.sumar(guardado);
+        return guardado;
     }
 
     /**
-     * Recupera un cobro por su ID.
+     * Recupera un cobro por su ID. Si ya no está en la tabla de cobros, se busca en el archivo.
      *
      * @param id El identificador único del cobro a buscar.
      * @return El cobro encontrado.
      * @throws IllegalArgumentException Si no existe un cobro con el ID proporcionado.
      */
+    @PresupuestoConsultas(2)
     public Cobro getCobro(Long id) {
         return cobroRepository.findById(id)
+                .or(() -> cobroArchivadoRepository.findById(id).map(this::desarchivar))
                 .orElseThrow(() -> new IllegalArgumentException("Cobro no encontrado con ID: " + id));
     }
 
     /**
-     * Obtiene una lista de todos los cobros registrados en la base de datos.
+     * Obtiene la versión de un cobro sin cargarlo, para responder a las solicitudes condicionales.
      *
-     * @return Lista de cobros existentes.
+     * @param id El identificador único del cobro.
+     * @return La versión del cobro, o null si no está en la tabla de cobros.
      */
-    public List<Cobro> getAllCobros() {
-        return cobroRepository.findAll();
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public Long getVersionCobro(Long id) {
+        return cobroRepository.findVersionById(id).orElse(null);
     }
 
     /**
-     * Elimina un cobro por su ID.
+     * Obtiene una página de los cobros registrados, usando paginación por cursor.
+     *
+     * @param cursor Cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limite Cantidad de elementos solicitada; se acota al máximo configurado.
+     * @return Página de cobros con el cursor para continuar.
+     */
+    @PresupuestoConsultas(1)
+    public PaginaCursor<Cobro> getAllCobros(String cursor, Integer limite) {
+        int tamanio = paginacion.resolverLimite(limite);
+        List<Cobro> filas = cobroRepository.findByIdGreaterThanOrderByIdAsc(
+                paginacion.decodificarCursor(cursor), Limit.of(tamanio + 1));
+        return paginacion.construirPagina(filas, tamanio, Cobro::getId);
+    }
+
+    /**
+     * Exporta todos los cobros en formato NDJSON escribiéndolos directamente en la salida.
+     * Se lee la tabla mediante un stream de solo lectura, por lo que la memoria utilizada
+     * no depende de la cantidad de cobros.
+     *
+     * @param salida Flujo de salida donde se escriben los cobros, uno por línea.
+     * @return Cantidad de cobros exportados.
+     * @throws IOException si ocurre un error al escribir en la salida.
+     */
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public long exportarCobros(OutputStream salida) throws IOException {
+        try (Stream<Cobro> cobros = cobroRepository.streamAllByOrderByIdAsc()) {
+            return exportadorNdjson.exportar(cobros, salida);
+        }
+    }
+
+    /**
+     * Elimina un cobro por su ID y lo resta del resumen diario de recaudación.
      *
      * @param id El identificador único del cobro a eliminar.
      * @throws IllegalArgumentException Si no existe un cobro con el ID proporcionado.
      */
+    @PresupuestoConsultas(4)
     public void deleteCobro(Long id) {
-        Cobro cobro = cobroRepository.findById(id)
+        Cobro cobro = cobroRepository.findConTurnoById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cobro no encontrado con ID: " + id));
         cobroRepository.delete(cobro);
+        resumenCobroService.restar(cobro);
     }
 
     /**
-     * Actualiza la información de un cobro existente.
+     * Actualiza la información de un cobro existente. Si cambian la fecha, el monto o el turno,
+     * el cobro se mueve al resumen diario que corresponda.
      *
      * @param id El identificador único del cobro a actualizar.
      * @param cobro Objeto Cobro con los datos actualizados.
+     * @param versionEsperada Versión indicada por el cliente en If-Match, o null para no verificarla.
      * @return El cobro actualizado.
-     * @throws IllegalArgumentException Si no existe un cobro con el ID proporcionado.
+     * @throws IllegalArgumentException Si no existe un cobro con el ID proporcionado o el turno indicado no existe.
+     * @throws OptimisticLockingFailureException Si el cobro fue modificado después de la versión indicada.
      */
-    public Cobro updateCobro(Long id, Cobro cobro) {
-        Cobro existingCobro = cobroRepository.findById(id)
+    @PresupuestoConsultas(5)
+    public Cobro updateCobro(Long id, Cobro cobro, Long versionEsperada) {
+        Cobro existingCobro = cobroRepository.findConTurnoById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cobro no encontrado con ID: " + id));
+        Etags.validarVersion("cobro", id, existingCobro.getVersion(), versionEsperada);
+        Date fechaAnterior = existingCobro.getFecha();
+        String tipoServicioAnterior = resumenCobroService.tipoServicio(existingCobro);
+        Double montoAnterior = existingCobro.getMonto();
 
         // Actualiza los campos no nulos del cobro proporcionado
         if (cobro.getMonto() != null) {
@@ -88,9 +167,40 @@ public class CobroService {
             existingCobro.setFecha(cobro.getFecha());
         }
         if (cobro.getTurno() != null) {
-            existingCobro.setTurno(cobro.getTurno());
+            existingCobro.setTurno(resolverTurno(cobro.getTurno()));
         }
 
-        return cobroRepository.save(existingCobro);
+        Cobro guardado = cobroRepository.save(existingCobro);
+        resumenCobroService.mover(fechaAnterior, tipoServicioAnterior, montoAnterior, guardado);
+        return guardado;
+    }
+
+    /**
+     * Carga el turno referenciado por un cobro, del que solo se necesita el ID.
+     *
+     * @param turno Turno indicado en el cobro, o null si no tiene.
+     * @return El turno cargado, o null si el cobro no tiene turno.
+     * @throws IllegalArgumentException Si el turno no indica su ID o no existe.
+     */
+    private Turno resolverTurno(Turno turno) {
+        if (turno == null) {
+            return null;
+        }
+        if (turno.getId() == null) {
+            throw new IllegalArgumentException("El turno del cobro debe indicar su ID.");
+        }
+        return turnoRepository.findById(turno.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Turno no encontrado con ID: " + turno.getId()));
+    }
+
+    /**
+     * Arma un cobro a partir de su copia archivada, solo para devolverlo en la respuesta.
+     */
+    private Cobro desarchivar(CobroArchivado archivado) {
+        return Cobro.builder()
+                .id(archivado.getId())
+                .monto(archivado.getMonto())
+                .fecha(archivado.getFecha())
+                .build();
     }
 }
@@ -0,0 +1,308 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.FranjaDisponible;
+import com.washer.demo.repositories.AgendaTurno;
+import com.washer.demo.repositories.ReservaSlotRepository;
+import com.washer.demo.repositories.TurnoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Servicio que mantiene en memoria la agenda de turnos programados para responder
+ * consultas de disponibilidad y rechazar reservas superpuestas sin recorrer la tabla de turnos.
+ *
+ * La agenda guarda la cantidad de turnos que toca cada franja de la duración de un turno, con el mismo
+ * criterio que las reservas de boxes en la base de datos ({@link ReservaSlotService#franjas}): un turno
+ * ocupa la franja en la que comienza y, si no empieza justo al inicio de una franja, también la siguiente.
+ * Así la disponibilidad informada y el rechazo en memoria coinciden con lo que acepta la base de datos.
+ *
+ * Los cambios se aplican en el momento de la reserva y se revierten automáticamente si la
+ * transacción que los originó termina en rollback.
+ *
+ * La agenda es orientativa: la que garantiza que no haya sobreturnos es la tabla de reservas de boxes.
+ * Con varias instancias, cada una solo ve sus propios cambios, por lo que su agenda puede mostrar ocupadas
+ * franjas que otra instancia liberó al cancelar, completar, mover o eliminar turnos. Por eso, cuando la agenda
+ * indica que una franja está completa, antes de rechazar el turno se corrige su ocupación con las reservas de la
+ * base de datos, y además la agenda completa se recarga periódicamente
+ * ({@code lavadero.agenda.recarga-ms}) para que la disponibilidad informada no quede desactualizada.
+ */
+@Service
+public class DisponibilidadService {
+
+    // Cantidad de boxes de lavado que pueden atender turnos en simultáneo.
+    @Value("${lavadero.boxes:3}")
+    private int boxes;
+
+    // Duración de cada turno en minutos.
+    @Value("${lavadero.duracion-turno-minutos:30}")
+    private int duracionMinutos;
+
+    // Hora de apertura del lavadero (HH:mm).
+    @Value("${lavadero.horario.apertura:08:00}")
+    private String horaApertura;
+
+    // Hora de cierre del lavadero (HH:mm).
+    @Value("${lavadero.horario.cierre:20:00}")
+    private String horaCierre;
+
+    // Zona horaria en la que se interpretan las fechas de los turnos.
+    @Value("${lavadero.zona-horaria:UTC}")
+    private String zonaHoraria;
+
+    @Autowired
+    private TurnoRepository turnoRepository;
+
+    @Autowired
+    private ReservaSlotRepository reservaSlotRepository;
+
+    // Cantidad de turnos que ocupan cada franja, por inicio de la franja.
+    private final Map<LocalDateTime, Integer> ocupacionPorFranja = new HashMap<>();
+    // Inicio de cada turno programado en la agenda.
+    private final Map<Long, LocalDateTime> ubicaciones = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ZoneId zona;
+    private int minutoApertura;
+    private int minutoCierre;
+
+    /**
+     * Inicializa la configuración horaria y carga la agenda desde la base de datos.
+     */
+    @PostConstruct
+    void inicializar() {
+        zona = ZoneId.of(zonaHoraria);
+        minutoApertura = LocalTime.parse(horaApertura).toSecondOfDay() / 60;
+        minutoCierre = LocalTime.parse(horaCierre).toSecondOfDay() / 60;
+        recargar();
+    }
+
+    /**
+     * Reconstruye la agenda completa a partir de los turnos programados en la base de datos.
+     * Se ejecuta periódicamente para incorporar los cambios hechos por otras instancias.
+     */
+    @Scheduled(fixedDelayString = "${lavadero.agenda.recarga-ms:60000}", initialDelayString = "${lavadero.agenda.recarga-ms:60000}")
+    public void recargar() {
+        List<AgendaTurno> agenda = turnoRepository.findAgendaProgramada();
+        lock.writeLock().lock();
+        try {
+            ocupacionPorFranja.clear();
+            ubicaciones.clear();
+            for (AgendaTurno turno : agenda) {
+                agregar(turno.getId(), ubicar(turno.getFechaHora()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reserva un lugar en la agenda para un turno programado. Si el turno ya estaba en la agenda,
+     * se mueve al nuevo horario sin contarse a sí mismo como superposición.
+     * Si la agenda indica que alguna franja está completa, se corrige la ocupación de esas franjas con las
+     * reservas de la base de datos y se vuelve a intentar, ya que otra instancia pudo haber liberado boxes.
+     *
+     * @param turnoId   El identificador único del turno.
+     * @param fechaHora Fecha y hora de inicio del turno.
+     * @return true si la agenda cambió; false si el turno ya estaba reservado en ese horario.
+     * @throws IllegalArgumentException Si todos los boxes están ocupados en alguna de las franjas que toca el turno.
+     */
+    public boolean reservar(Long turnoId, Date fechaHora) {
+        LocalDateTime nueva = ubicar(fechaHora);
+        List<LocalDateTime> franjas = ReservaSlotService.franjas(nueva, duracionMinutos);
+        Intento intento = intentarReservar(turnoId, nueva, franjas);
+        if (intento.franjaCompleta() != null) {
+            // La consulta a la base se hace fuera del bloqueo, para no demorar al resto de las reservas
+            corregirOcupacion(turnoId, franjas, reservaSlotRepository.findIniciosReservados(franjas, turnoId));
+            intento = intentarReservar(turnoId, nueva, franjas);
+            if (intento.franjaCompleta() != null) {
+                throw new IllegalArgumentException("No hay boxes disponibles para el horario: " + intento.franjaCompleta());
+            }
+        }
+        if (!intento.cambio()) {
+            return false;
+        }
+        revertirAnteRollback(turnoId, intento.anterior());
+        return true;
+    }
+
+    /**
+     * Resultado de un intento de reserva en la agenda: si la agenda cambió, la ubicación anterior del turno
+     * y la primera franja completa que impidió la reserva (null si se pudo reservar).
+     */
+    private record Intento(boolean cambio, LocalDateTime anterior, LocalDateTime franjaCompleta) {
+    }
+
+    private Intento intentarReservar(Long turnoId, LocalDateTime nueva, List<LocalDateTime> franjas) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime anterior = ubicaciones.get(turnoId);
+            if (nueva.equals(anterior)) {
+                return new Intento(false, anterior, null);
+            }
+            if (anterior != null) {
+                quitar(turnoId);
+            }
+            for (LocalDateTime franja : franjas) {
+                if (ocupacionPorFranja.getOrDefault(franja, 0) >= boxes) {
+                    if (anterior != null) {
+                        agregar(turnoId, anterior);
+                    }
+                    return new Intento(false, anterior, franja);
+                }
+            }
+            agregar(turnoId, nueva);
+            return new Intento(true, anterior, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza la ocupación de las franjas por la que registra la base de datos, sumando el propio turno
+     * si la agenda lo tiene en alguna de ellas.
+     *
+     * @param turnoId    Turno que se intenta reservar.
+     * @param franjas    Franjas a corregir.
+     * @param reservadas Inicio de cada reserva de otros turnos en esas franjas.
+     */
+    private void corregirOcupacion(Long turnoId, List<LocalDateTime> franjas, List<LocalDateTime> reservadas) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime propia = ubicaciones.get(turnoId);
+            List<LocalDateTime> franjasPropias = propia == null ? List.of() : ReservaSlotService.franjas(propia, duracionMinutos);
+            for (LocalDateTime franja : franjas) {
+                int ocupacion = (int) reservadas.stream().filter(franja::equals).count() + (franjasPropias.contains(franja) ? 1 : 0);
+                if (ocupacion == 0) {
+                    ocupacionPorFranja.remove(franja);
+                } else {
+                    ocupacionPorFranja.put(franja, ocupacion);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un turno de la agenda, liberando su lugar. No hace nada si el turno no estaba reservado.
+     *
+     * @param turnoId El identificador único del turno.
+     * @return true si el turno estaba en la agenda.
+     */
+    public boolean liberar(Long turnoId) {
+        LocalDateTime anterior;
+        lock.writeLock().lock();
+        try {
+            anterior = quitar(turnoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (anterior == null) {
+            return false;
+        }
+        revertirAnteRollback(turnoId, anterior);
+        return true;
+    }
+
+    /**
+     * Calcula la disponibilidad de un día dividido en franjas de la duración de un turno,
+     * desde la apertura hasta el cierre del lavadero.
+     *
+     * @param fecha Día a consultar.
+     * @return Lista de franjas con la cantidad de boxes libres en cada una.
+     */
+    public List<FranjaDisponible> consultarDisponibilidad(LocalDate fecha) {
+        List<FranjaDisponible> franjas = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int minuto = minutoApertura; minuto + duracionMinutos <= minutoCierre; minuto += duracionMinutos) {
+                LocalDateTime inicio = fecha.atStartOfDay().plusMinutes(minuto);
+                int libres = boxes - ocupacionPorFranja.getOrDefault(inicio, 0);
+                franjas.add(new FranjaDisponible(inicio, inicio.plusMinutes(duracionMinutos), Math.max(libres, 0)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return franjas;
+    }
+
+    private void agregar(Long turnoId, LocalDateTime inicio) {
+        for (LocalDateTime franja : ReservaSlotService.franjas(inicio, duracionMinutos)) {
+            ocupacionPorFranja.merge(franja, 1, Integer::sum);
+        }
+        ubicaciones.put(turnoId, inicio);
+    }
+
+    private LocalDateTime quitar(Long turnoId) {
+        LocalDateTime inicio = ubicaciones.remove(turnoId);
+        if (inicio != null) {
+            for (LocalDateTime franja : ReservaSlotService.franjas(inicio, duracionMinutos)) {
+                // Al llegar a cero la franja se quita del mapa
+                ocupacionPorFranja.computeIfPresent(franja, (clave, cantidad) -> cantidad == 1 ? null : cantidad - 1);
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Registra una acción que devuelve el turno a su ubicación anterior (o lo quita de la agenda
+     * si no tenía una) en caso de que la transacción actual termine en rollback.
+     * Las acciones de una misma transacción se deshacen en orden inverso al que se aplicaron.
+     */
+    @SuppressWarnings("unchecked")
+    private void revertirAnteRollback(Long turnoId, LocalDateTime anterior) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Deque<Runnable> pendientes = (Deque<Runnable>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Deque<Runnable> deshacer = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(this, deshacer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DisponibilidadService.this);
+                    if (status != STATUS_ROLLED_BACK) {
+                        return;
+                    }
+                    lock.writeLock().lock();
+                    try {
+                        deshacer.forEach(Runnable::run);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            });
+            pendientes = deshacer;
+        }
+        pendientes.addFirst(() -> {
+            quitar(turnoId);
+            if (anterior != null) {
+                agregar(turnoId, anterior);
+            }
+        });
+    }
+
+    private LocalDateTime ubicar(Date fechaHora) {
+        return LocalDateTime.ofInstant(fechaHora.toInstant(), zona).truncatedTo(ChronoUnit.MINUTES);
+    }
+}
@@ -0,0 +1,59 @@
+package com.washer.demo.services;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.washer.demo.dto.EstadisticaCache;
+import com.washer.demo.dto.EstadisticaCacheRespuestas;
+import com.washer.demo.util.CacheRespuestas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Servicio que expone los contadores de las regiones de la caché de segundo nivel,
+ * para ajustar su tamaño y tiempo de vida según el uso real.
+ *
+ * Las regiones se mantienen coherentes sin intervención de los servicios: Hibernate actualiza
+ * o invalida la entrada de un cliente o vehículo al confirmarse la transacción que lo modifica
+ * o elimina. Las sentencias SQL nativas que no declaran las tablas que afectan vacían todas las
+ * regiones, por lo que las consultas nativas de escritura deben indicarlas.
+ */
+@Service
+public class EstadisticasCacheService {
+
+    @Autowired
+    private CacheManager jCacheManager;
+
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
+    /**
+     * Obtiene los contadores de todas las regiones configuradas.
+     *
+     * @return Lista con las estadísticas de cada región.
+     */
+    public List<EstadisticaCache> getEstadisticas() {
+        List<EstadisticaCache> estadisticas = new ArrayList<>();
+        for (String region : jCacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = jCacheManager.getCache(region);
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats stats = caffeine.stats();
+            estadisticas.add(new EstadisticaCache(region, caffeine.estimatedSize(), stats.hitCount(),
+                    stats.missCount(), stats.evictionCount(), stats.hitRate()));
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Obtiene los contadores de la caché de respuestas serializadas de cada recurso.
+     *
+     * @return Lista con las estadísticas de cada recurso.
+     */
+    public List<EstadisticaCacheRespuestas> getEstadisticasRespuestas() {
+        return cacheRespuestas.getEstadisticas();
+    }
+}
@@ -0,0 +1,430 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.ResumenGeneracion;
+import com.washer.demo.entities.Cliente;
+import com.washer.demo.entities.Cobro;
+import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.Vehiculo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Servicio que genera datos sintéticos a escala de producción (clientes, vehículos, turnos y cobros)
+ * y los inserta directamente con sentencias JDBC en lote, sin pasar por el guardado de entidades.
+ *
+ * Los datos siguen distribuciones realistas: una parte de los clientes son flotas con muchos vehículos,
+ * los turnos se concentran en los horarios pico y los fines de semana, una proporción se cancela y los
+ * turnos completados se cobran según el tipo de servicio. Con la misma semilla y la misma base de datos
+ * inicial se obtienen los mismos datos, con las fechas relativas al día de la carga.
+ *
+ * Los IDs se obtienen de los mismos generadores que usa Hibernate, por lo que la carga puede hacerse con
+ * la aplicación en uso. Los turnos programados respetan la cantidad de boxes y reservan su box igual que
+ * las altas desde la API. Al terminar se recargan los índices en memoria y los resúmenes de recaudación.
+ */
+@Service
+public class GeneradorDatosService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatosService.class);
+
+    private static final String INSERTAR_CLIENTE =
+            "INSERT INTO cliente (id, nombre, correo_electronico, telefono) VALUES (?, ?, ?, ?)";
+    private static final String INSERTAR_VEHICULO =
+            "INSERT INTO vehiculo (id, modelo, matricula, tipo, cliente_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERTAR_TURNO =
+            "INSERT INTO turno (id, fecha_hora, estado, tipo_servicio, vehiculo_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERTAR_RESERVA =
+            "INSERT INTO reserva_slot (inicio, box, turno_id) VALUES (?, ?, ?)";
+    private static final String INSERTAR_COBRO =
+            "INSERT INTO cobro (id, monto, fecha, turno_id) VALUES (?, ?, ?, ?)";
+
+    private static final String[] NOMBRES = {"Juan", "Maria", "Carlos", "Ana", "Luis", "Laura", "Jorge", "Sofia",
+            "Diego", "Lucia", "Martin", "Valeria", "Pablo", "Camila", "Miguel", "Florencia", "Andres", "Julieta"};
+    private static final String[] APELLIDOS = {"Gonzalez", "Rodriguez", "Gomez", "Fernandez", "Lopez", "Diaz",
+            "Martinez", "Perez", "Garcia", "Sanchez", "Romero", "Sosa", "Alvarez", "Torres", "Ruiz", "Ramirez"};
+    private static final String[] EMPRESAS = {"Transportes", "Logistica", "Remises", "Distribuidora", "Servicios", "Fletes"};
+    private static final String[] MODELOS = {"Toyota Corolla", "Volkswagen Gol", "Ford Ranger", "Chevrolet Onix",
+            "Fiat Cronos", "Renault Kangoo", "Peugeot 208", "Toyota Hilux", "Ford Transit", "Honda Civic"};
+    private static final String[] TIPOS_PARTICULAR = {"Sedán", "Hatchback", "SUV", "Pickup"};
+    private static final int[] PESOS_TIPOS_PARTICULAR = {40, 30, 20, 10};
+    private static final String[] TIPOS_FLOTA = {"Utilitario", "Pickup", "Sedán"};
+    private static final int[] PESOS_TIPOS_FLOTA = {50, 30, 20};
+    private static final String[] SERVICIOS = {"lavado completo", "lavado exterior", "lavado de motor", "encerado"};
+    private static final int[] PESOS_SERVICIOS = {45, 30, 10, 15};
+    private static final double[] PRECIOS_SERVICIOS = {2500, 1500, 3000, 4000};
+    private static final double PROPORCION_COBRADOS = 0.97; // Algunos turnos completados quedan sin cobrar
+    private static final double PESO_FIN_DE_SEMANA = 1.6;
+    private static final int INTENTOS_POR_TURNO = 5; // Intentos de encontrar un box libre antes de descartar el turno
+
+    // Semilla de los valores aleatorios; con la misma semilla se generan los mismos datos.
+    @Value("${datos.sinteticos.semilla:42}")
+    private long semilla;
+
+    // Cantidad de clientes a generar.
+    @Value("${datos.sinteticos.clientes:10000}")
+    private int cantidadClientes;
+
+    // Proporción de clientes que son flotas (empresas con muchos vehículos).
+    @Value("${datos.sinteticos.proporcion-flotas:0.02}")
+    private double proporcionFlotas;
+
+    // Cantidad promedio de vehículos de una flota.
+    @Value("${datos.sinteticos.vehiculos-por-flota:40}")
+    private int vehiculosPorFlota;
+
+    // Cantidad promedio de turnos por vehículo.
+    @Value("${datos.sinteticos.turnos-por-vehiculo:6}")
+    private double turnosPorVehiculo;
+
+    // Días hacia atrás en los que se distribuyen los turnos ya realizados.
+    @Value("${datos.sinteticos.dias-historia:365}")
+    private int diasHistoria;
+
+    // Días hacia adelante en los que se distribuyen los turnos programados.
+    @Value("${datos.sinteticos.dias-futuro:30}")
+    private int diasFuturo;
+
+    // Proporción de turnos cancelados.
+    @Value("${datos.sinteticos.tasa-cancelacion:0.12}")
+    private double tasaCancelacion;
+
+    // Filas acumuladas antes de enviar cada lote a la base de datos.
+    @Value("${datos.sinteticos.tamanio-lote:5000}")
+    private int tamanioLote;
+
+    // Cantidad de boxes de lavado que pueden atender turnos en simultáneo.
+    @Value("${lavadero.boxes:3}")
+    private int boxes;
+
+    // Duración de cada turno en minutos.
+    @Value("${lavadero.duracion-turno-minutos:30}")
+    private int duracionMinutos;
+
+    // Hora de apertura del lavadero (HH:mm).
+    @Value("${lavadero.horario.apertura:08:00}")
+    private String horaApertura;
+
+    // Hora de cierre del lavadero (HH:mm).
+    @Value("${lavadero.horario.cierre:20:00}")
+    private String horaCierre;
+
+    // Zona horaria en la que se interpretan las fechas de los turnos.
+    @Value("${lavadero.zona-horaria:UTC}")
+    private String zonaHoraria;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private BusquedaMatriculaService busquedaMatriculaService;
+
+    @Autowired
+    private BusquedaClienteService busquedaClienteService;
+
+    @Autowired
+    private ResumenCobroService resumenCobroService;
+
+    /**
+     * Filas pendientes de insertar y totales de una carga. Las filas se envían en lotes, respetando
+     * el orden de las claves foráneas, cada vez que alguna tabla alcanza el tamaño de lote.
+     */
+    private final class Carga {
+        private final List<Object[]> clientes = new ArrayList<>();
+        private final List<Object[]> vehiculos = new ArrayList<>();
+        private final List<Object[]> turnos = new ArrayList<>();
+        private final List<Object[]> reservas = new ArrayList<>();
+        private final List<Object[]> cobros = new ArrayList<>();
+        private final long[] totales = new long[4];
+
+        void enviarSiCorresponde() {
+            if (clientes.size() >= tamanioLote || vehiculos.size() >= tamanioLote || turnos.size() >= tamanioLote
+                    || reservas.size() >= tamanioLote || cobros.size() >= tamanioLote) {
+                enviar();
+            }
+        }
+
+        void enviar() {
+            transactionTemplate.executeWithoutResult(estado -> {
+                totales[0] += insertar(INSERTAR_CLIENTE, clientes);
+                totales[1] += insertar(INSERTAR_VEHICULO, vehiculos);
+                totales[2] += insertar(INSERTAR_TURNO, turnos);
+                insertar(INSERTAR_RESERVA, reservas);
+                totales[3] += insertar(INSERTAR_COBRO, cobros);
+            });
+        }
+
+        private int insertar(String sql, List<Object[]> filas) {
+            int cantidad = filas.size();
+            if (cantidad > 0) {
+                jdbcTemplate.batchUpdate(sql, filas);
+                filas.clear();
+            }
+            return cantidad;
+        }
+    }
+
+    /**
+     * Genera e inserta el conjunto de datos configurado y recarga los índices en memoria.
+     *
+     * @return Cantidad de filas insertadas por tabla y duración de la carga.
+     */
+    public ResumenGeneracion generar() {
+        long inicio = System.currentTimeMillis();
+        SplittableRandom azar = new SplittableRandom(semilla);
+        ZoneId zona = ZoneId.of(zonaHoraria);
+        int minutoApertura = LocalTime.parse(horaApertura).toSecondOfDay() / 60;
+        int franjasPorDia = (LocalTime.parse(horaCierre).toSecondOfDay() / 60 - minutoApertura) / duracionMinutos;
+        double[] pesosFranjas = pesosFranjas(minutoApertura, franjasPorDia);
+        LocalDateTime ahora = LocalDateTime.now(zona);
+        Map<LocalDateTime, Integer> boxesOcupados = boxesOcupados(ahora);
+        Carga carga = new Carga();
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (StatelessSession sesion = sessionFactory.openStatelessSession()) {
+            LongSupplier idsCliente = secuencia(sessionFactory, sesion, Cliente.class);
+            LongSupplier idsVehiculo = secuencia(sessionFactory, sesion, Vehiculo.class);
+            LongSupplier idsTurno = secuencia(sessionFactory, sesion, Turno.class);
+            LongSupplier idsCobro = secuencia(sessionFactory, sesion, Cobro.class);
+
+            for (int c = 0; c < cantidadClientes; c++) {
+                long clienteId = idsCliente.getAsLong();
+                boolean flota = azar.nextDouble() < proporcionFlotas;
+                carga.clientes.add(cliente(azar, clienteId, flota));
+
+                for (int v = cantidadVehiculos(azar, flota); v > 0; v--) {
+                    long vehiculoId = idsVehiculo.getAsLong();
+                    carga.vehiculos.add(new Object[]{vehiculoId, MODELOS[azar.nextInt(MODELOS.length)], matricula(vehiculoId),
+                            flota ? elegir(azar, TIPOS_FLOTA, PESOS_TIPOS_FLOTA) : elegir(azar, TIPOS_PARTICULAR, PESOS_TIPOS_PARTICULAR),
+                            clienteId});
+
+                    for (int t = poisson(azar, turnosPorVehiculo); t > 0; t--) {
+                        int servicio = indice(azar, PESOS_SERVICIOS);
+                        LocalDateTime fechaHora = fechaHora(azar, ahora, minutoApertura, pesosFranjas);
+                        String estado;
+                        int box = 0;
+                        if (azar.nextDouble() < tasaCancelacion) {
+                            estado = "cancelado";
+                        } else if (fechaHora.isBefore(ahora)) {
+                            estado = "completado";
+                        } else {
+                            // Busca un horario con un box libre, como lo haría el cliente al reservar
+                            box = boxLibre(boxesOcupados, fechaHora);
+                            for (int intento = 1; box == 0 && intento < INTENTOS_POR_TURNO; intento++) {
+                                fechaHora = fechaHora(azar, ahora, minutoApertura, pesosFranjas);
+                                box = fechaHora.isBefore(ahora) ? 0 : boxLibre(boxesOcupados, fechaHora);
+                            }
+                            if (box == 0) {
+                                continue; // La agenda está completa: el cliente no llega a reservar
+                            }
+                            estado = "programado";
+                        }
+                        long turnoId = idsTurno.getAsLong();
+                        if (box > 0) {
+                            carga.reservas.add(new Object[]{Timestamp.valueOf(fechaHora), box, turnoId});
+                        }
+                        Timestamp momento = Timestamp.from(fechaHora.atZone(zona).toInstant());
+                        carga.turnos.add(new Object[]{turnoId, momento, estado, SERVICIOS[servicio], vehiculoId});
+
+                        if ("completado".equals(estado) && azar.nextDouble() < PROPORCION_COBRADOS) {
+                            double monto = Math.round(PRECIOS_SERVICIOS[servicio] * (0.9 + azar.nextDouble() * 0.3) * 100) / 100.0;
+                            Timestamp fecha = Timestamp.from(fechaHora.plusMinutes(duracionMinutos).atZone(zona).toInstant());
+                            carga.cobros.add(new Object[]{idsCobro.getAsLong(), monto, fecha, turnoId});
+                        }
+                    }
+                }
+                carga.enviarSiCorresponde();
+            }
+            carga.enviar();
+        }
+
+        disponibilidadService.recargar();
+        busquedaMatriculaService.recargar();
+        busquedaClienteService.recargar();
+        resumenCobroService.reconstruir();
+
+        ResumenGeneracion resumen = new ResumenGeneracion(carga.totales[0], carga.totales[1], carga.totales[2],
+                carga.totales[3], System.currentTimeMillis() - inicio);
+        log.info("Datos sintéticos generados: {} clientes, {} vehículos, {} turnos y {} cobros en {} ms",
+                resumen.getClientes(), resumen.getVehiculos(), resumen.getTurnos(), resumen.getCobros(), resumen.getMilisegundos());
+        return resumen;
+    }
+
+    /**
+     * Obtiene el generador de IDs que Hibernate usa para una entidad. Reserva bloques de la misma
+     * secuencia que las altas desde la API, por lo que los IDs nunca se superponen.
+     */
+    private LongSupplier secuencia(SessionFactoryImplementor sessionFactory, StatelessSession sesion, Class<?> entidad) {
+        IdentifierGenerator generador = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(entidad).getGenerator();
+        SharedSessionContractImplementor implementacion = (SharedSessionContractImplementor) sesion;
+        return () -> ((Number) generador.generate(implementacion, null)).longValue();
+    }
+
+    /**
+     * Carga los boxes ya reservados desde ahora en adelante, como máscara de bits por franja.
+     */
+    private Map<LocalDateTime, Integer> boxesOcupados(LocalDateTime desde) {
+        Map<LocalDateTime, Integer> ocupados = new HashMap<>();
+        jdbcTemplate.query("SELECT inicio, box FROM reserva_slot WHERE inicio >= ?",
+                (RowCallbackHandler) fila -> ocupados.merge(fila.getTimestamp(1).toLocalDateTime(), 1 << (fila.getInt(2) - 1), (a, b) -> a | b),
+                Timestamp.valueOf(desde));
+        return ocupados;
+    }
+
+    /**
+     * Ocupa el primer box libre de la franja.
+     *
+     * @return Número de box ocupado, o 0 si todos estaban ocupados.
+     */
+    private int boxLibre(Map<LocalDateTime, Integer> ocupados, LocalDateTime franja) {
+        int mascara = ocupados.getOrDefault(franja, 0);
+        for (int box = 1; box <= boxes; box++) {
+            if ((mascara & (1 << (box - 1))) == 0) {
+                ocupados.put(franja, mascara | (1 << (box - 1)));
+                return box;
+            }
+        }
+        return 0;
+    }
+
+    private Object[] cliente(SplittableRandom azar, long id, boolean flota) {
+        String nombre;
+        String correo;
+        if (flota) {
+            String apellido = APELLIDOS[azar.nextInt(APELLIDOS.length)];
+            nombre = EMPRESAS[azar.nextInt(EMPRESAS.length)] + " " + apellido + " S.A.";
+            correo = "flota" + id + "@" + apellido.toLowerCase() + ".com.ar";
+        } else {
+            String primerNombre = NOMBRES[azar.nextInt(NOMBRES.length)];
+            String apellido = APELLIDOS[azar.nextInt(APELLIDOS.length)];
+            nombre = primerNombre + " " + apellido;
+            correo = (primerNombre + "." + apellido).toLowerCase() + id + "@ejemplo.com";
+        }
+        String telefono = "11" + String.format("%08d", azar.nextInt(100_000_000));
+        return new Object[]{id, nombre, correo, telefono};
+    }
+
+    /**
+     * Cantidad de vehículos de un cliente: la mayoría de los particulares tiene uno, y las flotas
+     * entre la mitad y una vez y media el promedio configurado.
+     */
+    private int cantidadVehiculos(SplittableRandom azar, boolean flota) {
+        if (flota) {
+            return Math.max(1, vehiculosPorFlota / 2 + azar.nextInt(vehiculosPorFlota + 1));
+        }
+        double valor = azar.nextDouble();
+        return valor < 0.70 ? 1 : valor < 0.92 ? 2 : 3;
+    }
+
+    /**
+     * Elige el día y la franja de un turno. Los fines de semana y las franjas de media mañana y
+     * de la tarde son más probables.
+     */
+    private LocalDateTime fechaHora(SplittableRandom azar, LocalDateTime ahora, int minutoApertura, double[] pesosFranjas) {
+        LocalDate dia;
+        do {
+            dia = ahora.toLocalDate().plusDays(azar.nextInt(-diasHistoria, diasFuturo + 1));
+        } while (!esFinDeSemana(dia) && azar.nextDouble() * PESO_FIN_DE_SEMANA > 1.0);
+        double valor = azar.nextDouble() * pesosFranjas[pesosFranjas.length - 1];
+        int franja = 0;
+        while (valor >= pesosFranjas[franja]) {
+            franja++;
+        }
+        return dia.atStartOfDay().plusMinutes(minutoApertura + (long) franja * duracionMinutos);
+    }
+
+    /**
+     * Pesos acumulados de cada franja del día: doble entre las 10 y las 13 y triple entre las 17 y las 19.
+     */
+    private double[] pesosFranjas(int minutoApertura, int franjasPorDia) {
+        double[] acumulados = new double[franjasPorDia];
+        double total = 0;
+        for (int i = 0; i < franjasPorDia; i++) {
+            int hora = (minutoApertura + i * duracionMinutos) / 60;
+            total += hora >= 17 && hora < 19 ? 3.0 : hora >= 10 && hora < 13 ? 2.0 : 1.0;
+            acumulados[i] = total;
+        }
+        return acumulados;
+    }
+
+    private boolean esFinDeSemana(LocalDate dia) {
+        return dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * Matrícula única derivada del ID del vehículo, con el formato de las patentes actuales (AB123CD).
+     */
+    private String matricula(long vehiculoId) {
+        long resto = vehiculoId;
+        int numero = (int) (resto % 1000);
+        resto /= 1000;
+        char[] letras = new char[4];
+        for (int i = 3; i >= 0; i--) {
+            letras[i] = (char) ('A' + resto % 26);
+            resto /= 26;
+        }
+        return "" + letras[0] + letras[1] + String.format("%03d", numero) + letras[2] + letras[3];
+    }
+
+    private int poisson(SplittableRandom azar, double media) {
+        double limite = Math.exp(-media);
+        double producto = azar.nextDouble();
+        int cantidad = 0;
+        while (producto > limite) {
+            producto *= azar.nextDouble();
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    private String elegir(SplittableRandom azar, String[] valores, int[] pesos) {
+        return valores[indice(azar, pesos)];
+    }
+
+    private int indice(SplittableRandom azar, int[] pesos) {
+        int total = 0;
+        for (int peso : pesos) {
+            total += peso;
+        }
+        int valor = azar.nextInt(total);
+        for (int i = 0; i < pesos.length; i++) {
+            valor -= pesos[i];
+            if (valor < 0) {
+                return i;
+            }
+        }
+        return pesos.length - 1;
+    }
+}
@@ -0,0 +1,115 @@
+package com.washer.demo.services;
+
+import com.washer.demo.repositories.ReservaSlotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio que registra en la base de datos qué box ocupa cada turno programado.
+ * La agenda se divide en franjas de la duración de un turno; un turno reserva un box en cada
+ * franja que toca. Como cada par (franja, box) es clave primaria, la base de datos garantiza
+ * que nunca haya más turnos por franja que boxes, aunque varias solicitudes reserven a la vez.
+ */
+@Service
+@Transactional
+public class ReservaSlotService {
+
+    // Cantidad de boxes de lavado que pueden atender turnos en simultáneo.
+    @Value("${lavadero.boxes:3}")
+    private int boxes;
+
+    // Duración de cada turno en minutos, que también define el tamaño de las franjas.
+    @Value("${lavadero.duracion-turno-minutos:30}")
+    private int duracionMinutos;
+
+    // Zona horaria en la que se interpretan las fechas de los turnos.
+    @Value("${lavadero.zona-horaria:UTC}")
+    private String zonaHoraria;
+
+    @Autowired
+    private ReservaSlotRepository reservaSlotRepository;
+
+    /**
+     * Reserva un box en cada franja ocupada por el turno. Si un box aparentemente libre es tomado
+     * por otra transacción al mismo tiempo, se intenta con el siguiente.
+     *
+     * @param turnoId   El identificador único del turno.
+     * @param fechaHora Fecha y hora de inicio del turno.
+     * @throws IllegalArgumentException Si en alguna franja no queda ningún box libre.
+     */
+    public void reservar(Long turnoId, Date fechaHora) {
+        for (LocalDateTime franja : franjasOcupadas(fechaHora)) {
+            if (!reservarBoxLibre(franja, turnoId)) {
+                throw new IllegalArgumentException("No hay boxes disponibles para el horario: " + franja);
+            }
+        }
+    }
+
+    /**
+     * Libera todos los boxes reservados por un turno.
+     *
+     * @param turnoId El identificador único del turno.
+     */
+    public void liberar(Long turnoId) {
+        reservaSlotRepository.deleteByTurnoId(turnoId);
+    }
+
+    /**
+     * Libera los boxes reservados por varios turnos con una única sentencia.
+     *
+     * @param turnoIds Identificadores de los turnos.
+     */
+    public void liberarTodos(Collection<Long> turnoIds) {
+        reservaSlotRepository.deleteByTurnoIdIn(turnoIds);
+    }
+
+    /**
+     * Libera los boxes reservados por todos los turnos de un cliente con una única sentencia.
+     *
+     * @param clienteId ID del cliente.
+     */
+    public void liberarCliente(Long clienteId) {
+        reservaSlotRepository.deleteByClienteId(clienteId);
+    }
+
+    private boolean reservarBoxLibre(LocalDateTime franja, Long turnoId) {
+        Set<Integer> ocupados = new HashSet<>(reservaSlotRepository.findBoxesOcupados(franja));
+        for (int box = 1; box <= boxes; box++) {
+            if (!ocupados.contains(box) && reservaSlotRepository.insertarSiLibre(franja, box, turnoId) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<LocalDateTime> franjasOcupadas(Date fechaHora) {
+        LocalDateTime inicio = LocalDateTime.ofInstant(fechaHora.toInstant(), ZoneId.of(zonaHoraria)).truncatedTo(ChronoUnit.MINUTES);
+        return franjas(inicio, duracionMinutos);
+    }
+
+    /**
+     * Obtiene las franjas que toca un turno: la franja en la que comienza y, si no empieza
+     * justo al inicio de una franja, también la siguiente. Las franjas se cuentan desde la medianoche.
+     * La agenda en memoria usa el mismo criterio, para que ambas rechacen los mismos horarios.
+     *
+     * @param inicio          Fecha y hora de inicio del turno, sin segundos.
+     * @param duracionMinutos Duración de un turno, que también es el tamaño de las franjas.
+     * @return Inicio de cada franja ocupada.
+     */
+    static List<LocalDateTime> franjas(LocalDateTime inicio, int duracionMinutos) {
+        int minutoDelDia = inicio.getHour() * 60 + inicio.getMinute();
+        LocalDateTime franja = inicio.minusMinutes(minutoDelDia % duracionMinutos);
+        return franja.equals(inicio) ? List.of(franja) : List.of(franja, franja.plusMinutes(duracionMinutos));
+    }
+}
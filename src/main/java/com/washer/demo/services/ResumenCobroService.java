@@ -0,0 +1,133 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.ResumenCobros;
+import com.washer.demo.dto.ResumenDiario;
+import com.washer.demo.entities.Cobro;
+import com.washer.demo.repositories.ResumenDiarioCobroRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Servicio que mantiene los resúmenes diarios de recaudación por tipo de servicio.
+ * Cada alta, modificación o baja de un cobro aplica un incremento sobre el resumen
+ * correspondiente dentro de la misma transacción, por lo que el reporte siempre refleja
+ * los cobros confirmados sin tener que recorrerlos.
+ */
+@Service
+@Transactional
+public class ResumenCobroService {
+
+    // Tipo de servicio con el que se agrupan los cobros que no tienen un turno asociado.
+    public static final String SIN_TIPO = "sin especificar";
+
+    @Autowired
+    private ResumenDiarioCobroRepository resumenRepository;
+
+    /**
+     * Suma un cobro al resumen de su día y tipo de servicio.
+     *
+     * @param cobro El cobro registrado.
+     */
+    public void sumar(Cobro cobro) {
+        acumular(cobro.getFecha(), tipoServicio(cobro), cobro.getMonto(), 1);
+    }
+
+    /**
+     * Resta un cobro del resumen de su día y tipo de servicio.
+     *
+     * @param cobro El cobro eliminado, con los valores que tenía al sumarse.
+     */
+    public void restar(Cobro cobro) {
+        acumular(cobro.getFecha(), tipoServicio(cobro), cobro.getMonto(), -1);
+    }
+
+    /**
+     * Resta de los resúmenes todos los cobros vigentes de un cliente, sin cargarlos.
+     * Debe llamarse antes de eliminar los cobros.
+     *
+     * @param clienteId ID del cliente.
+     */
+    public void restarCliente(Long clienteId) {
+        resumenRepository.restarCliente(clienteId, SIN_TIPO);
+    }
+
+    /**
+     * Mueve un cobro de un resumen a otro cuando cambian su fecha, su monto o el tipo de servicio
+     * de su turno. No hace nada si los valores que determinan el resumen no cambiaron.
+     *
+     * @param fechaAnterior        Fecha que tenía el cobro.
+     * @param tipoServicioAnterior Tipo de servicio que tenía el cobro.
+     * @param montoAnterior        Monto que tenía el cobro.
+     * @param cobro                El cobro con los valores nuevos.
+     */
+    public void mover(Date fechaAnterior, String tipoServicioAnterior, Double montoAnterior, Cobro cobro) {
+        if (Objects.equals(fechaAnterior, cobro.getFecha())
+                && Objects.equals(tipoServicioAnterior, tipoServicio(cobro))
+                && Objects.equals(montoAnterior, cobro.getMonto())) {
+            return;
+        }
+        acumular(fechaAnterior, tipoServicioAnterior, montoAnterior, -1);
+        sumar(cobro);
+    }
+
+    /**
+     * Obtiene la recaudación de un rango de días a partir de los resúmenes.
+     *
+     * @param desde Primer día (inclusive).
+     * @param hasta Último día (inclusive).
+     * @return Totales del período y detalle por día y tipo de servicio.
+     * @throws IllegalArgumentException Si el rango es inválido.
+     */
+    @Transactional(readOnly = true)
+    public ResumenCobros consultar(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("Rango de fechas inválido: " + desde + " - " + hasta);
+        }
+        List<ResumenDiario> detalle = resumenRepository.findResumen(desde, hasta);
+        double total = 0;
+        long cantidad = 0;
+        for (ResumenDiario dia : detalle) {
+            total += dia.getTotal();
+            cantidad += dia.getCantidad();
+        }
+        return new ResumenCobros(desde, hasta, total, cantidad, detalle);
+    }
+
+    /**
+     * Recalcula todos los resúmenes a partir de los cobros registrados. Se usa para la carga
+     * inicial o para corregir diferencias si los cobros se modificaron por fuera de la aplicación.
+     *
+     * @return Cantidad de resúmenes generados.
+     */
+    public int reconstruir() {
+        resumenRepository.vaciar();
+        return resumenRepository.reconstruir(SIN_TIPO);
+    }
+
+    /**
+     * Obtiene el tipo de servicio con el que se agrupa un cobro.
+     *
+     * @param cobro El cobro.
+     * @return El tipo de servicio de su turno, o {@link #SIN_TIPO} si no tiene turno.
+     */
+    public String tipoServicio(Cobro cobro) {
+        if (cobro.getTurno() == null || cobro.getTurno().getTipoServicio() == null) {
+            return SIN_TIPO;
+        }
+        return cobro.getTurno().getTipoServicio();
+    }
+
+    private void acumular(Date fecha, String tipoServicio, Double monto, long cantidad) {
+        // Los cobros sin fecha o sin monto no forman parte de ningún resumen
+        if (fecha == null || monto == null) {
+            return;
+        }
+        resumenRepository.acumular(fecha, tipoServicio, monto * cantidad, cantidad);
+    }
+}
@@ -0,0 +1,195 @@
+package com.washer.demo.services;
+
+import com.washer.demo.entities.TokenRevocado;
+import com.washer.demo.repositories.TokenRevocadoRepository;
+import com.washer.demo.util.FiltroBloom;
+import com.washer.demo.util.JwtUtil;
+import com.washer.demo.util.TokensVerificados;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Servicio que mantiene el conjunto de tokens JWT revocados antes de su vencimiento.
+ *
+ * Las revocaciones se guardan en la base de datos para sobrevivir a reinicios, pero la consulta
+ * que se hace en cada solicitud se resuelve en memoria: primero un filtro de Bloom, que descarta
+ * sin más trabajo a casi todos los tokens no revocados, y luego el conjunto exacto de identificadores.
+ * Los identificadores se agrupan por la hora en que vence su token, de modo que la limpieza
+ * periódica descarta grupos completos sin recorrer el conjunto.
+ */
+@Service
+public class RevocacionService {
+
+    // Duración de cada grupo de vencimiento, en milisegundos.
+    private static final long DURACION_GRUPO_MS = TimeUnit.HOURS.toMillis(1);
+
+    // Cantidad de revocaciones vigentes para la que se dimensiona el filtro de Bloom.
+    @Value("${jwt.revocacion.capacidad-esperada:500000}")
+    private long capacidadEsperada;
+
+    // Tasa de falsos positivos del filtro de Bloom.
+    @Value("${jwt.revocacion.tasa-falsos-positivos:0.01}")
+    private double tasaFalsosPositivos;
+
+    // Duración de los tokens, usada como vencimiento cuando se revoca solo por identificador.
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    @Autowired
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokensVerificados tokensVerificados;
+
+    private final Set<UUID> revocados = ConcurrentHashMap.newKeySet();
+    private final NavigableMap<Long, Set<UUID>> porVencimiento = new ConcurrentSkipListMap<>();
+    // Las revocaciones comparten el lock de lectura; la reconstrucción del filtro toma el de escritura.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile FiltroBloom filtro;
+
+    /**
+     * Carga en memoria las revocaciones vigentes guardadas en la base de datos.
+     */
+    @PostConstruct
+    void inicializar() {
+        filtro = new FiltroBloom(capacidadEsperada, tasaFalsosPositivos);
+        transactionTemplate.executeWithoutResult(estado -> {
+            try (Stream<TokenRevocado> vigentes = tokenRevocadoRepository.streamByExpiracionAfter(new Date())) {
+                vigentes.forEach(token -> agregar(UUID.fromString(token.getJti()), token.getExpiracion().getTime()));
+            }
+        });
+    }
+
+    /**
+     * Indica si un token fue revocado. No accede a la base de datos.
+     *
+     * @param jti Identificador del token.
+     * @return true si el token fue revocado o si no tiene un identificador válido.
+     */
+    public boolean estaRevocado(String jti) {
+        UUID id = aUuid(jti);
+        if (id == null) {
+            return true; // Todos los tokens emitidos tienen identificador; uno sin él no se acepta
+        }
+        return filtro.puedeContener(id) && revocados.contains(id);
+    }
+
+    /**
+     * Revoca un token recibido completo (por ejemplo, el de la sesión que se cierra).
+     * Si el token ya venció no hay nada que revocar.
+     *
+     * @param token Token JWT a revocar.
+     * @return Identificador del token revocado, o null si el token ya había vencido.
+     * @throws IllegalArgumentException Si el token está mal formado o su firma no es válida.
+     */
+    public String revocarToken(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.verificarToken(token);
+        } catch (ExpiredJwtException e) {
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token inválido.");
+        }
+        revocar(claims.getId(), claims.getExpiration());
+        tokensVerificados.invalidar(token);
+        return claims.getId();
+    }
+
+    /**
+     * Revoca un token hasta su vencimiento, guardando la revocación en la base de datos.
+     *
+     * @param jti        Identificador del token.
+     * @param expiracion Fecha de vencimiento del token; si es null se asume la duración máxima de un token.
+     * @throws IllegalArgumentException Si el identificador no es válido.
+     */
+    public void revocar(String jti, Date expiracion) {
+        UUID id = aUuid(jti);
+        if (id == null) {
+            throw new IllegalArgumentException("Identificador de token inválido: " + jti);
+        }
+        Date vence = expiracion != null ? expiracion : new Date(System.currentTimeMillis() + jwtExpirationMs);
+        if (!vence.after(new Date())) {
+            return; // El token ya venció y no puede usarse
+        }
+        // Se aplica en memoria antes de guardar, para que el token deje de aceptarse de inmediato
+        agregar(id, vence.getTime());
+        transactionTemplate.executeWithoutResult(estado -> {
+            if (!tokenRevocadoRepository.existsById(id.toString())) {
+                tokenRevocadoRepository.save(new TokenRevocado(id.toString(), vence));
+            }
+        });
+    }
+
+    /**
+     * Descarta periódicamente las revocaciones de tokens ya vencidos, en memoria y en la base de datos,
+     * y reconstruye el filtro de Bloom para que no acumule identificadores descartados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocacion.limpieza-ms:600000}")
+    public void limpiar() {
+        long ahora = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            Map<Long, Set<UUID>> vencidos = porVencimiento.headMap(ahora / DURACION_GRUPO_MS);
+            vencidos.values().forEach(revocados::removeAll);
+            vencidos.clear();
+            FiltroBloom nuevo = new FiltroBloom(Math.max(capacidadEsperada, revocados.size()), tasaFalsosPositivos);
+            revocados.forEach(nuevo::agregar);
+            filtro = nuevo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        transactionTemplate.executeWithoutResult(estado -> tokenRevocadoRepository.deleteVencidos(new Date(ahora)));
+    }
+
+    /**
+     * Agrega un identificador al conjunto, a su grupo de vencimiento y al filtro de Bloom.
+     * El grupo de la hora en curso se descarta recién cuando termina, por lo que un token nunca
+     * deja de figurar como revocado antes de vencer.
+     */
+    private void agregar(UUID id, long venceEn) {
+        lock.readLock().lock();
+        try {
+            porVencimiento.computeIfAbsent(venceEn / DURACION_GRUPO_MS, grupo -> ConcurrentHashMap.newKeySet()).add(id);
+            revocados.add(id);
+            filtro.agregar(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private UUID aUuid(String jti) {
+        if (jti == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
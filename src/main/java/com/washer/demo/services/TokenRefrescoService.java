@@ -0,0 +1,171 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.TokensSesion;
+import com.washer.demo.entities.TokenRefresco;
+import com.washer.demo.repositories.TokenRefrescoRepository;
+import com.washer.demo.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Servicio que emite y rota los tokens de refresco.
+ *
+ * El login (con verificación de contraseña) se realiza una vez por sesión; a partir de ahí el
+ * cliente obtiene nuevos tokens de acceso presentando su token de refresco, cuya validación solo
+ * requiere una búsqueda por clave y un hash SHA-256 comparado en tiempo constante.
+ *
+ * Cada token de refresco se puede usar una sola vez. Si un token ya usado se vuelve a presentar,
+ * se asume que fue robado: se elimina toda su familia y se revocan sus tokens de acceso, de modo
+ * que tanto el atacante como el cliente legítimo deben volver a iniciar sesión.
+ */
+@Service
+@Transactional
+public class TokenRefrescoService {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    // Duración de una sesión (familia de tokens de refresco) en milisegundos.
+    @Value("${jwt.refresh.duracion-ms:86400000}")
+    private long duracionSesionMs;
+
+    @Autowired
+    private TokenRefrescoRepository tokenRefrescoRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private RevocacionService revocacionService;
+
+    /**
+     * Inicia una sesión para un usuario ya autenticado, emitiendo un token de acceso y el primer
+     * token de refresco de una familia nueva.
+     *
+     * @param usuario Nombre del usuario autenticado.
+     * @return Tokens de la sesión.
+     */
+    public TokensSesion iniciarSesion(String usuario) {
+        Date expiracion = new Date(System.currentTimeMillis() + duracionSesionMs);
+        return emitir(usuario, UUID.randomUUID().toString(), expiracion);
+    }
+
+    /**
+     * Consume un token de refresco y emite un nuevo par de tokens en la misma familia.
+     * Ante una reutilización la transacción no se revierte, para que la eliminación de la familia
+     * persista aunque la solicitud termine con error.
+     *
+     * @param refreshToken Token de refresco presentado por el cliente.
+     * @return Nuevos tokens de la sesión.
+     * @throws IllegalArgumentException Si el token no es válido, venció o ya había sido usado.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public TokensSesion refrescar(String refreshToken) {
+        int separador = refreshToken == null ? -1 : refreshToken.indexOf('.');
+        if (separador <= 0) {
+            throw new IllegalArgumentException("Refresh token inválido.");
+        }
+        String selector = refreshToken.substring(0, separador);
+        String verificador = refreshToken.substring(separador + 1);
+
+        TokenRefresco token = tokenRefrescoRepository.findById(selector)
+                .orElseThrow(() -> new IllegalArgumentException("Refresh token inválido."));
+        if (!MessageDigest.isEqual(Base64.getDecoder().decode(token.getHashVerificador()), hash(verificador))) {
+            throw new IllegalArgumentException("Refresh token inválido.");
+        }
+        if (!token.getExpiracion().after(new Date())) {
+            throw new IllegalArgumentException("Refresh token vencido.");
+        }
+        if (token.isUsado() || tokenRefrescoRepository.marcarUsado(selector) == 0) {
+            revocarFamilia(token.getFamilia());
+            throw new IllegalArgumentException("Refresh token reutilizado; la sesión fue revocada.");
+        }
+        try {
+            UserDetails usuario = userDetailsService.loadUserByUsername(token.getUsuario());
+            if (!usuario.isEnabled() || !usuario.isAccountNonLocked()) {
+                throw new IllegalArgumentException("Usuario deshabilitado.");
+            }
+        } catch (UsernameNotFoundException e) {
+            throw new IllegalArgumentException("Usuario inexistente.");
+        }
+        return emitir(token.getUsuario(), token.getFamilia(), token.getExpiracion());
+    }
+
+    /**
+     * Cierra la sesión a la que pertenece un token de acceso, eliminando su familia de tokens de refresco.
+     *
+     * @param jtiAcceso Identificador del token de acceso.
+     */
+    public void cerrarSesion(String jtiAcceso) {
+        tokenRefrescoRepository.findByJtiAcceso(jtiAcceso)
+                .ifPresent(token -> tokenRefrescoRepository.deleteByFamilia(token.getFamilia()));
+    }
+
+    /**
+     * Elimina periódicamente los tokens de las sesiones ya vencidas.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.limpieza-ms:3600000}")
+    public void limpiar() {
+        tokenRefrescoRepository.deleteVencidos(new Date());
+    }
+
+    /**
+     * Elimina una familia y revoca los tokens de acceso emitidos con ella que todavía pueden estar vigentes.
+     */
+    private void revocarFamilia(String familia) {
+        for (TokenRefresco token : tokenRefrescoRepository.findByFamilia(familia)) {
+            if (token.getJtiAcceso() != null) {
+                revocacionService.revocar(token.getJtiAcceso(), null);
+            }
+        }
+        tokenRefrescoRepository.deleteByFamilia(familia);
+    }
+
+    private TokensSesion emitir(String usuario, String familia, Date expiracion) {
+        String jti = UUID.randomUUID().toString();
+        String accessToken = jwtUtil.generateToken(usuario, jti);
+
+        String selector = aleatorio(16);
+        String verificador = aleatorio(32);
+        tokenRefrescoRepository.save(TokenRefresco.builder()
+                .selector(selector)
+                .hashVerificador(Base64.getEncoder().encodeToString(hash(verificador)))
+                .familia(familia)
+                .usuario(usuario)
+                .jtiAcceso(jti)
+                .expiracion(expiracion)
+                .build());
+        return new TokensSesion(accessToken, selector + "." + verificador);
+    }
+
+    private static String aleatorio(int bytes) {
+        byte[] valor = new byte[bytes];
+        ALEATORIO.nextBytes(valor);
+        return BASE64_URL.encodeToString(valor);
+    }
+
+    private static byte[] hash(String valor) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(valor.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
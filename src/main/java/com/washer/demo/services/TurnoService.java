@@ -1,14 +1,51 @@
 package com.washer.demo.services;
 
+import com.washer.demo.dto.FranjaDisponible;
+import com.washer.demo.dto.PaginaCursor;
+import com.washer.demo.dto.ResultadoLote;
+import com.washer.demo.dto.ResultadoTransicion;
+import com.washer.demo.dto.TurnoResumen;
 import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.TurnoArchivado;
 import com.washer.demo.entities.Vehiculo;
+import com.washer.demo.repositories.CobroRepository;
+import com.washer.demo.repositories.TurnoArchivadoRepository;
+import com.washer.demo.repositories.TurnoEspecificaciones;
 import com.washer.demo.repositories.TurnoRepository;
 import com.washer.demo.repositories.VehiculoRepository;
+import com.washer.demo.util.CacheRespuestas;
+import com.washer.demo.util.Etags;
+import com.washer.demo.util.ExportadorNdjson;
+import com.washer.demo.util.Paginacion;
+import com.washer.demo.util.PresupuestoConsultas;
+import com.washer.demo.util.PresupuestoConsultasAspect;
+import com.washer.demo.util.ReintentoTransaccional;
+import com.washer.demo.util.ValidadorLote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio para gestionar las operaciones relacionadas con la entidad Turno.
@@ -19,43 +56,253 @@ import java.util.List;
 @Transactional
 public class TurnoService {
 
+    private static final Logger log = LoggerFactory.getLogger(TurnoService.class);
+
+    private static final String ESTADO_PROGRAMADO = "programado";
+
+    private static final String ESTADO_CANCELADO = "cancelado";
+
+    // Estados a los que puede pasar un turno programado en los cambios de estado masivos.
+    private static final Set<String> ESTADOS_FINALES = Set.of("completado", ESTADO_CANCELADO);
+
+    // Sentencias SQL por bloque de los cambios de estado masivos: consulta de IDs, actualización y liberación de boxes.
+    private static final int PRESUPUESTO_BLOQUE = 3;
+
+    // Zona horaria en la que se interpretan las fechas de las búsquedas.
+    @Value("${lavadero.zona-horaria:UTC}")
+    private String zonaHoraria;
+
+    // Minutos desde el horario de un turno programado a partir de los cuales se lo cancela por inasistencia.
+    @Value("${turnos.inasistencia.tolerancia-minutos:60}")
+    private int toleranciaInasistenciaMinutos;
+
+    // Cantidad de turnos que se actualizan por transacción en los cambios de estado por rango de fechas.
+    @Value("${turnos.transicion.tamanio-bloque:200}")
+    private int tamanioBloque;
+
     @Autowired
     private TurnoRepository turnoRepository;
 
+    @Autowired
+    private TurnoArchivadoRepository turnoArchivadoRepository;
+
     @Autowired
     private VehiculoRepository vehiculoRepository;
 
+    @Autowired
+    private Paginacion paginacion;
+
+    @Autowired
+    private ExportadorNdjson exportadorNdjson;
+
+    @Autowired
+    private ValidadorLote validadorLote;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private ReservaSlotService reservaSlotService;
+
+    @Autowired
+    private ReintentoTransaccional reintentoTransaccional;
+
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
+    @Autowired
+    private PresupuestoConsultasAspect presupuestoConsultas;
+
+    @Autowired
+    private CobroRepository cobroRepository;
+
+    @Autowired
+    private ResumenCobroService resumenCobroService;
+
     /**
      * Guarda un nuevo turno en la base de datos, asociándolo a un vehículo existente.
      *
+     * La reserva del box se hace en una transacción propia que se reintenta si la base de datos
+     * la aborta por un conflicto de bloqueos con otra reserva simultánea.
+     *
      * @param turno El objeto Turno a guardar.
      * @return El turno guardado con su ID asignado automáticamente.
+     * @throws IllegalArgumentException Si el vehículo no existe o no hay boxes disponibles en el horario solicitado.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @PresupuestoConsultas(6)
     public Turno saveTurno(Turno turno) {
-        Vehiculo vehiculo = validarVehiculoExistente(turno.getVehiculo().getId());
-        turno.setVehiculo(vehiculo);
-        return turnoRepository.save(turno);
+        return reintentoTransaccional.ejecutar(() -> {
+            turno.setId(null); // Un intento anterior pudo haberle asignado un ID
+            Vehiculo vehiculo = validarVehiculoExistente(turno.getVehiculo().getId());
+            turno.setVehiculo(vehiculo);
+            Turno guardado = turnoRepository.save(turno);
+            sincronizarAgenda(guardado, true);
+            return guardado;
+        });
+    }
+
+    /**
+     * Guarda un lote de turnos en una única transacción.
+     * Los vehículos referenciados se resuelven con una sola consulta en lugar de una por turno,
+     * y los turnos válidos se insertan en lote. Los turnos que no entran en la agenda se rechazan
+     * individualmente sin afectar al resto.
+     *
+     * @param turnos Lista de turnos a guardar, cada uno con el ID de su vehículo.
+     * @return Resultado de cada turno, en el mismo orden en que fueron recibidos.
+     * @throws IllegalArgumentException Si el lote está vacío o supera el tamaño máximo permitido.
+     */
+    @PresupuestoConsultas(value = 4, porElemento = 2.1)
+    public List<ResultadoLote> saveTurnos(List<Turno> turnos) {
+        validadorLote.validarTamanio(turnos);
+        Set<Long> vehiculoIds = turnos.stream()
+                .filter(turno -> turno != null && turno.getVehiculo() != null)
+                .map(turno -> turno.getVehiculo().getId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Vehiculo> vehiculos = vehiculoRepository.findAllById(vehiculoIds).stream()
+                .collect(Collectors.toMap(Vehiculo::getId, Function.identity()));
+
+        ResultadoLote[] resultados = new ResultadoLote[turnos.size()];
+
+        for (int i = 0; i < turnos.size(); i++) {
+            Turno turno = turnos.get(i);
+            List<String> errores = validadorLote.validar(turno);
+            if (errores.isEmpty()) {
+                Long vehiculoId = turno.getVehiculo() != null ? turno.getVehiculo().getId() : null;
+                if (!vehiculos.containsKey(vehiculoId)) {
+                    errores = List.of("Vehículo no encontrado con ID: " + vehiculoId);
+                }
+            }
+            if (!errores.isEmpty()) {
+                resultados[i] = ResultadoLote.rechazado(i, errores);
+                continue;
+            }
+            turno.setId(null); // El lote solo crea turnos nuevos
+            turno.setVehiculo(vehiculos.get(turno.getVehiculo().getId()));
+            Turno guardado = turnoRepository.save(turno); // El INSERT se envía en lote al confirmar
+            try {
+                sincronizarAgenda(guardado, true);
+            } catch (IllegalArgumentException e) {
+                turnoRepository.delete(guardado); // Aún no se insertó, por lo que se descarta sin ir a la base
+                resultados[i] = ResultadoLote.rechazado(i, List.of(e.getMessage()));
+                continue;
+            }
+            resultados[i] = ResultadoLote.creado(i, guardado.getId());
+        }
+        return List.of(resultados);
     }
 
     /**
-     * Recupera un turno por su ID.
+     * Recupera un turno por su ID. Si ya no está en la tabla de turnos, se busca en el archivo.
      *
      * @param id El identificador único del turno a buscar.
      * @return El turno encontrado.
      * @throws IllegalArgumentException Si no existe un turno con el ID proporcionado.
      */
+    @PresupuestoConsultas(2)
     public Turno getTurno(Long id) {
         return turnoRepository.findById(id)
+                .or(() -> turnoArchivadoRepository.findById(id).map(this::desarchivar))
                 .orElseThrow(() -> new IllegalArgumentException("Turno no encontrado con ID: " + id));
     }
 
     /**
-     * Obtiene una lista de todos los turnos registrados en la base de datos.
+     * Obtiene la versión de un turno sin cargarlo, para responder a las solicitudes condicionales.
+     *
+     * @param id El identificador único del turno.
+     * @return La versión del turno, o null si no está en la tabla de turnos.
+     */
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public Long getVersionTurno(Long id) {
+        return turnoRepository.findVersionById(id).orElse(null);
+    }
+
+    /**
+     * Consulta la disponibilidad de boxes para un día a partir de la agenda en memoria.
+     *
+     * @param fecha Día a consultar.
+     * @return Franjas del día con la cantidad de boxes libres.
+     */
+    @PresupuestoConsultas(0)
+    public List<FranjaDisponible> getDisponibilidad(LocalDate fecha) {
+        return disponibilidadService.consultarDisponibilidad(fecha);
+    }
+
+    /**
+     * Obtiene una página de los turnos registrados, usando paginación por cursor.
+     * Devuelve la vista resumida de cada turno, con la matrícula de su vehículo, leída en una sola consulta.
+     *
+     * @param cursor Cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limite Cantidad de elementos solicitada; se acota al máximo configurado.
+     * @return Página de turnos con el cursor para continuar.
+     */
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public PaginaCursor<TurnoResumen> getAllTurnos(String cursor, Integer limite) {
+        int tamanio = paginacion.resolverLimite(limite);
+        List<TurnoResumen> filas = turnoRepository.findResumenes(
+                paginacion.decodificarCursor(cursor), Limit.of(tamanio + 1));
+        return paginacion.construirPagina(filas, tamanio, TurnoResumen::getId);
+    }
+
+    /**
+     * Busca turnos combinando filtros opcionales y devuelve una página de su vista resumida,
+     * ordenada por fecha y paginada por cursor. Solo se incluyen turnos con fecha asignada.
      *
-     * @return Lista de turnos existentes.
+     * @param desde        Fecha y hora desde la que buscar (inclusive), o null.
+     * @param hasta        Fecha y hora hasta la que buscar (exclusive), o null.
+     * @param estado       Estado de los turnos, o null.
+     * @param tipoServicio Tipo de servicio de los turnos, o null.
+     * @param vehiculoId   ID del vehículo de los turnos, o null.
+     * @param clienteId    ID del cliente dueño de los vehículos, o null.
+     * @param cursor       Cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limite       Cantidad de elementos solicitada; se acota al máximo configurado.
+     * @return Página de turnos con el cursor para continuar.
+     * @throws IllegalArgumentException Si el rango de fechas está invertido o el cursor no es válido.
      */
-    public List<Turno> getAllTurnos() {
-        return turnoRepository.findAll();
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public PaginaCursor<TurnoResumen> buscarTurnos(LocalDateTime desde, LocalDateTime hasta, String estado,
+                                                   String tipoServicio, Long vehiculoId, Long clienteId,
+                                                   String cursor, Integer limite) {
+        if (desde != null && hasta != null && !desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("La fecha desde debe ser anterior a la fecha hasta.");
+        }
+        int tamanio = paginacion.resolverLimite(limite);
+        long[] posicion = paginacion.decodificarCursorCompuesto(cursor);
+
+        Specification<Turno> filtro = Specification.allOf(
+                TurnoEspecificaciones.conFecha(),
+                TurnoEspecificaciones.desde(aFecha(desde)),
+                TurnoEspecificaciones.hasta(aFecha(hasta)),
+                TurnoEspecificaciones.conEstado(estado),
+                TurnoEspecificaciones.conTipoServicio(tipoServicio),
+                TurnoEspecificaciones.deVehiculo(vehiculoId),
+                TurnoEspecificaciones.deCliente(clienteId));
+        List<TurnoResumen> filas = turnoRepository.buscarResumenes(filtro,
+                posicion != null ? new Date(posicion[0]) : null,
+                posicion != null ? posicion[1] : null,
+                tamanio + 1);
+        return paginacion.construirPagina(filas, tamanio, turno -> turno.getFechaHora().getTime(), TurnoResumen::getId);
+    }
+
+    /**
+     * Exporta todos los turnos en formato NDJSON escribiéndolos directamente en la salida.
+     * Se lee la tabla mediante un stream de solo lectura, por lo que la memoria utilizada
+     * no depende de la cantidad de turnos.
+     *
+     * @param salida Flujo de salida donde se escriben los turnos, uno por línea.
+     * @return Cantidad de turnos exportados.
+     * @throws IOException si ocurre un error al escribir en la salida.
+     */
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public long exportarTurnos(OutputStream salida) throws IOException {
+        try (Stream<Turno> turnos = turnoRepository.streamAllByOrderByIdAsc()) {
+            return exportadorNdjson.exportar(turnos, salida);
+        }
     }
 
     /**
@@ -64,10 +311,14 @@ public class TurnoService {
      * @param id El identificador único del turno a eliminar.
      * @throws IllegalArgumentException Si no existe un turno con el ID proporcionado.
      */
+    @PresupuestoConsultas(5)
     public void deleteTurno(Long id) {
         Turno turno = turnoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Turno no encontrado con ID: " + id));
         turnoRepository.delete(turno);
+        disponibilidadService.liberar(id);
+        reservaSlotService.liberar(id);
+        cacheRespuestas.invalidar(CacheRespuestas.TURNOS, id);
     }
 
     /**
@@ -75,27 +326,95 @@ public class TurnoService {
      *
      * @param id El identificador único del turno.
      * @param estado El nuevo estado para el turno.
+     * @param versionEsperada Versión indicada por el cliente en If-Match, o null para no verificarla.
      * @return El turno actualizado.
-     * @throws IllegalArgumentException Si no existe un turno con el ID proporcionado.
+     * @throws IllegalArgumentException Si no existe un turno con el ID proporcionado o si al volver
+     *                                  a programarlo no hay boxes disponibles.
+     * @throws OptimisticLockingFailureException Si el turno fue modificado después de la versión indicada.
      */
-    public Turno updateEstadoTurno(Long id, String estado) {
+    @PresupuestoConsultas(5)
+    public Turno updateEstadoTurno(Long id, String estado, Long versionEsperada) {
         Turno turno = turnoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Turno no encontrado con ID: " + id));
+        Etags.validarVersion("turno", id, turno.getVersion(), versionEsperada);
         turno.setEstado(estado);
+        sincronizarAgenda(turno, false);
+        cacheRespuestas.invalidar(CacheRespuestas.TURNOS, id);
         return turnoRepository.save(turno);
     }
 
+    /**
+     * Pasa varios turnos programados a completado o cancelado con una única sentencia UPDATE,
+     * sin cargarlos. Los turnos que no están programados se ignoran. Los boxes de los turnos
+     * actualizados se liberan en la agenda y en la base de datos.
+     *
+     * @param ids    Identificadores de los turnos.
+     * @param estado Nuevo estado: completado o cancelado.
+     * @return Cantidad de turnos que cambiaron de estado.
+     * @throws IllegalArgumentException Si el estado no es válido, o si la lista está vacía o supera el tamaño máximo de lote.
+     */
+    @PresupuestoConsultas(2)
+    public ResultadoTransicion transicionarTurnos(List<Long> ids, String estado) {
+        validarEstadoFinal(estado);
+        validadorLote.validarTamanio(ids);
+        return new ResultadoTransicion(transicionar(ids, estado));
+    }
+
+    /**
+     * Pasa los turnos programados de un rango de fechas a completado o cancelado, por ejemplo para
+     * cerrar el día. Se procesan en bloques, cada uno en su propia transacción, para no mantener
+     * bloqueadas muchas filas de la tabla de turnos a la vez.
+     *
+     * @param desde  Comienzo del rango (inclusive).
+     * @param hasta  Fin del rango (exclusive).
+     * @param estado Nuevo estado: completado o cancelado.
+     * @return Cantidad de turnos que cambiaron de estado.
+     * @throws IllegalArgumentException Si el estado no es válido o el rango de fechas no está completo o está invertido.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoTransicion transicionarTurnosEntre(LocalDateTime desde, LocalDateTime hasta, String estado) {
+        validarEstadoFinal(estado);
+        if (desde == null || hasta == null || !desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("Se debe indicar un rango de fechas con desde anterior a hasta.");
+        }
+        Date inicio = aFecha(desde);
+        Date fin = aFecha(hasta);
+        return new ResultadoTransicion(transicionarEnBloques(bloque -> turnoRepository.findIdsProgramados(inicio, fin, bloque), estado));
+    }
+
+    /**
+     * Cancela periódicamente los turnos que siguen programados después de pasada la tolerancia
+     * de inasistencia. Trabaja en bloques con transacciones cortas, y como solo actualiza turnos
+     * que siguen programados, puede ejecutarse en varias instancias a la vez sin efectos duplicados.
+     */
+    @Scheduled(fixedDelayString = "${turnos.inasistencia.intervalo-ms:300000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cancelarInasistencias() {
+        Date limite = new Date(System.currentTimeMillis() - toleranciaInasistenciaMinutos * 60_000L);
+        int cancelados = transicionarEnBloques(
+                bloque -> turnoRepository.findIdsProgramados(new Date(0), limite, bloque), ESTADO_CANCELADO);
+        if (cancelados > 0) {
+            log.info("Se cancelaron {} turnos por inasistencia", cancelados);
+        }
+    }
+
     /**
      * Actualiza la información de un turno existente.
      *
      * @param id El identificador único del turno a actualizar.
      * @param turno Los nuevos datos para actualizar el turno.
+     * @param versionEsperada Versión indicada por el cliente en If-Match, o null para no verificarla.
      * @return El turno actualizado.
-     * @throws IllegalArgumentException Si no existe un turno con el ID proporcionado o si el vehículo asociado no existe.
+     * @throws IllegalArgumentException Si no existe un turno con el ID proporcionado, si el vehículo asociado no existe
+     *                                  o si no hay boxes disponibles en el nuevo horario.
+     * @throws OptimisticLockingFailureException Si el turno fue modificado después de la versión indicada.
      */
-    public Turno updateTurno(Long id, Turno turno) {
+    @PresupuestoConsultas(8)
+    public Turno updateTurno(Long id, Turno turno, Long versionEsperada) {
         Turno existingTurno = turnoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Turno no encontrado con ID: " + id));
+        Etags.validarVersion("turno", id, existingTurno.getVersion(), versionEsperada);
+        String tipoServicioAnterior = existingTurno.getTipoServicio();
 
         if (turno.getFechaHora() != null) {
             existingTurno.setFechaHora(turno.getFechaHora());
@@ -111,7 +430,121 @@ public class TurnoService {
             existingTurno.setVehiculo(vehiculo);
         }
 
-        return turnoRepository.save(existingTurno);
+        sincronizarAgenda(existingTurno, false);
+        Turno guardado = turnoRepository.save(existingTurno);
+        cacheRespuestas.invalidar(CacheRespuestas.TURNOS, id);
+
+        // Si el turno ya fue cobrado, su cobro pasa al resumen del nuevo tipo de servicio
+        if (!Objects.equals(tipoServicioAnterior, guardado.getTipoServicio())) {
+            cobroRepository.findByTurnoId(id).ifPresent(cobro -> resumenCobroService.mover(
+                    cobro.getFecha(), tipoServicioAnterior, cobro.getMonto(), cobro));
+        }
+        return guardado;
+    }
+
+    /**
+     * Refleja el turno en la agenda de disponibilidad: los turnos programados ocupan un box
+     * en su horario y el resto (completados o cancelados) lo liberan.
+     * Primero se consulta la agenda en memoria, que descarta los horarios completos (verificándolos antes con
+     * las reservas de la base, por si otra instancia liberó boxes), y luego se reserva el box en la base de
+     * datos, que es la que garantiza que no haya sobreturnos ante solicitudes concurrentes.
+     * Solo se accede a la base si el horario cambió.
+     *
+     * @param turno El turno guardado, con su ID asignado.
+     * @param nuevo true si el turno se acaba de crear y por lo tanto no tiene reservas previas.
+     * @throws IllegalArgumentException Si el turno está programado y no hay boxes disponibles en su horario.
+     */
+    private void sincronizarAgenda(Turno turno, boolean nuevo) {
+        Long id = turno.getId();
+        if (!ESTADO_PROGRAMADO.equals(turno.getEstado()) || turno.getFechaHora() == null) {
+            if (disponibilidadService.liberar(id)) {
+                reservaSlotService.liberar(id);
+            }
+            return;
+        }
+        if (!disponibilidadService.reservar(id, turno.getFechaHora())) {
+            return; // Ya estaba reservado en el mismo horario
+        }
+        try {
+            if (!nuevo) {
+                reservaSlotService.liberar(id);
+            }
+            reservaSlotService.reservar(id, turno.getFechaHora());
+        } catch (IllegalArgumentException e) {
+            // Otra instancia tomó el último box: se deshace la reserva en memoria y las parciales en la base
+            disponibilidadService.liberar(id);
+            reservaSlotService.liberar(id);
+            throw e;
+        }
+    }
+
+    /**
+     * Aplica el cambio de estado a bloques sucesivos de turnos programados, cada uno en su propia
+     * transacción, hasta que no queden turnos pendientes. Como los turnos actualizados dejan de estar
+     * programados, cada consulta devuelve el bloque siguiente.
+     * El fin se decide por la cantidad de IDs leídos y no por la de filas actualizadas: si otra instancia
+     * cambió parte del bloque entre la consulta y la actualización, se actualizan menos filas pero
+     * todavía puede haber turnos pendientes.
+     * La cantidad total de sentencias depende de los turnos pendientes, por lo que el presupuesto de
+     * consultas se controla por bloque, en cada intento, dentro de su transacción (las actualizaciones
+     * masivas no dejan cambios pendientes que se envíen al confirmarla).
+     *
+     * @param pendientes Consulta que obtiene hasta el límite indicado de IDs de turnos programados.
+     * @param estado     Nuevo estado.
+     * @return Cantidad total de turnos que cambiaron de estado.
+     */
+    private int transicionarEnBloques(Function<Limit, List<Long>> pendientes, String estado) {
+        int total = 0;
+        Bloque bloque;
+        do {
+            bloque = reintentoTransaccional.ejecutar(() -> presupuestoConsultas.controlar(
+                    "TurnoService.transicionarEnBloques", PRESUPUESTO_BLOQUE, () -> {
+                        List<Long> ids = pendientes.apply(Limit.of(tamanioBloque));
+                        return new Bloque(ids.size(), ids.isEmpty() ? 0 : transicionar(ids, estado));
+                    }));
+            total += bloque.actualizados();
+        } while (bloque.leidos() == tamanioBloque);
+        return total;
+    }
+
+    /**
+     * Resultado de un bloque de transiciones: IDs leídos y turnos que efectivamente cambiaron de estado.
+     */
+    private record Bloque(int leidos, int actualizados) {
+    }
+
+    /**
+     * Cambia el estado de los turnos que siguen programados y libera sus boxes. Los turnos que no
+     * estaban programados no tienen reservas, por lo que liberarlos no tiene efecto.
+     */
+    private int transicionar(List<Long> ids, String estado) {
+        int actualizados = turnoRepository.transicionarProgramados(ids, estado);
+        ids.forEach(disponibilidadService::liberar);
+        reservaSlotService.liberarTodos(ids);
+        cacheRespuestas.invalidar(CacheRespuestas.TURNOS, ids);
+        return actualizados;
+    }
+
+    /**
+     * Arma un turno a partir de su copia archivada, solo para devolverlo en la respuesta.
+     */
+    private Turno desarchivar(TurnoArchivado archivado) {
+        return Turno.builder()
+                .id(archivado.getId())
+                .fechaHora(archivado.getFechaHora())
+                .estado(archivado.getEstado())
+                .tipoServicio(archivado.getTipoServicio())
+                .build();
+    }
+
+    private void validarEstadoFinal(String estado) {
+        if (!ESTADOS_FINALES.contains(estado)) {
+            throw new IllegalArgumentException("Un turno programado solo puede pasar a completado o cancelado.");
+        }
+    }
+
+    private Date aFecha(LocalDateTime momento) {
+        return momento == null ? null : Date.from(momento.atZone(ZoneId.of(zonaHoraria)).toInstant());
     }
 
     /**
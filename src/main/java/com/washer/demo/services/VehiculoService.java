@@ -1,14 +1,38 @@
 package com.washer.demo.services;
 
+import com.washer.demo.dto.CoincidenciaMatricula;
+import com.washer.demo.dto.ItemLoteVehiculo;
+import com.washer.demo.dto.PaginaCursor;
+import com.washer.demo.dto.ResultadoLote;
 import com.washer.demo.entities.Cliente;
+import com.washer.demo.entities.Turno;
 import com.washer.demo.entities.Vehiculo;
 import com.washer.demo.repositories.ClienteRepository;
 import com.washer.demo.repositories.VehiculoRepository;
+import com.washer.demo.util.CacheRespuestas;
+import com.washer.demo.util.Etags;
+import com.washer.demo.util.Paginacion;
+import com.washer.demo.util.PresupuestoConsultas;
+import com.washer.demo.util.ValidadorLote;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para gestionar las operaciones relacionadas con la entidad Vehiculo.
@@ -21,6 +45,8 @@ public class VehiculoService {
 
     private static final String VEHICULO_NO_ENCONTRADO = "Vehículo no encontrado con ID: ";
     private static final String CLIENTE_NO_ENCONTRADO = "Cliente no encontrado con ID: ";
+    private static final String MATRICULA_DUPLICADA = "Ya existe un vehículo con la matrícula: ";
+    private static final String ESTADO_PROGRAMADO = "programado";
 
     @Autowired
     private VehiculoRepository vehiculoRepository;
@@ -28,17 +54,102 @@ public class VehiculoService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private Paginacion paginacion;
+
+    @Autowired
+    private ValidadorLote validadorLote;
+
+    @Autowired
+    private BusquedaMatriculaService busquedaMatriculaService;
+
+    @Autowired
+    private CacheRespuestas cacheRespuestas;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private ReservaSlotService reservaSlotService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Guarda un nuevo vehículo en la base de datos, asociándolo a un cliente existente.
      *
      * @param vehiculo El objeto Vehiculo a guardar.
      * @param clienteId El identificador único del cliente asociado al vehículo.
      * @return El vehículo guardado con su ID asignado automáticamente.
+     * @throws IllegalArgumentException Si el cliente no existe o si la matrícula ya está registrada.
      */
+    @PresupuestoConsultas(4)
     public Vehiculo saveVehiculo(Vehiculo vehiculo, Long clienteId) {
         Cliente cliente = validarClienteExistente(clienteId);
+        validarMatriculaDisponible(vehiculo.getMatricula());
         vehiculo.setCliente(cliente);
-        return vehiculoRepository.save(vehiculo);
+        Vehiculo guardado = vehiculoRepository.save(vehiculo);
+        busquedaMatriculaService.actualizar(guardado.getId(), null, guardado.getMatricula());
+        return guardado;
+    }
+
+    /**
+     * Guarda un lote de vehículos, cada uno asociado a su cliente, en una única transacción.
+     * Los clientes referenciados se obtienen con una sola consulta y los vehículos válidos
+     * se insertan en lote; los elementos inválidos o con cliente inexistente se informan con sus errores.
+     *
+     * @param items Elementos con los datos del vehículo y el ID del cliente asociado.
+     * @return Resultado de cada elemento, en el mismo orden en que fueron recibidos.
+     * @throws IllegalArgumentException Si el lote está vacío o supera el tamaño máximo permitido.
+     */
+    @PresupuestoConsultas(value = 4, porElemento = 0.05)
+    public List<ResultadoLote> saveVehiculos(List<ItemLoteVehiculo> items) {
+        validadorLote.validarTamanio(items);
+        Set<Long> clienteIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(ItemLoteVehiculo::getClienteId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(clienteIds).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        // Matrículas ya registradas, consultadas en una sola sentencia para todo el lote
+        Set<String> matriculasUsadas = new HashSet<>(vehiculoRepository.findMatriculasRegistradas(items.stream()
+                .filter(item -> item != null && item.getVehiculo() != null && item.getVehiculo().getMatricula() != null)
+                .map(item -> item.getVehiculo().getMatricula())
+                .collect(Collectors.toSet())));
+
+        ResultadoLote[] resultados = new ResultadoLote[items.size()];
+        List<Integer> indicesValidos = new ArrayList<>();
+        List<Vehiculo> validos = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            ItemLoteVehiculo item = items.get(i);
+            List<String> errores = validadorLote.validar(item);
+            if (errores.isEmpty() && !clientes.containsKey(item.getClienteId())) {
+                errores = List.of(CLIENTE_NO_ENCONTRADO + item.getClienteId());
+            }
+            // También rechaza matrículas repetidas dentro del mismo lote
+            if (errores.isEmpty() && !matriculasUsadas.add(item.getVehiculo().getMatricula())) {
+                errores = List.of(MATRICULA_DUPLICADA + item.getVehiculo().getMatricula());
+            }
+            if (!errores.isEmpty()) {
+                resultados[i] = ResultadoLote.rechazado(i, errores);
+                continue;
+            }
+            Vehiculo vehiculo = item.getVehiculo();
+            vehiculo.setId(null); // El lote solo crea vehículos nuevos
+            vehiculo.setCliente(clientes.get(item.getClienteId()));
+            indicesValidos.add(i);
+            validos.add(vehiculo);
+        }
+
+        List<Vehiculo> guardados = vehiculoRepository.saveAll(validos);
+        for (int i = 0; i < guardados.size(); i++) {
+            int indice = indicesValidos.get(i);
+            resultados[indice] = ResultadoLote.creado(indice, guardados.get(i).getId());
+            busquedaMatriculaService.actualizar(guardados.get(i).getId(), null, guardados.get(i).getMatricula());
+        }
+        return List.of(resultados);
     }
 
     /**
@@ -48,28 +159,92 @@ public class VehiculoService {
      * @return El vehículo encontrado.
      * @throws IllegalArgumentException Si no existe un vehículo con el ID proporcionado.
      */
+    @PresupuestoConsultas(1)
     public Vehiculo getVehiculo(Long id) {
         return validarVehiculoExistente(id);
     }
 
     /**
-     * Obtiene una lista de todos los vehículos registrados en la base de datos.
+     * Obtiene la versión de un vehículo para responder a las solicitudes condicionales. Los vehículos se guardan
+     * en la caché de segundo nivel, por lo que en general la versión se obtiene sin consultar la base de datos.
      *
-     * @return Lista de vehículos existentes.
+     * @param id El identificador único del vehículo.
+     * @return La versión del vehículo, o null si no existe.
      */
-    public List<Vehiculo> getAllVehiculos() {
-        return vehiculoRepository.findAll();
+    @Transactional(readOnly = true)
+    @PresupuestoConsultas(1)
+    public Long getVersionVehiculo(Long id) {
+        return vehiculoRepository.findById(id).map(Vehiculo::getVersion).orElse(null);
     }
 
     /**
-     * Elimina un vehículo por su ID.
+     * Recupera un vehículo por su matrícula. La resolución de matrícula a ID se obtiene de la caché
+     * de identificadores naturales cuando está disponible.
+     *
+     * @param matricula Matrícula del vehículo; se ignoran mayúsculas y espacios en los extremos.
+     * @return El vehículo encontrado.
+     * @throws IllegalArgumentException Si la matrícula no es válida o no existe un vehículo con ella.
+     */
+    @PresupuestoConsultas(2)
+    public Vehiculo getVehiculoPorMatricula(String matricula) {
+        String normalizada = busquedaMatriculaService.normalizar(matricula);
+        return buscarPorMatricula(normalizada)
+                .orElseThrow(() -> new IllegalArgumentException("Vehículo no encontrado con matrícula: " + normalizada));
+    }
+
+    /**
+     * Busca vehículos cuya matrícula comienza con el texto indicado, usando el índice en memoria.
+     *
+     * @param prefijo Comienzo de la matrícula.
+     * @param limite  Cantidad de resultados solicitada; se acota al máximo configurado.
+     * @return Matrículas encontradas, en orden alfabético, con el ID de su vehículo.
+     * @throws IllegalArgumentException Si el prefijo no tiene el formato de una matrícula.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @PresupuestoConsultas(0)
+    public List<CoincidenciaMatricula> buscarPorPrefijo(String prefijo, Integer limite) {
+        return busquedaMatriculaService.buscarPorPrefijo(prefijo, paginacion.resolverLimite(limite));
+    }
+
+    /**
+     * Obtiene una página de los vehículos registrados, usando paginación por cursor.
+     *
+     * @param cursor Cursor opaco devuelto en la página anterior, o null para la primera página.
+     * @param limite Cantidad de elementos solicitada; se acota al máximo configurado.
+     * @return Página de vehículos con el cursor para continuar.
+     */
+    @PresupuestoConsultas(1)
+    public PaginaCursor<Vehiculo> getAllVehiculos(String cursor, Integer limite) {
+        int tamanio = paginacion.resolverLimite(limite);
+        List<Vehiculo> filas = vehiculoRepository.findByIdGreaterThanOrderByIdAsc(
+                paginacion.decodificarCursor(cursor), Limit.of(tamanio + 1));
+        return paginacion.construirPagina(filas, tamanio, Vehiculo::getId);
+    }
+
+    /**
+     * Elimina un vehículo por su ID junto con sus turnos. Los turnos programados liberan sus boxes
+     * en la agenda y en la base de datos, igual que al eliminar un cliente.
      *
      * @param id El identificador único del vehículo a eliminar.
      * @throws IllegalArgumentException Si no existe un vehículo con el ID proporcionado.
      */
+    @PresupuestoConsultas(6)
     public void deleteVehiculo(Long id) {
         Vehiculo vehiculo = validarVehiculoExistente(id);
+        // Los turnos se cargan de todos modos para eliminarlos en cascada
+        List<Long> turnoIds = vehiculo.getTurnos().stream().map(Turno::getId).toList();
+        List<Long> programados = vehiculo.getTurnos().stream()
+                .filter(turno -> ESTADO_PROGRAMADO.equals(turno.getEstado()))
+                .map(Turno::getId)
+                .toList();
+        if (!programados.isEmpty()) {
+            programados.forEach(disponibilidadService::liberar);
+            reservaSlotService.liberarTodos(programados);
+        }
         vehiculoRepository.delete(vehiculo);
+        busquedaMatriculaService.actualizar(id, vehiculo.getMatricula(), null);
+        cacheRespuestas.invalidar(CacheRespuestas.VEHICULOS, id);
+        cacheRespuestas.invalidar(CacheRespuestas.TURNOS, turnoIds);
     }
 
     /**
@@ -77,16 +252,22 @@ public class VehiculoService {
      *
      * @param id El identificador único del vehículo a actualizar.
      * @param vehiculo Objeto Vehiculo con los datos actualizados.
+     * @param versionEsperada Versión indicada por el cliente en If-Match, o null para no verificarla.
      * @return El vehículo actualizado.
      * @throws IllegalArgumentException Si no existe un vehículo con el ID proporcionado o si el cliente asociado no existe.
+     * @throws OptimisticLockingFailureException Si el vehículo fue modificado después de la versión indicada.
      */
-    public Vehiculo updateVehiculo(Long id, Vehiculo vehiculo) {
+    @PresupuestoConsultas(4)
+    public Vehiculo updateVehiculo(Long id, Vehiculo vehiculo, Long versionEsperada) {
         Vehiculo existingVehiculo = validarVehiculoExistente(id);
+        Etags.validarVersion("vehículo", id, existingVehiculo.getVersion(), versionEsperada);
+        String matriculaAnterior = existingVehiculo.getMatricula();
 
         if (vehiculo.getModelo() != null) {
             existingVehiculo.setModelo(vehiculo.getModelo());
         }
-        if (vehiculo.getMatricula() != null) {
+        if (vehiculo.getMatricula() != null && !vehiculo.getMatricula().equals(matriculaAnterior)) {
+            validarMatriculaDisponible(vehiculo.getMatricula());
             existingVehiculo.setMatricula(vehiculo.getMatricula());
         }
         if (vehiculo.getTipo() != null) {
@@ -97,7 +278,10 @@ public class VehiculoService {
             existingVehiculo.setCliente(cliente);
         }
 
-        return vehiculoRepository.save(existingVehiculo);
+        Vehiculo guardado = vehiculoRepository.save(existingVehiculo);
+        busquedaMatriculaService.actualizar(id, matriculaAnterior, guardado.getMatricula());
+        cacheRespuestas.invalidar(CacheRespuestas.VEHICULOS, id);
+        return guardado;
     }
 
     /**
@@ -112,6 +296,28 @@ public class VehiculoService {
                 .orElseThrow(() -> new IllegalArgumentException(CLIENTE_NO_ENCONTRADO + clienteId));
     }
 
+    /**
+     * Valida que una matrícula no pertenezca a otro vehículo.
+     *
+     * @param matricula La matrícula a validar.
+     * @throws IllegalArgumentException Si la matrícula ya está registrada.
+     */
+    private void validarMatriculaDisponible(String matricula) {
+        if (matricula != null && buscarPorMatricula(matricula).isPresent()) {
+            throw new IllegalArgumentException(MATRICULA_DUPLICADA + matricula);
+        }
+    }
+
+    /**
+     * Busca un vehículo por su matrícula, que es su identificador natural.
+     *
+     * @param matricula La matrícula normalizada.
+     * @return El vehículo, si existe.
+     */
+    private Optional<Vehiculo> buscarPorMatricula(String matricula) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Vehiculo.class).loadOptional(matricula);
+    }
+
     /**
      * Valida la existencia de un vehículo por su ID.
      *
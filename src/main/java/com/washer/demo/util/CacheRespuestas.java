@@ -0,0 +1,275 @@
+package com.washer.demo.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.washer.demo.dto.EstadisticaCacheRespuestas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caché de las respuestas ya serializadas a JSON de las consultas por ID más solicitadas (vehículos y turnos),
+ * junto con su ETag. Una consulta resuelta desde la caché no lee la base de datos ni vuelve a ejecutar Jackson.
+ *
+ * Si varias solicitudes buscan a la vez un mismo recurso que no está en la caché, solo la primera lo carga
+ * y las demás esperan y reciben su resultado, incluida la excepción si el recurso no existe.
+ *
+ * Los servicios invalidan las entradas de los recursos que modifican o eliminan al confirmarse la transacción.
+ * Una carga que estaba en curso al invalidarse el recurso entrega su resultado a quienes la esperaban pero no
+ * lo guarda, porque puede haber leído los datos anteriores al cambio. Los cambios hechos por otras instancias
+ * no invalidan esta caché, por lo que la vida máxima de las entradas acota el tiempo durante el cual una
+ * instancia puede devolver una versión anterior.
+ */
+@Component
+public class CacheRespuestas {
+
+    // Recursos cuyas respuestas se guardan en la caché.
+    public static final String VEHICULOS = "vehiculos";
+    public static final String TURNOS = "turnos";
+
+    // Cantidad máxima de respuestas que se mantienen en memoria, entre todos los recursos.
+    @Value("${cache.respuestas.tamanio-maximo:10000}")
+    private long tamanioMaximo;
+
+    // Tiempo máximo, en segundos, que una respuesta permanece en la caché.
+    @Value("${cache.respuestas.vida-maxima-segundos:60}")
+    private long vidaMaximaSegundos;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectWriter writer;
+
+    private Cache<Clave, RespuestaSerializada> cache;
+
+    // Cargas en curso por recurso, para que las solicitudes simultáneas esperen la misma carga.
+    private final Map<Clave, CompletableFuture<RespuestaSerializada>> cargas = new ConcurrentHashMap<>();
+
+    // Contadores de cada recurso; se registran al iniciar y luego solo se leen.
+    private final Map<String, Contadores> contadores = new LinkedHashMap<>();
+
+    /**
+     * Respuesta de un recurso serializada a JSON, con el ETag de la versión serializada.
+     */
+    public record RespuestaSerializada(byte[] cuerpo, String etag) {
+    }
+
+    private record Clave(String recurso, Long id) {
+    }
+
+    private record Contadores(Counter aciertos, Counter fallos, Counter coalescidas) {
+    }
+
+    /**
+     * Constructor que reutiliza el {@link ObjectMapper} configurado por Spring, para que las respuestas
+     * guardadas sean iguales a las que se serializan en cada solicitud.
+     *
+     * @param objectMapper mapper de Jackson de la aplicación.
+     */
+    public CacheRespuestas(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Construye la caché y registra los contadores de cada recurso.
+     */
+    @PostConstruct
+    void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(Duration.ofSeconds(vidaMaximaSegundos))
+                .build();
+        for (String recurso : List.of(VEHICULOS, TURNOS)) {
+            contadores.put(recurso, new Contadores(contador(recurso, "acierto"), contador(recurso, "fallo"),
+                    contador(recurso, "coalescida")));
+        }
+    }
+
+    /**
+     * Obtiene la respuesta de un recurso desde la caché, sin cargarlo si no está.
+     *
+     * @param recurso Recurso consultado ({@link #VEHICULOS} o {@link #TURNOS}).
+     * @param id      ID del recurso.
+     * @return La respuesta guardada, o null si el recurso no está en la caché.
+     */
+    public RespuestaSerializada buscar(String recurso, Long id) {
+        RespuestaSerializada respuesta = cache.getIfPresent(new Clave(recurso, id));
+        if (respuesta != null) {
+            contadores.get(recurso).aciertos().increment();
+        }
+        return respuesta;
+    }
+
+    /**
+     * Obtiene la respuesta de un recurso desde la caché o, si no está, la carga, la serializa y la guarda.
+     * Si otra solicitud ya está cargando el mismo recurso, espera esa carga en lugar de iniciar otra.
+     *
+     * @param <T>      Tipo de la entidad.
+     * @param recurso  Recurso consultado ({@link #VEHICULOS} o {@link #TURNOS}).
+     * @param id       ID del recurso.
+     * @param cargador Carga la entidad desde el servicio.
+     * @param version  Obtiene la versión de la entidad cargada, para su ETag.
+     * @return La respuesta serializada con su ETag.
+     */
+    public <T> RespuestaSerializada obtener(String recurso, Long id, Supplier<T> cargador, Function<T, Long> version) {
+        Contadores contadoresRecurso = contadores.get(recurso);
+        Clave clave = new Clave(recurso, id);
+        RespuestaSerializada respuesta = cache.getIfPresent(clave);
+        if (respuesta != null) {
+            contadoresRecurso.aciertos().increment();
+            return respuesta;
+        }
+        CompletableFuture<RespuestaSerializada> carga = new CompletableFuture<>();
+        CompletableFuture<RespuestaSerializada> enCurso = cargas.putIfAbsent(clave, carga);
+        if (enCurso != null) {
+            contadoresRecurso.coalescidas().increment();
+            return esperar(enCurso);
+        }
+        // Otra carga pudo terminar entre la primera búsqueda y el registro de esta
+        respuesta = cache.getIfPresent(clave);
+        if (respuesta != null) {
+            cargas.remove(clave, carga);
+            carga.complete(respuesta);
+            contadoresRecurso.aciertos().increment();
+            return respuesta;
+        }
+        contadoresRecurso.fallos().increment();
+        try {
+            T entidad = cargador.get();
+            respuesta = new RespuestaSerializada(writer.writeValueAsBytes(entidad), Etags.deVersion(version.apply(entidad)));
+        } catch (JsonProcessingException e) {
+            cargas.remove(clave, carga);
+            IllegalStateException error = new IllegalStateException("No se pudo serializar el recurso " + recurso + " con ID " + id, e);
+            carga.completeExceptionally(error);
+            throw error;
+        } catch (RuntimeException e) {
+            cargas.remove(clave, carga);
+            carga.completeExceptionally(e);
+            throw e;
+        }
+        RespuestaSerializada cargada = respuesta;
+        // Se guarda solo si la carga sigue registrada, es decir, si el recurso no se invalidó mientras se cargaba
+        cargas.computeIfPresent(clave, (k, actual) -> {
+            if (actual != carga) {
+                return actual;
+            }
+            cache.put(k, cargada);
+            return null;
+        });
+        carga.complete(cargada);
+        return cargada;
+    }
+
+    /**
+     * Invalida la respuesta de un recurso al confirmarse la transacción en curso, o de inmediato si no hay una.
+     *
+     * @param recurso Recurso modificado o eliminado.
+     * @param id      ID del recurso.
+     */
+    public void invalidar(String recurso, Long id) {
+        Clave clave = new Clave(recurso, id);
+        alConfirmar(() -> {
+            cargas.remove(clave);
+            cache.invalidate(clave);
+        });
+    }
+
+    /**
+     * Invalida las respuestas de varios recursos del mismo tipo al confirmarse la transacción en curso.
+     *
+     * @param recurso Recurso modificado o eliminado.
+     * @param ids     IDs de los recursos.
+     */
+    public void invalidar(String recurso, Collection<Long> ids) {
+        List<Clave> claves = ids.stream().map(id -> new Clave(recurso, id)).toList();
+        alConfirmar(() -> {
+            claves.forEach(cargas::remove);
+            cache.invalidateAll(claves);
+        });
+    }
+
+    /**
+     * Invalida todas las respuestas de un tipo de recurso al confirmarse la transacción en curso, para los
+     * cambios masivos en los que no se conocen los IDs afectados.
+     *
+     * @param recurso Recurso modificado o eliminado.
+     */
+    public void invalidarTodos(String recurso) {
+        alConfirmar(() -> {
+            cargas.keySet().removeIf(clave -> clave.recurso().equals(recurso));
+            cache.asMap().keySet().removeIf(clave -> clave.recurso().equals(recurso));
+        });
+    }
+
+    /**
+     * Obtiene los contadores de cada recurso, acumulados desde el inicio de la aplicación.
+     *
+     * @return Lista con las estadísticas de cada recurso.
+     */
+    public List<EstadisticaCacheRespuestas> getEstadisticas() {
+        List<EstadisticaCacheRespuestas> estadisticas = new ArrayList<>();
+        contadores.forEach((recurso, contadoresRecurso) -> {
+            long entradas = cache.asMap().keySet().stream().filter(clave -> clave.recurso().equals(recurso)).count();
+            long aciertos = (long) contadoresRecurso.aciertos().count();
+            long fallos = (long) contadoresRecurso.fallos().count();
+            long coalescidas = (long) contadoresRecurso.coalescidas().count();
+            long total = aciertos + fallos + coalescidas;
+            estadisticas.add(new EstadisticaCacheRespuestas(recurso, entradas, aciertos, fallos, coalescidas,
+                    total == 0 ? 0 : (double) aciertos / total));
+        });
+        return estadisticas;
+    }
+
+    private RespuestaSerializada esperar(CompletableFuture<RespuestaSerializada> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            // La carga falló: quien esperaba recibe la misma excepción que quien cargaba
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private Counter contador(String recurso, String resultado) {
+        return Counter.builder("cache.respuestas")
+                .description("Consultas por ID resueltas desde la caché de respuestas, cargadas o que esperaron otra carga")
+                .tag("recurso", recurso)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private void alConfirmar(Runnable cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cambio.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cambio.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.washer.demo.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual.
+ * Se registra como {@link StatementInspector}, por lo que ve todas las sentencias (consultas,
+ * inserciones, actualizaciones y consultas nativas) sin modificarlas. El conteo se lleva por hilo
+ * y se reinicia al comenzar cada solicitud.
+ */
+@Component
+public class ContadorConsultas implements StatementInspector {
+
+    // Contador del hilo actual; un arreglo evita crear un objeto nuevo en cada incremento.
+    private final ThreadLocal<int[]> contador = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Cuenta la sentencia y la devuelve sin cambios.
+     *
+     * @param sql Sentencia SQL a preparar.
+     * @return La misma sentencia.
+     */
+    @Override
+    public String inspect(String sql) {
+        contador.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Pone en cero el conteo del hilo actual.
+     */
+    public void reiniciar() {
+        contador.get()[0] = 0;
+    }
+
+    /**
+     * Obtiene la cantidad de sentencias preparadas en el hilo actual desde el último reinicio.
+     *
+     * @return Cantidad de sentencias.
+     */
+    public int cantidad() {
+        return contador.get()[0];
+    }
+}
@@ -0,0 +1,124 @@
+package com.washer.demo.util;
+
+import com.washer.demo.dto.PaginaCursor;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+
+/**
+ * Utilidad para las solicitudes condicionales con ETag.
+ * El ETag de un recurso es su número de versión, por lo que se puede comparar con el enviado por el cliente
+ * sin cargar ni serializar la entidad. El de una página de un listado se calcula a partir del contenido
+ * de la página, que incluye la versión de cada elemento.
+ */
+public final class Etags {
+
+    private Etags() {
+    }
+
+    /**
+     * Obtiene el ETag fuerte de un recurso a partir de su versión.
+     *
+     * @param version Versión de la entidad; puede ser nula si el recurso no tiene versión (por ejemplo, si está archivado).
+     * @return ETag entre comillas, o null si no hay versión.
+     */
+    public static String deVersion(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Obtiene el ETag débil de una página de un listado, que funciona como versión de la colección:
+     * cambia si se agrega, elimina o modifica alguno de los elementos de la página, o si cambia el cursor
+     * de la siguiente página.
+     *
+     * @param pagina Página del listado.
+     * @return ETag débil entre comillas.
+     */
+    public static String deLista(PaginaCursor<?> pagina) {
+        return deLista(pagina.getContenido(), pagina.getSiguienteCursor());
+    }
+
+    /**
+     * Obtiene el ETag débil de una lista de elementos. El valor combina en 64 bits el hashCode de cada elemento,
+     * que en las entidades incluye la versión, de modo que la modificación de un elemento siempre cambia el ETag.
+     *
+     * @param elementos Elementos de la lista, en el orden en que se devuelven.
+     * @param extra     Dato adicional de la respuesta que también forma parte del ETag; puede ser nulo.
+     * @return ETag débil entre comillas.
+     */
+    public static String deLista(List<?> elementos, Object extra) {
+        long hash = elementos.size();
+        for (Object elemento : elementos) {
+            hash = 31 * hash + (elemento == null ? 0 : elemento.hashCode());
+        }
+        hash = 31 * hash + (extra == null ? 0 : extra.hashCode());
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Indica si el encabezado If-None-Match enviado por el cliente incluye el ETag indicado.
+     * Para esta comparación se ignora si los ETag son débiles o fuertes.
+     *
+     * @param ifNoneMatch Valor del encabezado; puede ser nulo.
+     * @param etag        ETag actual del recurso; puede ser nulo.
+     * @return true si el cliente ya tiene la representación actual.
+     */
+    public static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String buscado = sinDebil(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || sinDebil(valor).equals(buscado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene la versión esperada a partir del encabezado If-Match de una modificación.
+     * Como la comparación de If-Match es fuerte, un ETag débil o que no corresponde a una versión nunca coincide.
+     *
+     * @param ifMatch Valor del encabezado; puede ser nulo.
+     * @return Versión esperada; null si no se envió el encabezado o si es "*" (cualquier versión); -1 si no corresponde
+     *         a ninguna versión.
+     */
+    public static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Verifica, dentro de la transacción que modifica la entidad, que la versión cargada sea la que el cliente
+     * indicó en If-Match. Si otra transacción confirma un cambio después de esta verificación, Hibernate lo detecta
+     * al actualizar la fila, porque la sentencia UPDATE también compara la versión.
+     *
+     * @param recurso  Nombre del recurso, para el mensaje de error.
+     * @param id       ID de la entidad.
+     * @param actual   Versión cargada de la base de datos.
+     * @param esperada Versión indicada por el cliente, o null si no se envió If-Match.
+     * @throws OptimisticLockingFailureException Si las versiones no coinciden.
+     */
+    public static void validarVersion(String recurso, Long id, Long actual, Long esperada) {
+        if (esperada != null && !esperada.equals(actual)) {
+            throw new OptimisticLockingFailureException(
+                    "El " + recurso + " con ID " + id + " fue modificado; la versión actual es " + actual + ".");
+        }
+    }
+
+    private static String sinDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,68 @@
+package com.washer.demo.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Utilidad para exportar entidades en formato NDJSON (un objeto JSON por línea).
+ * Recorre un {@link Stream} de JPA de solo avance y escribe cada fila directamente en la salida,
+ * desvinculándola del contexto de persistencia para que la memoria se mantenga constante
+ * sin importar la cantidad de filas exportadas.
+ */
+@Component
+public class ExportadorNdjson {
+
+    // Cada cuántas filas se vacía el buffer de salida y se limpia el contexto de persistencia.
+    private static final int FILAS_POR_BLOQUE = 1000;
+
+    private static final byte SEPARADOR = '\n';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectWriter writer;
+
+    /**
+     * Constructor que reutiliza el {@link ObjectMapper} configurado por Spring.
+     *
+     * @param objectMapper mapper de Jackson de la aplicación.
+     */
+    public ExportadorNdjson(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Escribe todas las filas del stream en la salida, una por línea.
+     * Debe invocarse dentro de una transacción para que el stream permanezca abierto.
+     *
+     * @param <T>    Tipo de entidad exportada.
+     * @param filas  Stream de entidades leído desde el repositorio.
+     * @param salida Flujo de salida de la respuesta HTTP.
+     * @return Cantidad de filas escritas.
+     * @throws IOException si ocurre un error al escribir en la salida.
+     */
+    public <T> long exportar(Stream<T> filas, OutputStream salida) throws IOException {
+        long total = 0;
+        Iterator<T> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            T fila = iterador.next();
+            salida.write(writer.writeValueAsBytes(fila));
+            salida.write(SEPARADOR);
+            entityManager.detach(fila); // La fila ya fue escrita, no hace falta mantenerla administrada
+            if (++total % FILAS_POR_BLOQUE == 0) {
+                salida.flush();
+                entityManager.clear(); // Libera también las asociaciones cargadas junto con las filas
+            }
+        }
+        salida.flush();
+        return total;
+    }
+}
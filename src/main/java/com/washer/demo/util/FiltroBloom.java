@@ -0,0 +1,80 @@
+package com.washer.demo.util;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de identificadores UUID, seguro para uso concurrente.
+ * Responde si un identificador "puede estar" en el conjunto: nunca da falsos negativos y la tasa
+ * de falsos positivos se mantiene cerca de la indicada mientras no se supere la capacidad esperada.
+ * No admite eliminaciones; para descartar elementos se construye un filtro nuevo.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long cantidadBits;
+    private final int cantidadHashes;
+
+    /**
+     * Crea un filtro dimensionado para una cantidad de elementos y una tasa de falsos positivos.
+     *
+     * @param capacidad             Cantidad de elementos esperada.
+     * @param tasaFalsosPositivos   Proporción de falsos positivos aceptable (entre 0 y 1).
+     */
+    public FiltroBloom(long capacidad, double tasaFalsosPositivos) {
+        long n = Math.max(capacidad, 1);
+        long m = (long) Math.ceil(-n * Math.log(tasaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        this.cantidadBits = Math.max(64, (m + 63) / 64 * 64);
+        this.cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (cantidadBits / 64));
+    }
+
+    /**
+     * Agrega un identificador al filtro.
+     *
+     * @param id Identificador a agregar.
+     */
+    public void agregar(UUID id) {
+        long h1 = mezclar(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mezclar(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, cantidadBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+            } while ((actual & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    /**
+     * Indica si un identificador puede haber sido agregado al filtro.
+     *
+     * @param id Identificador a consultar.
+     * @return false si seguro no fue agregado; true si pudo haber sido agregado.
+     */
+    public boolean puedeContener(UUID id) {
+        long h1 = mezclar(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mezclar(id.getLeastSignificantBits()) | 1;
+        for (int i = 0; i < cantidadHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, cantidadBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dispersa los bits de un valor (finalizador de MurmurHash3).
+     */
+    private static long mezclar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
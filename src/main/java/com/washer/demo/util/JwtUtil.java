@@ -1,15 +1,19 @@
 package com.washer.demo.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -29,6 +33,19 @@ public class JwtUtil {
 
     private Key signingKey;
 
+    // Parser inmutable y seguro para uso concurrente, construido una única vez con la clave de firma.
+    private JwtParser parser;
+
+    /**
+     * Inicializa la clave de firma y el parser que se reutiliza en todas las validaciones.
+     */
+    @PostConstruct
+    void inicializar() {
+        parser = Jwts.parserBuilder()
+                .setSigningKey(getSigningKey()) // Establece la clave para la firma
+                .build();
+    }
+
     /**
      * Genera un token JWT con un usuario específico como sujeto.
      *
@@ -36,14 +53,37 @@ public class JwtUtil {
      * @return Token JWT generado.
      */
     public String generateToken(String username) {
+        return generateToken(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Genera un token JWT con un usuario específico como sujeto y un identificador dado.
+     *
+     * @param username Nombre del usuario para el cual se generará el token.
+     * @param jti      Identificador único del token, que permite revocarlo.
+     * @return Token JWT generado.
+     */
+    public String generateToken(String username, String jti) {
         return Jwts.builder()
                 .setSubject(username) // Asigna el usuario como sujeto del token
+                .setId(jti) // Identificador único, permite revocar el token
                 .setIssuedAt(new Date()) // Establece la fecha de emisión
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs)) // Define la expiración
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256) // Firma el token con la clave y algoritmo
                 .compact();
     }
 
+    /**
+     * Verifica la firma y la vigencia de un token JWT analizándolo una sola vez.
+     *
+     * @param token Token JWT a verificar.
+     * @return Claims del token, incluyendo el usuario (sujeto) y la fecha de expiración.
+     * @throws JwtException si el token está mal formado, su firma no es válida o está expirado.
+     */
+    public Claims verificarToken(String token) {
+        return extractAllClaims(token);
+    }
+
     /**
      * Valida un token JWT comparándolo con el nombre de usuario esperado.
      *
@@ -106,10 +146,8 @@ public class JwtUtil {
      * @return Objeto Claims con todos los datos del token.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey()) // Establece la clave para la firma
-                .build()
-                .parseClaimsJws(token) // Analiza el token JWT
+        return parser
+                .parseClaimsJws(token) // Analiza el token JWT y verifica su firma y expiración
                 .getBody();
     }
 
@@ -0,0 +1,56 @@
+package com.washer.demo.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra cuántas sentencias SQL ejecuta cada solicitud, en la métrica {@code hibernate.consultas.solicitud}
+ * etiquetada con el método HTTP y el patrón del endpoint (por ejemplo {@code /api/turnos/{id}}).
+ * Las métricas de cada endpoint se crean una única vez y se reutilizan en las solicitudes siguientes.
+ */
+@Component
+public class MetricasConsultasInterceptor implements HandlerInterceptor {
+
+    // Límites de los intervalos del histograma, en cantidad de sentencias por solicitud.
+    private static final double[] LIMITES = {1, 2, 5, 10, 20, 50, 100};
+
+    @Autowired
+    private ContadorConsultas contadorConsultas;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, DistributionSummary> metricas = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        contadorConsultas.reiniciar();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (patron == null) {
+            return;
+        }
+        String uri = patron.toString();
+        String metodo = request.getMethod();
+        metricas.computeIfAbsent(metodo + " " + uri, clave -> DistributionSummary.builder("hibernate.consultas.solicitud")
+                        .description("Sentencias SQL ejecutadas por solicitud")
+                        .tag("method", metodo)
+                        .tag("uri", uri)
+                        .serviceLevelObjectives(LIMITES)
+                        .register(meterRegistry))
+                .record(contadorConsultas.cantidad());
+    }
+}
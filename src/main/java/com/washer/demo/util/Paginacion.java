@@ -0,0 +1,150 @@
+package com.washer.demo.util;
+
+import com.washer.demo.dto.PaginaCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilidad para la paginación por cursor (keyset) sobre la clave primaria.
+ * Codifica y decodifica cursores opacos y aplica el tamaño de página máximo configurado,
+ * de forma que el costo de cada consulta sea constante sin importar el tamaño de la tabla.
+ */
+@Component
+public class Paginacion {
+
+    private static final String SEPARADOR_CURSOR = ":";
+
+    // Cantidad de elementos devuelta cuando el cliente no indica un límite.
+    @Value("${paginacion.limite-por-defecto:20}")
+    private int limitePorDefecto;
+
+    // Tope de elementos por página impuesto por el servidor.
+    @Value("${paginacion.limite-maximo:100}")
+    private int limiteMaximo;
+
+    /**
+     * Resuelve el tamaño de página efectivo a partir del solicitado por el cliente.
+     *
+     * @param limite Límite solicitado, puede ser nulo.
+     * @return Tamaño de página entre 1 y el máximo configurado.
+     * @throws IllegalArgumentException Si el límite solicitado no es positivo.
+     */
+    public int resolverLimite(Integer limite) {
+        if (limite == null) {
+            return limitePorDefecto;
+        }
+        if (limite < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor a 0.");
+        }
+        return Math.min(limite, limiteMaximo);
+    }
+
+    /**
+     * Decodifica un cursor opaco en el último ID visto por el cliente.
+     *
+     * @param cursor Cursor recibido, puede ser nulo para pedir la primera página.
+     * @return ID a partir del cual continuar (exclusivo); 0 si no hay cursor.
+     * @throws IllegalArgumentException Si el cursor no tiene un formato válido.
+     */
+    public long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(valor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    /**
+     * Codifica un ID como cursor opaco.
+     *
+     * @param id Último ID incluido en la página.
+     * @return Cursor opaco en Base64 URL-safe.
+     */
+    public String codificarCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor compuesto, usado cuando los resultados se ordenan por otra columna
+     * y el ID solo desempata entre filas con el mismo valor.
+     *
+     * @param cursor Cursor recibido, puede ser nulo para pedir la primera página.
+     * @return Arreglo con el valor de la columna de orden y el ID de la última fila vista; null si no hay cursor.
+     * @throws IllegalArgumentException Si el cursor no tiene un formato válido.
+     */
+    public long[] decodificarCursorCompuesto(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR_CURSOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            return new long[]{Long.parseLong(valor.substring(0, separador)), Long.parseLong(valor.substring(separador + 1))};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    /**
+     * Codifica el valor de la columna de orden y el ID de la última fila como cursor opaco.
+     *
+     * @param clave Valor de la columna de orden de la última fila incluida en la página.
+     * @param id    ID de esa fila.
+     * @return Cursor opaco en Base64 URL-safe.
+     */
+    public String codificarCursor(long clave, long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((clave + SEPARADOR_CURSOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Construye una página a partir de las filas leídas. Se espera que la consulta haya pedido
+     * un elemento más que el tamaño de página para saber si existe una página siguiente.
+     *
+     * @param <T>    Tipo de los elementos.
+     * @param filas  Filas leídas (hasta {@code limite + 1}).
+     * @param limite Tamaño de página efectivo.
+     * @param id     Función que obtiene el ID de cada elemento.
+     * @return Página con su cursor siguiente.
+     */
+    public <T> PaginaCursor<T> construirPagina(List<T> filas, int limite, Function<T, Long> id) {
+        if (filas.size() <= limite) {
+            return new PaginaCursor<>(filas, null);
+        }
+        List<T> contenido = filas.subList(0, limite);
+        return new PaginaCursor<>(List.copyOf(contenido), codificarCursor(id.apply(contenido.get(limite - 1))));
+    }
+
+    /**
+     * Construye una página ordenada por otra columna y el ID, con un cursor compuesto.
+     * Se espera que la consulta haya pedido un elemento más que el tamaño de página.
+     *
+     * @param <T>    Tipo de los elementos.
+     * @param filas  Filas leídas (hasta {@code limite + 1}).
+     * @param limite Tamaño de página efectivo.
+     * @param clave  Función que obtiene el valor de la columna de orden de cada elemento.
+     * @param id     Función que obtiene el ID de cada elemento.
+     * @return Página con su cursor siguiente.
+     */
+    public <T> PaginaCursor<T> construirPagina(List<T> filas, int limite, Function<T, Long> clave, Function<T, Long> id) {
+        if (filas.size() <= limite) {
+            return new PaginaCursor<>(filas, null);
+        }
+        List<T> contenido = filas.subList(0, limite);
+        T ultima = contenido.get(limite - 1);
+        return new PaginaCursor<>(List.copyOf(contenido), codificarCursor(clave.apply(ultima), id.apply(ultima)));
+    }
+}
@@ -0,0 +1,31 @@
+package com.washer.demo.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Cantidad máxima de sentencias SQL que puede ejecutar un método, incluida la confirmación de su
+ * transacción. Lo controla {@link PresupuestoConsultasAspect}: superar el presupuesto indica,
+ * por lo general, una consulta por fila (problema N+1) introducida por un cambio.
+ *
+ * Para los métodos que procesan una colección, el presupuesto crece con su tamaño:
+ * {@code value + porElemento * tamaño} de la primera colección recibida.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoConsultas {
+
+    /**
+     * Cantidad máxima de sentencias SQL, independiente del tamaño de los datos.
+     */
+    int value();
+
+    /**
+     * Sentencias adicionales permitidas por cada elemento de la colección recibida.
+     */
+    double porElemento() default 0;
+}
@@ -0,0 +1,108 @@
+package com.washer.demo.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Controla el presupuesto de sentencias SQL de los métodos anotados con {@link PresupuestoConsultas}.
+ *
+ * Se ejecuta por fuera de la transacción del método, de modo que también cuenta las sentencias que
+ * Hibernate envía al confirmarla. Cuando un método supera su presupuesto se registra una advertencia
+ * y se incrementa la métrica {@code hibernate.consultas.excedidas}; en modo estricto
+ * ({@code consultas.presupuesto.estricto=true}, pensado para pruebas e integración continua)
+ * además se lanza una excepción.
+ */
+@Aspect
+@Component
+@Order(0) // Envuelve a las transacciones, que se aplican con la menor precedencia
+public class PresupuestoConsultasAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(PresupuestoConsultasAspect.class);
+
+    // Indica si superar un presupuesto interrumpe la operación con una excepción.
+    @Value("${consultas.presupuesto.estricto:false}")
+    private boolean estricto;
+
+    @Autowired
+    private ContadorConsultas contadorConsultas;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> excedidos = new ConcurrentHashMap<>();
+
+    /**
+     * Ejecuta el método anotado y compara las sentencias SQL que ejecutó con su presupuesto.
+     *
+     * @param punto       Invocación del método.
+     * @param presupuesto Presupuesto declarado en el método.
+     * @return El resultado del método.
+     * @throws Throwable la excepción del método, o {@link IllegalStateException} si supera el
+     *                   presupuesto en modo estricto.
+     */
+    @Around("@annotation(presupuesto)")
+    public Object controlar(ProceedingJoinPoint punto, PresupuestoConsultas presupuesto) throws Throwable {
+        int antes = contadorConsultas.cantidad();
+        Object resultado = punto.proceed();
+        long maximo = presupuesto.value() + (long) Math.ceil(presupuesto.porElemento() * elementos(punto.getArgs()));
+        verificar(punto.getSignature().getDeclaringType().getSimpleName() + "." + punto.getSignature().getName(),
+                contadorConsultas.cantidad() - antes, maximo);
+        return resultado;
+    }
+
+    /**
+     * Ejecuta una parte de un método con su propio presupuesto, para los procesos que trabajan en bloques
+     * y cuya cantidad total de sentencias depende de los datos: cada bloque se controla por separado.
+     *
+     * @param <T>       Tipo del resultado.
+     * @param operacion Nombre con el que se informa la operación en la advertencia y en la métrica.
+     * @param maximo    Cantidad máxima de sentencias SQL.
+     * @param bloque    Parte a ejecutar.
+     * @return El resultado de la parte ejecutada.
+     * @throws IllegalStateException si supera el presupuesto en modo estricto.
+     */
+    public <T> T controlar(String operacion, int maximo, Supplier<T> bloque) {
+        int antes = contadorConsultas.cantidad();
+        T resultado = bloque.get();
+        verificar(operacion, contadorConsultas.cantidad() - antes, maximo);
+        return resultado;
+    }
+
+    private void verificar(String metodo, int ejecutadas, long maximo) {
+        if (ejecutadas <= maximo) {
+            return;
+        }
+        excedidos.computeIfAbsent(metodo, clave -> Counter.builder("hibernate.consultas.excedidas")
+                .description("Invocaciones que superaron su presupuesto de sentencias SQL")
+                .tag("metodo", metodo)
+                .register(meterRegistry)).increment();
+        String mensaje = "El método " + metodo + " ejecutó " + ejecutadas + " sentencias SQL; el máximo es " + maximo;
+        if (estricto) {
+            throw new IllegalStateException(mensaje);
+        }
+        log.warn(mensaje);
+    }
+
+    private int elementos(Object[] argumentos) {
+        for (Object argumento : argumentos) {
+            if (argumento instanceof Collection<?> coleccion) {
+                return coleccion.size();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.washer.demo.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Utilidad para ejecutar una operación en su propia transacción, reintentándola cuando la base
+ * de datos la aborta por un conflicto de bloqueos (por ejemplo, un deadlock entre reservas
+ * concurrentes de la misma franja). Cada intento se ejecuta en una transacción nueva.
+ */
+@Component
+public class ReintentoTransaccional {
+
+    // Cantidad máxima de intentos antes de propagar el error.
+    @Value("${transacciones.max-intentos:3}")
+    private int maxIntentos;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor que recibe la plantilla de transacciones de la aplicación.
+     *
+     * @param transactionTemplate plantilla configurada por Spring.
+     */
+    public ReintentoTransaccional(TransactionTemplate transactionTemplate) {
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Ejecuta la operación en una transacción, reintentando ante conflictos de bloqueo.
+     *
+     * @param <T>       Tipo del resultado.
+     * @param operacion Operación a ejecutar; debe poder repetirse desde cero.
+     * @return Resultado de la operación.
+     * @throws PessimisticLockingFailureException si el conflicto persiste tras el último intento.
+     */
+    public <T> T ejecutar(Supplier<T> operacion) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> operacion.get());
+            } catch (PessimisticLockingFailureException e) {
+                if (intento >= maxIntentos) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
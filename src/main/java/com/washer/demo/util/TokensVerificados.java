@@ -0,0 +1,120 @@
+package com.washer.demo.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché acotada de tokens JWT ya verificados, con el usuario que autentican.
+ * Permite que las solicitudes siguientes con el mismo token se autentiquen sin volver a
+ * verificar la firma ni consultar el usuario.
+ *
+ * Los tokens se guardan por su hash SHA-256, nunca en claro, y cada entrada vence cuando vence
+ * el token o al cumplirse la vida máxima configurada, lo que ocurra primero. La vida máxima acota
+ * el tiempo durante el cual un cambio en el usuario (roles, baja) no se refleja en las solicitudes.
+ */
+@Component
+public class TokensVerificados {
+
+    // Cantidad máxima de tokens verificados que se mantienen en memoria.
+    @Value("${jwt.cache.tamanio-maximo:10000}")
+    private long tamanioMaximo;
+
+    // Tiempo máximo, en segundos, que un token verificado permanece en la caché.
+    @Value("${jwt.cache.vida-maxima-segundos:300}")
+    private long vidaMaximaSegundos;
+
+    private Cache<String, TokenVerificado> cache;
+
+    /**
+     * Token verificado: usuario que autentica, identificador del token (claim "jti"), fecha de
+     * expiración del token y momento (epoch en milisegundos) en que la entrada deja de ser válida.
+     */
+    public record TokenVerificado(UserDetails usuario, String jti, Date expiracion, long venceEn) {
+    }
+
+    /**
+     * Construye la caché con vencimiento variable por entrada.
+     */
+    @PostConstruct
+    void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfter(new Expiry<String, TokenVerificado>() {
+                    @Override
+                    public long expireAfterCreate(String clave, TokenVerificado token, long ahora) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(token.venceEn() - System.currentTimeMillis(), 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String clave, TokenVerificado token, long ahora, long restante) {
+                        return expireAfterCreate(clave, token, ahora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String clave, TokenVerificado token, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Obtiene un token verificado previamente.
+     *
+     * @param token Token JWT recibido.
+     * @return El token verificado con su usuario, o null si el token no está en la caché.
+     */
+    public TokenVerificado obtener(String token) {
+        return cache.getIfPresent(clave(token));
+    }
+
+    /**
+     * Registra un token cuya firma y vigencia ya fueron verificadas.
+     *
+     * @param token   Token JWT verificado.
+     * @param usuario Usuario autenticado por el token.
+     * @param claims  Claims del token.
+     * @return El token verificado registrado.
+     */
+    public TokenVerificado registrar(String token, UserDetails usuario, Claims claims) {
+        Date expiracion = claims.getExpiration();
+        long venceEn = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(vidaMaximaSegundos);
+        if (expiracion != null) {
+            venceEn = Math.min(venceEn, expiracion.getTime());
+        }
+        TokenVerificado verificado = new TokenVerificado(usuario, claims.getId(), expiracion, venceEn);
+        cache.put(clave(token), verificado);
+        return verificado;
+    }
+
+    /**
+     * Quita un token de la caché, obligando a verificarlo nuevamente en la próxima solicitud.
+     *
+     * @param token Token JWT a quitar.
+     */
+    public void invalidar(String token) {
+        cache.invalidate(clave(token));
+    }
+
+    private String clave(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.washer.demo.util;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Utilidad para validar los elementos de una solicitud en lote.
+ * Aplica las mismas restricciones de Bean Validation que los endpoints individuales,
+ * pero devuelve los errores de cada elemento en lugar de rechazar la solicitud completa.
+ */
+@Component
+public class ValidadorLote {
+
+    // Cantidad máxima de elementos aceptada en una única solicitud en lote.
+    @Value("${lote.tamanio-maximo:1000}")
+    private int tamanioMaximo;
+
+    private final Validator validator;
+
+    /**
+     * Constructor que inyecta el validador de la aplicación.
+     *
+     * @param validator validador de Bean Validation configurado por Spring.
+     */
+    public ValidadorLote(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Verifica que el lote no esté vacío ni supere el tamaño máximo permitido.
+     *
+     * @param lote Elementos recibidos.
+     * @throws IllegalArgumentException Si el lote es vacío o demasiado grande.
+     */
+    public void validarTamanio(List<?> lote) {
+        if (lote == null || lote.isEmpty()) {
+            throw new IllegalArgumentException("El lote no puede estar vacío.");
+        }
+        if (lote.size() > tamanioMaximo) {
+            throw new IllegalArgumentException("El lote no puede superar los " + tamanioMaximo + " elementos.");
+        }
+    }
+
+    /**
+     * Valida un elemento del lote.
+     *
+     * @param elemento Elemento a validar.
+     * @return Mensajes de error encontrados; vacío si el elemento es válido.
+     */
+    public List<String> validar(Object elemento) {
+        if (elemento == null) {
+            return List.of("El elemento no puede ser nulo.");
+        }
+        return validator.validate(elemento).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,358 @@
+package com.washer.demo.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generador de carga de punta a punta contra la API en ejecución.
+ *
+ * Inicia sesión con {@code /api/auth/login}, registra clientes y vehículos de prueba mediante los
+ * endpoints en lote y luego lanza usuarios concurrentes que, hasta cumplirse la duración indicada,
+ * ejecutan operaciones elegidas al azar según la mezcla configurada (ver {@link Mezcla}).
+ * Al terminar informa, por endpoint, el rendimiento y los percentiles de latencia.
+ *
+ * Cada usuario corre en su propio hilo virtual cuando la JVM los soporta (Java 21 o superior);
+ * en caso contrario, o con {@code --hilos plataforma}, se usa un hilo de plataforma por usuario.
+ *
+ * Opciones (todas opcionales):
+ * <pre>
+ *   --url            URL base de la API (http://localhost:8080)
+ *   --usuario        usuario para iniciar sesión (admin)
+ *   --clave          contraseña del usuario (password)
+ *   --usuarios       cantidad de usuarios concurrentes (50)
+ *   --duracion       segundos de medición (60)
+ *   --calentamiento  segundos iniciales que no se miden (10)
+ *   --mezcla         mixta, reservas o lectura (mixta)
+ *   --clientes       clientes de prueba a registrar, con un vehículo cada uno (200)
+ *   --hilos          virtuales o plataforma (virtuales)
+ * </pre>
+ */
+public class GeneradorCarga {
+
+    private static final String[] SERVICIOS = {"lavado completo", "lavado exterior", "lavado de motor", "encerado"};
+    private static final int LOTE_MAXIMO = 1000;
+    private static final LocalTime APERTURA = LocalTime.of(8, 0);
+    private static final int FRANJAS_POR_DIA = 24; // Turnos de 30 minutos entre las 08:00 y las 20:00
+    private static final long RENOVACION_TOKEN_MINUTOS = 10; // Antes de que venza el token de acceso
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<Operacion, MetricasEndpoint> metricas = new EnumMap<>(Operacion.class);
+
+    private final String url;
+    private final Map<String, String> opciones;
+    private final Mezcla mezcla;
+
+    private volatile String token;
+    private volatile String refreshToken;
+    private volatile boolean midiendo;
+    private List<Long> vehiculoIds;
+    private List<String> matriculas;
+    private List<String> nombres;
+
+    GeneradorCarga(Map<String, String> opciones) {
+        this.opciones = opciones;
+        this.url = opciones.getOrDefault("url", "http://localhost:8080");
+        this.mezcla = Mezcla.valueOf(opciones.getOrDefault("mezcla", "mixta").toUpperCase(Locale.ROOT));
+        for (Operacion operacion : Operacion.values()) {
+            metricas.put(operacion, new MetricasEndpoint());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new GeneradorCarga(leerOpciones(args)).ejecutar();
+    }
+
+    /**
+     * Lee las opciones de la línea de comandos, en la forma {@code --nombre valor}.
+     */
+    static Map<String, String> leerOpciones(String[] args) {
+        Map<String, String> opciones = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Opción inválida: " + args[i]);
+            }
+            opciones.put(args[i].substring(2), args[++i]);
+        }
+        return opciones;
+    }
+
+    void ejecutar() throws Exception {
+        int usuarios = entero("usuarios", 50);
+        int duracion = entero("duracion", 60);
+        int calentamiento = entero("calentamiento", 10);
+
+        iniciarSesion();
+        registrarDatosDePrueba(entero("clientes", 200));
+
+        ScheduledExecutorService renovacion = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "renovacion-token");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        renovacion.scheduleAtFixedRate(this::renovarToken, RENOVACION_TOKEN_MINUTOS, RENOVACION_TOKEN_MINUTOS, TimeUnit.MINUTES);
+
+        ExecutorService ejecutor = crearEjecutor(usuarios);
+        System.out.printf("Carga: mezcla %s, %d usuarios, %d s de calentamiento y %d s de medición contra %s%n",
+                mezcla.name().toLowerCase(Locale.ROOT), usuarios, calentamiento, duracion, url);
+
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(calentamiento + duracion);
+        for (int i = 0; i < usuarios; i++) {
+            ejecutor.execute(() -> {
+                while (System.nanoTime() < fin) {
+                    ejecutarOperacion(mezcla.elegir());
+                }
+            });
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(calentamiento));
+        metricas.values().forEach(MetricasEndpoint::reiniciar);
+        midiendo = true;
+        long inicioMedicion = System.nanoTime();
+
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(duracion + 60L, TimeUnit.SECONDS);
+        midiendo = false;
+        renovacion.shutdownNow();
+        informar((System.nanoTime() - inicioMedicion) / 1e9);
+    }
+
+    /**
+     * Crea el ejecutor con un hilo por usuario: virtual si la JVM lo permite y no se pidió lo
+     * contrario, o de plataforma en otro caso.
+     */
+    private ExecutorService crearEjecutor(int usuarios) {
+        if (!"plataforma".equals(opciones.getOrDefault("hilos", "virtuales"))) {
+            try {
+                ExecutorService virtuales = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                System.out.println("Usuarios ejecutados en hilos virtuales");
+                return virtuales;
+            } catch (ReflectiveOperationException e) {
+                System.out.println("La JVM no soporta hilos virtuales (requiere Java 21); se usan hilos de plataforma");
+            }
+        }
+        System.out.println("Usuarios ejecutados en hilos de plataforma");
+        return Executors.newFixedThreadPool(usuarios);
+    }
+
+    private void ejecutarOperacion(Operacion operacion) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        HttpRequest solicitud = switch (operacion) {
+            case RESERVAR -> post("/api/turnos", turnoAleatorio(azar));
+            case COBRAR -> post("/api/cobros", objectMapper.createObjectNode()
+                    .put("monto", azar.nextInt(1000, 5000))
+                    .put("fecha", LocalDateTime.now().withNano(0).toString()));
+            case DISPONIBILIDAD -> get("/api/turnos/disponibilidad?fecha=" + diaAleatorio(azar));
+            case LISTAR_TURNOS -> get("/api/turnos?limit=20");
+            case BUSCAR_TURNOS -> {
+                LocalDate dia = diaAleatorio(azar);
+                yield get("/api/turnos/buscar?estado=programado&limit=20&desde=" + dia.atStartOfDay()
+                        + "&hasta=" + dia.plusDays(1).atStartOfDay());
+            }
+            case LISTAR_CLIENTES -> get("/api/clientes?limit=20");
+            case LISTAR_COBROS -> get("/api/cobros?limit=20");
+            case BUSCAR_CLIENTES -> get("/api/clientes/buscar?limit=10&q="
+                    + URLEncoder.encode(nombres.get(azar.nextInt(nombres.size())), StandardCharsets.UTF_8));
+            case BUSCAR_VEHICULOS -> {
+                String matricula = matriculas.get(azar.nextInt(matriculas.size()));
+                yield get("/api/vehiculos/buscar?limit=10&prefijo=" + matricula.substring(0, matricula.length() - 2));
+            }
+        };
+
+        long inicio = System.nanoTime();
+        int estado;
+        try {
+            estado = httpClient.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            estado = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (midiendo) {
+            metricas.get(operacion).registrar(estado, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Arma un turno para un vehículo de prueba en un día y franja al azar dentro del próximo año.
+     * Algunas reservas caen en franjas completas y son rechazadas, como ocurre en la práctica.
+     */
+    private ObjectNode turnoAleatorio(ThreadLocalRandom azar) {
+        LocalDateTime fechaHora = diaAleatorio(azar).atTime(APERTURA).plusMinutes(30L * azar.nextInt(FRANJAS_POR_DIA));
+        ObjectNode turno = objectMapper.createObjectNode()
+                .put("fechaHora", fechaHora.toString())
+                .put("estado", "programado")
+                .put("tipoServicio", SERVICIOS[azar.nextInt(SERVICIOS.length)]);
+        turno.putObject("vehiculo").put("id", vehiculoIds.get(azar.nextInt(vehiculoIds.size())));
+        return turno;
+    }
+
+    private LocalDate diaAleatorio(ThreadLocalRandom azar) {
+        return LocalDate.now().plusDays(1 + azar.nextInt(365));
+    }
+
+    /**
+     * Registra los clientes de prueba y un vehículo para cada uno. Las matrículas y correos llevan
+     * un prefijo al azar para poder repetir la prueba contra la misma base de datos.
+     */
+    private void registrarDatosDePrueba(int cantidad) throws IOException, InterruptedException {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        String prefijo = "" + (char) ('A' + azar.nextInt(26)) + (char) ('A' + azar.nextInt(26)) + (char) ('A' + azar.nextInt(26));
+        nombres = new ArrayList<>();
+        matriculas = new ArrayList<>();
+        vehiculoIds = new ArrayList<>();
+        List<Long> clienteIds = new ArrayList<>();
+
+        for (int desde = 0; desde < cantidad; desde += LOTE_MAXIMO) {
+            ArrayNode clientes = objectMapper.createArrayNode();
+            for (int i = desde; i < Math.min(desde + LOTE_MAXIMO, cantidad); i++) {
+                String nombre = "Cliente " + prefijo + " " + i;
+                clientes.addObject()
+                        .put("nombre", nombre)
+                        .put("correoElectronico", "carga." + prefijo.toLowerCase(Locale.ROOT) + i + "@example.com")
+                        .put("telefono", String.format("%010d", i));
+                nombres.add(nombre);
+            }
+            clienteIds.addAll(idsCreados(enviar(post("/api/clientes/batch", clientes))));
+        }
+
+        for (int desde = 0; desde < clienteIds.size(); desde += LOTE_MAXIMO) {
+            ArrayNode vehiculos = objectMapper.createArrayNode();
+            for (int i = desde; i < Math.min(desde + LOTE_MAXIMO, clienteIds.size()); i++) {
+                String matricula = prefijo + String.format("%06d", i);
+                ObjectNode item = vehiculos.addObject().put("clienteId", clienteIds.get(i));
+                item.putObject("vehiculo")
+                        .put("modelo", "Modelo de prueba")
+                        .put("matricula", matricula)
+                        .put("tipo", "Sedán");
+                matriculas.add(matricula);
+            }
+            vehiculoIds.addAll(idsCreados(enviar(post("/api/vehiculos/batch", vehiculos))));
+        }
+        if (vehiculoIds.isEmpty()) {
+            throw new IllegalStateException("No se pudo registrar ningún vehículo de prueba");
+        }
+        System.out.printf("Datos de prueba: %d clientes y %d vehículos (prefijo %s)%n", clienteIds.size(), vehiculoIds.size(), prefijo);
+    }
+
+    private List<Long> idsCreados(JsonNode resultados) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode resultado : resultados) {
+            if (resultado.hasNonNull("id")) {
+                ids.add(resultado.get("id").asLong());
+            }
+        }
+        return ids;
+    }
+
+    private void iniciarSesion() throws IOException, InterruptedException {
+        ObjectNode credenciales = objectMapper.createObjectNode()
+                .put("username", opciones.getOrDefault("usuario", "admin"))
+                .put("password", opciones.getOrDefault("clave", "password"));
+        guardarTokens(enviar(HttpRequest.newBuilder(URI.create(url + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(credenciales.toString()))
+                .build()));
+    }
+
+    /**
+     * Obtiene un nuevo token de acceso con el token de refresco, para pruebas más largas que la
+     * vigencia del token. Si falla, vuelve a iniciar sesión.
+     */
+    private void renovarToken() {
+        try {
+            ObjectNode cuerpo = objectMapper.createObjectNode().put("refreshToken", refreshToken);
+            guardarTokens(enviar(HttpRequest.newBuilder(URI.create(url + "/api/auth/refresh"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo.toString()))
+                    .build()));
+        } catch (IOException | IllegalStateException e) {
+            try {
+                iniciarSesion();
+            } catch (IOException | InterruptedException | IllegalStateException error) {
+                System.err.println("No se pudo renovar el token: " + error.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void guardarTokens(JsonNode respuesta) {
+        refreshToken = respuesta.path("refreshToken").asText(null);
+        token = respuesta.path("token").asText();
+    }
+
+    /**
+     * Envía una solicitud de preparación y devuelve su cuerpo; falla si la respuesta no es exitosa.
+     */
+    private JsonNode enviar(HttpRequest solicitud) throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = httpClient.send(solicitud, HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() / 100 != 2) {
+            throw new IllegalStateException(solicitud.method() + " " + solicitud.uri().getPath()
+                    + " respondió " + respuesta.statusCode() + ": " + respuesta.body());
+        }
+        return objectMapper.readTree(respuesta.body());
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create(url + ruta))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String ruta, JsonNode cuerpo) {
+        return HttpRequest.newBuilder(URI.create(url + ruta))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo.toString()))
+                .build();
+    }
+
+    private void informar(double segundos) {
+        System.out.println();
+        System.out.println(MetricasEndpoint.encabezado());
+        MetricasEndpoint total = new MetricasEndpoint();
+        for (Map.Entry<Operacion, MetricasEndpoint> entrada : metricas.entrySet()) {
+            if (entrada.getValue().total() > 0) {
+                System.out.println(entrada.getValue().fila(entrada.getKey().getEndpoint(), segundos));
+                entrada.getValue().sumarA(total);
+            }
+        }
+        System.out.println(total.fila("Total", segundos));
+    }
+
+    private int entero(String nombre, int porDefecto) {
+        return Integer.parseInt(opciones.getOrDefault(nombre, String.valueOf(porDefecto)));
+    }
+}
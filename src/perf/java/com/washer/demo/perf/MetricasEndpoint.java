@@ -0,0 +1,92 @@
+package com.washer.demo.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados acumulados de un endpoint: latencias en un histograma HDR (en microsegundos, con
+ * tres dígitos significativos) y cantidad de respuestas exitosas, rechazadas (4xx) y con error
+ * (5xx o fallas de conexión). Admite registros concurrentes desde todos los usuarios virtuales.
+ */
+class MetricasEndpoint {
+
+    // Latencia máxima registrable; los valores mayores se registran con este valor.
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.SECONDS.toMicros(60);
+
+    private final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3);
+    private final LongAdder exitosas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+
+    /**
+     * Registra una respuesta recibida.
+     *
+     * @param estado       Código de estado HTTP, o 0 si la solicitud falló sin respuesta.
+     * @param duracionNanos Tiempo transcurrido desde el envío hasta recibir la respuesta completa.
+     */
+    void registrar(int estado, long duracionNanos) {
+        latencias.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(duracionNanos), LATENCIA_MAXIMA_US));
+        if (estado >= 200 && estado < 300) {
+            exitosas.increment();
+        } else if (estado >= 400 && estado < 500) {
+            rechazadas.increment();
+        } else {
+            errores.increment();
+        }
+    }
+
+    /**
+     * Descarta lo registrado hasta el momento, por ejemplo al terminar el calentamiento.
+     */
+    void reiniciar() {
+        latencias.reset();
+        exitosas.reset();
+        rechazadas.reset();
+        errores.reset();
+    }
+
+    /**
+     * Suma los resultados de este endpoint a otro acumulado.
+     *
+     * @param total Acumulado que recibe los resultados.
+     */
+    void sumarA(MetricasEndpoint total) {
+        total.latencias.add(latencias);
+        total.exitosas.add(exitosas.sum());
+        total.rechazadas.add(rechazadas.sum());
+        total.errores.add(errores.sum());
+    }
+
+    long total() {
+        return latencias.getTotalCount();
+    }
+
+    /**
+     * Arma la fila del reporte para este endpoint.
+     *
+     * @param nombre   Nombre del endpoint.
+     * @param segundos Duración de la medición, para calcular el rendimiento.
+     * @return Fila con totales, operaciones por segundo y percentiles en milisegundos.
+     */
+    String fila(String nombre, double segundos) {
+        return String.format("%-32s %9d %9d %9d %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                nombre, total(), exitosas.sum(), rechazadas.sum(), errores.sum(), total() / segundos,
+                milisegundos(latencias.getValueAtPercentile(50)),
+                milisegundos(latencias.getValueAtPercentile(90)),
+                milisegundos(latencias.getValueAtPercentile(99)),
+                milisegundos(latencias.getValueAtPercentile(99.9)),
+                milisegundos(latencias.getMaxValue()));
+    }
+
+    static String encabezado() {
+        return String.format("%-32s %9s %9s %9s %9s %10s %9s %9s %9s %9s %9s",
+                "Endpoint", "Total", "Exitosas", "4xx", "Errores", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    private static double milisegundos(long microsegundos) {
+        return microsegundos / 1000.0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.washer.demo.perf;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Proporción de cada operación dentro de la carga generada.
+ *
+ * <ul>
+ *   <li>{@code mixta}: uso habitual del lavadero, con reservas, cobros, consultas y búsquedas.</li>
+ *   <li>{@code reservas}: horas pico de reservas, dominada por altas de turnos y consultas de disponibilidad.</li>
+ *   <li>{@code lectura}: solo listados y búsquedas, sin escrituras.</li>
+ * </ul>
+ */
+enum Mezcla {
+
+    MIXTA(Map.of(
+            Operacion.RESERVAR, 15,
+            Operacion.COBRAR, 10,
+            Operacion.DISPONIBILIDAD, 15,
+            Operacion.LISTAR_TURNOS, 10,
+            Operacion.BUSCAR_TURNOS, 10,
+            Operacion.LISTAR_CLIENTES, 10,
+            Operacion.LISTAR_COBROS, 10,
+            Operacion.BUSCAR_CLIENTES, 10,
+            Operacion.BUSCAR_VEHICULOS, 10)),
+    RESERVAS(Map.of(
+            Operacion.RESERVAR, 40,
+            Operacion.DISPONIBILIDAD, 30,
+            Operacion.COBRAR, 10,
+            Operacion.LISTAR_TURNOS, 20)),
+    LECTURA(Map.of(
+            Operacion.LISTAR_CLIENTES, 25,
+            Operacion.LISTAR_TURNOS, 15,
+            Operacion.BUSCAR_TURNOS, 15,
+            Operacion.LISTAR_COBROS, 15,
+            Operacion.BUSCAR_CLIENTES, 15,
+            Operacion.BUSCAR_VEHICULOS, 15));
+
+    private final Operacion[] operaciones;
+    private final int[] acumulados;
+
+    Mezcla(Map<Operacion, Integer> pesos) {
+        Map<Operacion, Integer> ordenados = new EnumMap<>(pesos);
+        operaciones = ordenados.keySet().toArray(new Operacion[0]);
+        acumulados = new int[operaciones.length];
+        int total = 0;
+        for (int i = 0; i < operaciones.length; i++) {
+            total += ordenados.get(operaciones[i]);
+            acumulados[i] = total;
+        }
+    }
+
+    /**
+     * Elige una operación al azar, respetando la proporción de cada una.
+     *
+     * @return La operación a ejecutar.
+     */
+    Operacion elegir() {
+        int valor = ThreadLocalRandom.current().nextInt(acumulados[acumulados.length - 1]);
+        for (int i = 0; i < acumulados.length; i++) {
+            if (valor < acumulados[i]) {
+                return operaciones[i];
+            }
+        }
+        return operaciones[operaciones.length - 1];
+    }
+}
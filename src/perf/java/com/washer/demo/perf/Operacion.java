@@ -0,0 +1,28 @@
+package com.washer.demo.perf;
+
+/**
+ * Operaciones que ejecuta el generador de carga, cada una contra un endpoint de la API.
+ * El nombre del endpoint identifica a la operación en el reporte.
+ */
+enum Operacion {
+
+    RESERVAR("POST /api/turnos"),
+    COBRAR("POST /api/cobros"),
+    DISPONIBILIDAD("GET /api/turnos/disponibilidad"),
+    LISTAR_TURNOS("GET /api/turnos"),
+    BUSCAR_TURNOS("GET /api/turnos/buscar"),
+    LISTAR_CLIENTES("GET /api/clientes"),
+    LISTAR_COBROS("GET /api/cobros"),
+    BUSCAR_CLIENTES("GET /api/clientes/buscar"),
+    BUSCAR_VEHICULOS("GET /api/vehiculos/buscar");
+
+    private final String endpoint;
+
+    Operacion(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,65 @@
+package com.washer.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del ajuste de las secuencias emuladas con tablas, como las que Hibernate crea en MySQL,
+ * sobre una base que ya tiene filas con IDs asignados.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecuenciasConfigTest {
+
+    @Autowired
+    private SecuenciasConfig secuenciasConfig;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void llevaLaSecuenciaPorEncimaDelMayorIdDeSusTablas() {
+        crearTablas("prueba_a", 1, 120);
+        jdbcTemplate.update("INSERT INTO prueba_a_archivo (id) VALUES (130)");
+        SecuenciasConfig.Secuencia secuencia = new SecuenciasConfig.Secuencia("prueba_a_seq", List.of("prueba_a", "prueba_a_archivo"));
+
+        assertThat(secuenciasConfig.ajustar(secuencia)).isTrue();
+        // El primer bloque que entregue la secuencia comienza en 131
+        assertThat(valor("prueba_a_seq")).isEqualTo(180);
+        assertThat(secuenciasConfig.ajustar(secuencia)).isFalse();
+    }
+
+    @Test
+    void noDisminuyeUnaSecuenciaQueYaEstaAdelante() {
+        crearTablas("prueba_b", 1000, 10);
+
+        assertThat(secuenciasConfig.ajustar(new SecuenciasConfig.Secuencia("prueba_b_seq", List.of("prueba_b")))).isFalse();
+        assertThat(valor("prueba_b_seq")).isEqualTo(1000);
+    }
+
+    @Test
+    void ignoraLasSecuenciasSinTabla() {
+        assertThat(secuenciasConfig.ajustar(new SecuenciasConfig.Secuencia("inexistente_seq", List.of("cliente")))).isFalse();
+    }
+
+    private void crearTablas(String tabla, long valorSecuencia, int filas) {
+        jdbcTemplate.execute("CREATE TABLE " + tabla + "_seq (next_val BIGINT)");
+        jdbcTemplate.update("INSERT INTO " + tabla + "_seq (next_val) VALUES (?)", valorSecuencia);
+        jdbcTemplate.execute("CREATE TABLE " + tabla + " (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE " + tabla + "_archivo (id BIGINT PRIMARY KEY)");
+        for (long id = 1; id <= filas; id++) {
+            jdbcTemplate.update("INSERT INTO " + tabla + " (id) VALUES (?)", id);
+        }
+    }
+
+    private long valor(String tabla) {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM " + tabla, Long.class);
+    }
+}
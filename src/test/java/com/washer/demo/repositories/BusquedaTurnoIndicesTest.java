@@ -0,0 +1,150 @@
+package com.washer.demo.repositories;
+
+import com.washer.demo.services.GeneradorDatosService;
+import com.washer.demo.services.TurnoService;
+import com.washer.demo.util.ContadorConsultas;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que las búsquedas de turnos más frecuentes usan el índice que les corresponde, de modo que
+ * cada índice declarado en {@link com.washer.demo.entities.Turno} queda cubierto por al menos una búsqueda.
+ * Se toma la sentencia SQL que genera la búsqueda real y se pide su plan a H2, sobre datos sintéticos con
+ * estadísticas actualizadas, de modo que el optimizador elige entre todos los índices de la tabla.
+ */
+@SpringBootTest(properties = {
+        // Base propia, para no compartir datos con las pruebas de otros contextos
+        "spring.datasource.url=jdbc:h2:mem:lavadero-indices;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datos.sinteticos.clientes=2000"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BusquedaTurnoIndicesTest {
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private GeneradorDatosService generadorDatosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private ContadorConsultas contadorConsultas;
+
+    private Long vehiculoId;
+
+    @BeforeAll
+    void generarDatos() {
+        generadorDatosService.generar();
+        jdbcTemplate.execute("ANALYZE");
+        vehiculoId = jdbcTemplate.queryForObject("SELECT MIN(vehiculo_id) FROM turno", Long.class);
+    }
+
+    @Test
+    void diaYEstadoUsaElIndiceDeEstadoYFecha() {
+        LocalDate dia = LocalDate.now(ZoneOffset.UTC);
+
+        String plan = planDe(() -> turnoService.buscarTurnos(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay(),
+                "programado", null, null, null, null, 20));
+
+        assertThat(plan).contains(".idx_turno_estado_fecha:");
+    }
+
+    @Test
+    void vehiculoEnNoventaDiasUsaElIndiceDeVehiculoYFecha() {
+        LocalDateTime ahora = LocalDateTime.now(ZoneOffset.UTC);
+
+        String plan = planDe(() -> turnoService.buscarTurnos(ahora.minusDays(90), ahora, null, null, vehiculoId,
+                null, null, 20));
+
+        assertThat(plan).contains(".idx_turno_vehiculo_fecha:");
+    }
+
+    @Test
+    void estadoEnUnaSemanaUsaElIndiceDeEstadoYFecha() {
+        LocalDate lunes = LocalDate.now(ZoneOffset.UTC).minusDays(7);
+
+        String plan = planDe(() -> turnoService.buscarTurnos(lunes.atStartOfDay(), lunes.plusWeeks(1).atStartOfDay(),
+                "completado", null, null, null, null, 20));
+
+        assertThat(plan).contains(".idx_turno_estado_fecha:");
+    }
+
+    @Test
+    void soloFechasUsaElIndiceDeFecha() {
+        LocalDate dia = LocalDate.now(ZoneOffset.UTC);
+
+        String plan = planDe(() -> turnoService.buscarTurnos(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay(),
+                null, null, null, null, null, 20));
+
+        assertThat(plan).contains(".idx_turno_fecha:");
+    }
+
+    @Test
+    void tipoServicioEnUnaSemanaUsaElIndiceDeFecha() {
+        LocalDate lunes = LocalDate.now(ZoneOffset.UTC).minusDays(7);
+
+        String plan = planDe(() -> turnoService.buscarTurnos(lunes.atStartOfDay(), lunes.plusWeeks(1).atStartOfDay(),
+                null, "encerado", null, null, null, 20));
+
+        assertThat(plan).contains(".idx_turno_fecha:");
+    }
+
+    @Test
+    void clienteBuscaLosTurnosPorVehiculo() {
+        Long clienteId = jdbcTemplate.queryForObject("SELECT cliente_id FROM vehiculo WHERE id = ?", Long.class, vehiculoId);
+
+        String plan = planDe(() -> turnoService.buscarTurnos(null, null, null, null, null, clienteId, null, 20));
+
+        // H2 crea un índice propio para la clave foránea vehiculo_id y lo considera equivalente a
+        // idx_turno_vehiculo_fecha (en MySQL la clave foránea usa este último); lo que importa es que los
+        // turnos se busquen por vehículo y no recorriendo toda la tabla por fecha
+        assertThat(plan).containsPattern("\\.(idx_turno_vehiculo_fecha|fk\\w+): vehiculo_id in\\(");
+        assertThat(plan).doesNotContain(".idx_turno_fecha:");
+    }
+
+    /**
+     * Ejecuta la búsqueda, toma la última sentencia SQL que preparó Hibernate y devuelve su plan de ejecución.
+     * H2 arma el plan al preparar la sentencia, antes de conocer los parámetros, por lo que se completan con null.
+     */
+    private String planDe(Runnable busqueda) {
+        Mockito.clearInvocations(contadorConsultas);
+        busqueda.run();
+        ArgumentCaptor<String> sentencias = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(contadorConsultas, Mockito.atLeastOnce()).inspect(sentencias.capture());
+        List<String> capturadas = sentencias.getAllValues();
+        String sql = capturadas.get(capturadas.size() - 1);
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexion -> {
+            try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                    explain.setNull(i, Types.NULL);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1).toLowerCase();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.ResultadoLote;
+import com.washer.demo.entities.Cliente;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del presupuesto de consultas de cada método de {@link ClienteService}.
+ */
+class ClienteServicePresupuestoTest extends PresupuestoConsultasBase {
+
+    @Test
+    void saveCliente() {
+        assertThat(crearCliente().getId()).isNotNull();
+    }
+
+    @Test
+    void saveClientes() {
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            clientes.add(Cliente.builder()
+                    .nombre("Cliente Lote " + i)
+                    .correoElectronico("lote" + i + "@prueba.com")
+                    .telefono("1234567890")
+                    .build());
+        }
+
+        List<ResultadoLote> resultados = clienteService.saveClientes(clientes);
+
+        assertThat(resultados).allSatisfy(resultado -> assertThat(resultado.getId()).isNotNull());
+    }
+
+    @Test
+    void getCliente() {
+        Datos datos = crearDatos();
+
+        assertThat(clienteService.getCliente(datos.cliente().getId()).getId()).isEqualTo(datos.cliente().getId());
+    }
+
+    @Test
+    void getVersionCliente() {
+        Datos datos = crearDatos();
+
+        assertThat(clienteService.getVersionCliente(datos.cliente().getId())).isNotNull();
+    }
+
+    @Test
+    void buscarClientes() {
+        Datos datos = crearDatos();
+
+        assertThat(clienteService.buscarClientes(datos.cliente().getNombre(), 10)).isNotEmpty();
+    }
+
+    @Test
+    void getAllClientes() {
+        crearDatos();
+        crearDatos();
+
+        assertThat(clienteService.getAllClientes(null, 2).getContenido()).hasSize(2);
+    }
+
+    @Test
+    void deleteCliente() {
+        Datos datos = crearDatos();
+
+        clienteService.deleteCliente(datos.cliente().getId());
+    }
+
+    @Test
+    void updateCliente() {
+        Datos datos = crearDatos();
+        Cliente cambios = Cliente.builder().nombre("Cliente Renombrado").telefono("0987654321").build();
+
+        assertThat(clienteService.updateCliente(datos.cliente().getId(), cambios, null).getNombre()).isEqualTo("Cliente Renombrado");
+    }
+}
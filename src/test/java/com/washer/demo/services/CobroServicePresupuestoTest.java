@@ -0,0 +1,87 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.ResumenCobros;
+import com.washer.demo.entities.Cobro;
+import com.washer.demo.entities.Turno;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas del presupuesto de consultas de cada método de {@link CobroService}.
+ */
+class CobroServicePresupuestoTest extends PresupuestoConsultasBase {
+
+    @Autowired
+    private ResumenCobroService resumenCobroService;
+
+    @Test
+    void saveCobro() {
+        Datos datos = crearDatos();
+        Turno turno = turnoService.updateEstadoTurno(datos.turnos().get(0).getId(), "completado", null);
+
+        assertThat(cobroService.saveCobro(Cobro.builder().monto(2000.0).fecha(new Date()).turno(turno).build()).getId()).isNotNull();
+    }
+
+    @Test
+    void getCobro() {
+        Datos datos = crearDatos();
+
+        assertThat(cobroService.getCobro(datos.cobros().get(0).getId()).getId()).isEqualTo(datos.cobros().get(0).getId());
+    }
+
+    @Test
+    void getVersionCobro() {
+        Datos datos = crearDatos();
+
+        assertThat(cobroService.getVersionCobro(datos.cobros().get(0).getId())).isNotNull();
+    }
+
+    @Test
+    void getAllCobros() {
+        crearDatos();
+        crearDatos();
+
+        assertThat(cobroService.getAllCobros(null, 5).getContenido()).hasSize(5);
+    }
+
+    @Test
+    void exportarCobros() throws Exception {
+        crearDatos();
+        crearDatos();
+
+        assertThat(cobroService.exportarCobros(new ByteArrayOutputStream())).isGreaterThanOrEqualTo(2L * VEHICULOS_POR_CLIENTE * TURNOS_POR_VEHICULO / 2);
+    }
+
+    @Test
+    void deleteCobro() {
+        Datos datos = crearDatos();
+
+        Cobro cobro = datos.cobros().get(0);
+        LocalDate dia = LocalDate.ofInstant(cobro.getFecha().toInstant(), ZoneOffset.UTC);
+        ResumenCobros antes = resumenCobroService.consultar(dia, dia);
+
+        cobroService.deleteCobro(cobro.getId());
+
+        assertThatThrownBy(() -> cobroService.getCobro(cobro.getId())).isInstanceOf(IllegalArgumentException.class);
+        ResumenCobros despues = resumenCobroService.consultar(dia, dia);
+        assertThat(despues.getCantidad()).isEqualTo(antes.getCantidad() - 1);
+        assertThat(despues.getTotal()).isEqualTo(antes.getTotal() - cobro.getMonto());
+    }
+
+    @Test
+    void updateCobro() {
+        Datos datos = crearDatos();
+        // Cambio de fecha y monto: el cobro pasa del resumen de un día al de otro
+        Cobro cambios = Cobro.builder().monto(2500.0).fecha(aFecha(diaLibre().atTime(12, 0))).build();
+
+        assertThat(cobroService.updateCobro(datos.cobros().get(0).getId(), cambios, null).getMonto()).isEqualTo(2500.0);
+    }
+}
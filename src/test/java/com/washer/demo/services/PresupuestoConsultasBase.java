@@ -0,0 +1,160 @@
+package com.washer.demo.services;
+
+import com.washer.demo.entities.Cliente;
+import com.washer.demo.entities.Cobro;
+import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.Vehiculo;
+import com.washer.demo.util.PresupuestoConsultas;
+import com.washer.demo.util.PresupuestoConsultasAspect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base de las pruebas de presupuesto de consultas de los servicios.
+ *
+ * Levanta la aplicación con el presupuesto en modo estricto, de modo que un método anotado con
+ * {@link PresupuestoConsultas} que ejecute más sentencias SQL de las permitidas lanza una excepción y hace
+ * fallar la prueba. Además, después de cada prueba se verifica que la métrica de presupuestos excedidos
+ * no haya aumentado, por si la excepción quedara capturada dentro de otro servicio.
+ *
+ * Los datos de cada prueba se crean con varios vehículos, turnos y cobros por cliente, para que una consulta
+ * por elemento (N+1) supere el presupuesto en lugar de pasar desapercibida.
+ */
+@SpringBootTest(properties = "consultas.presupuesto.estricto=true")
+@ActiveProfiles("test")
+abstract class PresupuestoConsultasBase {
+
+    // Vehículos por cliente y turnos por vehículo de los datos de prueba.
+    protected static final int VEHICULOS_POR_CLIENTE = 3;
+    protected static final int TURNOS_POR_VEHICULO = 4;
+
+    // Numerador compartido por todas las pruebas del contexto, para matrículas y días sin repetir.
+    private static final AtomicInteger secuencia = new AtomicInteger();
+
+    @Autowired
+    protected ClienteService clienteService;
+
+    @Autowired
+    protected VehiculoService vehiculoService;
+
+    @Autowired
+    protected TurnoService turnoService;
+
+    @Autowired
+    protected CobroService cobroService;
+
+    @Autowired
+    private PresupuestoConsultasAspect presupuestoConsultasAspect;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double excedidasAlComenzar;
+
+    /**
+     * Datos creados para una prueba: un cliente con sus vehículos, los turnos de esos vehículos y un cobro
+     * por cada turno completado.
+     */
+    protected record Datos(Cliente cliente, List<Vehiculo> vehiculos, List<Turno> turnos, List<Cobro> cobros) {
+    }
+
+    @BeforeEach
+    void verificarModoEstricto() {
+        assertThat(ReflectionTestUtils.getField(presupuestoConsultasAspect, "estricto")).isEqualTo(true);
+        excedidasAlComenzar = excedidas();
+    }
+
+    @AfterEach
+    void verificarPresupuestosRespetados() {
+        assertThat(excedidas()).isEqualTo(excedidasAlComenzar);
+    }
+
+    /**
+     * Crea un cliente con {@link #VEHICULOS_POR_CLIENTE} vehículos, {@link #TURNOS_POR_VEHICULO} turnos por
+     * vehículo en un día propio (la mitad programados y la mitad completados) y un cobro por turno completado.
+     *
+     * @return Los datos creados.
+     */
+    protected Datos crearDatos() {
+        Cliente cliente = crearCliente();
+        LocalDate dia = diaLibre();
+        List<Vehiculo> vehiculos = new ArrayList<>();
+        List<Turno> turnos = new ArrayList<>();
+        List<Cobro> cobros = new ArrayList<>();
+        for (int v = 0; v < VEHICULOS_POR_CLIENTE; v++) {
+            Vehiculo vehiculo = vehiculoService.saveVehiculo(vehiculo(), cliente.getId());
+            vehiculos.add(vehiculo);
+            for (int t = 0; t < TURNOS_POR_VEHICULO; t++) {
+                String estado = t % 2 == 0 ? "programado" : "completado";
+                Turno turno = turnoService.saveTurno(turno(vehiculo.getId(), dia.atTime(8 + v, 30 * (t % 2)).plusHours(4L * (t / 2)), estado));
+                turnos.add(turno);
+                if (estado.equals("completado")) {
+                    cobros.add(cobroService.saveCobro(Cobro.builder().monto(1500.0).fecha(new Date()).turno(turno).build()));
+                }
+            }
+        }
+        return new Datos(cliente, vehiculos, turnos, cobros);
+    }
+
+    protected Cliente crearCliente() {
+        int numero = secuencia.incrementAndGet();
+        return clienteService.saveCliente(Cliente.builder()
+                .nombre("Cliente Presupuesto " + numero)
+                .correoElectronico("presupuesto" + numero + "@prueba.com")
+                .telefono("1234567890")
+                .build());
+    }
+
+    protected Vehiculo vehiculo() {
+        return Vehiculo.builder().modelo("Gol").matricula("PC" + secuencia.incrementAndGet()).tipo("Sedan").build();
+    }
+
+    protected Turno turno(Long vehiculoId, LocalDateTime horario, String estado) {
+        return Turno.builder()
+                .fechaHora(aFecha(horario))
+                .estado(estado)
+                .tipoServicio("lavado completo")
+                .vehiculo(Vehiculo.builder().id(vehiculoId).build())
+                .build();
+    }
+
+    /**
+     * Obtiene un día futuro sin turnos de otras pruebas, para que siempre haya boxes libres.
+     */
+    protected LocalDate diaLibre() {
+        return LocalDate.now(ZoneOffset.UTC).plusDays(100 + secuencia.incrementAndGet());
+    }
+
+    /**
+     * Obtiene un día pasado sin turnos de otras pruebas, para los turnos que ya deberían haberse atendido.
+     */
+    protected LocalDate diaPasado() {
+        return LocalDate.now(ZoneOffset.UTC).minusDays(100 + secuencia.incrementAndGet());
+    }
+
+    protected static Date aFecha(LocalDateTime horario) {
+        return Date.from(horario.toInstant(ZoneOffset.UTC));
+    }
+
+    private double excedidas() {
+        return meterRegistry.find("hibernate.consultas.excedidas").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,252 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.FranjaDisponible;
+import com.washer.demo.entities.Cliente;
+import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.Vehiculo;
+import com.washer.demo.util.ReintentoTransaccional;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas de la reserva de boxes con solicitudes concurrentes sobre una misma franja.
+ * Verifican que nunca se acepten más turnos que boxes, tanto por el camino completo de alta de turnos
+ * como por la reserva en la base de datos sola (el caso de varias instancias, cada una con su agenda en memoria).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservaTurnosConcurrenciaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservaTurnosConcurrenciaTest.class);
+
+    private static final int HILOS = 200;
+
+    @Value("${lavadero.boxes}")
+    private int boxes;
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private VehiculoService vehiculoService;
+
+    @Autowired
+    private ReservaSlotService reservaSlotService;
+
+    @Autowired
+    private DisponibilidadService disponibilidadService;
+
+    @Autowired
+    private ReintentoTransaccional reintentoTransaccional;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void altaConcurrenteDeTurnosNoSuperaLosBoxes() throws Exception {
+        Long vehiculoId = crearVehiculo("RC0001").getId();
+        LocalDateTime horario = LocalDate.now(ZoneOffset.UTC).plusDays(30).atTime(10, 0);
+        Date fechaHora = aFecha(horario);
+
+        long inicio = System.nanoTime();
+        Resultado resultado = ejecutarEnParalelo(i -> turnoService.saveTurno(turno(vehiculoId, fechaHora)));
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        log.info("{} reservas concurrentes de la misma franja en {} ms ({} reservas/s); aceptadas: {}",
+                HILOS, Math.round(segundos * 1000), Math.round(HILOS / segundos), resultado.aceptadas());
+
+        assertThat(resultado.errores()).isEmpty();
+        assertThat(resultado.aceptadas()).isEqualTo(boxes);
+        assertThat(resultado.rechazadas()).isEqualTo(HILOS - boxes);
+        assertThat(contar("select count(*) from turno where fecha_hora = ? and estado = 'programado'", fechaHora)).isEqualTo(boxes);
+        assertThat(contar("select count(*) from reserva_slot where inicio = ?", horario)).isEqualTo(boxes);
+    }
+
+    @Test
+    void reservaConcurrenteEnLaBaseDeDatosNoSuperaLosBoxes() throws Exception {
+        // Sin pasar por la agenda en memoria, como ocurre con reservas de distintas instancias
+        LocalDateTime horario = LocalDate.now(ZoneOffset.UTC).plusDays(31).atTime(10, 0);
+        Date fechaHora = aFecha(horario);
+
+        Resultado resultado = ejecutarEnParalelo(i -> reintentoTransaccional.ejecutar(() -> {
+            reservaSlotService.reservar(1_000_000L + i, fechaHora);
+            return null;
+        }));
+
+        assertThat(resultado.errores()).isEmpty();
+        assertThat(resultado.aceptadas()).isEqualTo(boxes);
+        assertThat(contar("select count(*) from reserva_slot where inicio = ?", horario)).isEqualTo(boxes);
+    }
+
+    @Test
+    void turnoFueraDeLaGrillaOcupaLasDosFranjasQueToca() {
+        Long vehiculoId = crearVehiculo("RC0002").getId();
+        LocalDate dia = LocalDate.now(ZoneOffset.UTC).plusDays(32);
+        for (int i = 0; i < boxes; i++) {
+            turnoService.saveTurno(turno(vehiculoId, aFecha(dia.atTime(10, 15))));
+        }
+
+        // La agenda en memoria rechaza el turno de las 10:45 por la franja de las 10:30, igual que la base de datos
+        assertThatThrownBy(() -> turnoService.saveTurno(turno(vehiculoId, aFecha(dia.atTime(10, 45)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(dia.atTime(10, 30).toString());
+        assertThat(boxesLibres(dia, dia.atTime(10, 0))).isZero();
+        assertThat(boxesLibres(dia, dia.atTime(10, 30))).isZero();
+        assertThat(boxesLibres(dia, dia.atTime(11, 0))).isEqualTo(boxes);
+    }
+
+    @Test
+    void eliminarVehiculoLiberaLosBoxesDeSusTurnos() {
+        Long vehiculoId = crearVehiculo("RC0003").getId();
+        Long otroVehiculoId = crearVehiculo("RC0004").getId();
+        LocalDate dia = LocalDate.now(ZoneOffset.UTC).plusDays(33);
+        Date fechaHora = aFecha(dia.atTime(14, 0));
+        for (int i = 0; i < boxes; i++) {
+            turnoService.saveTurno(turno(vehiculoId, fechaHora));
+        }
+
+        vehiculoService.deleteVehiculo(vehiculoId);
+
+        assertThat(boxesLibres(dia, dia.atTime(14, 0))).isEqualTo(boxes);
+        assertThat(contar("select count(*) from reserva_slot where inicio = ?", dia.atTime(14, 0))).isZero();
+        assertThat(turnoService.saveTurno(turno(otroVehiculoId, fechaHora)).getId()).isNotNull();
+    }
+
+    @Test
+    void reservaUnBoxQueOtraInstanciaLiberoSinQueLaAgendaLoSepa() {
+        Long vehiculoId = crearVehiculo("RC0005").getId();
+        LocalDate dia = LocalDate.now(ZoneOffset.UTC).plusDays(34);
+        LocalDateTime horario = dia.atTime(16, 0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < boxes; i++) {
+            ids.add(turnoService.saveTurno(turno(vehiculoId, aFecha(horario))).getId());
+        }
+
+        // Otra instancia cancela un turno: cambia la base de datos pero no la agenda en memoria de esta
+        jdbcTemplate.update("update turno set estado = 'cancelado' where id = ?", ids.get(0));
+        jdbcTemplate.update("delete from reserva_slot where turno_id = ?", ids.get(0));
+        assertThat(boxesLibres(dia, horario)).isZero();
+
+        // La agenda indica que la franja está completa, pero se verifica con la base antes de rechazar
+        assertThat(turnoService.saveTurno(turno(vehiculoId, aFecha(horario))).getId()).isNotNull();
+        assertThat(contar("select count(*) from reserva_slot where inicio = ?", horario)).isEqualTo(boxes);
+        assertThatThrownBy(() -> turnoService.saveTurno(turno(vehiculoId, aFecha(horario))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void laRecargaDeLaAgendaIncorporaLosCambiosDeOtraInstancia() {
+        Long vehiculoId = crearVehiculo("RC0006").getId();
+        LocalDate dia = LocalDate.now(ZoneOffset.UTC).plusDays(35);
+        LocalDateTime horario = dia.atTime(17, 0);
+        Long id = turnoService.saveTurno(turno(vehiculoId, aFecha(horario))).getId();
+
+        jdbcTemplate.update("update turno set estado = 'completado' where id = ?", id);
+        jdbcTemplate.update("delete from reserva_slot where turno_id = ?", id);
+        assertThat(boxesLibres(dia, horario)).isEqualTo(boxes - 1);
+
+        disponibilidadService.recargar(); // Lo que hace la tarea programada cada lavadero.agenda.recarga-ms
+
+        assertThat(boxesLibres(dia, horario)).isEqualTo(boxes);
+    }
+
+    /**
+     * Resultado de las operaciones concurrentes: aceptadas, rechazadas por falta de boxes y errores inesperados.
+     */
+    private record Resultado(int aceptadas, int rechazadas, List<Throwable> errores) {
+    }
+
+    /**
+     * Ejecuta la operación desde {@link #HILOS} hilos que comienzan a la vez.
+     */
+    private Resultado ejecutarEnParalelo(IntConsumer operacion) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger aceptadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        List<Throwable> errores = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            int indice = i;
+            tareas.add(ejecutor.submit(() -> {
+                largada.await();
+                try {
+                    operacion.accept(indice);
+                    aceptadas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rechazadas.incrementAndGet();
+                } catch (RuntimeException e) {
+                    errores.add(e);
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        ejecutor.shutdown();
+        return new Resultado(aceptadas.get(), rechazadas.get(), errores);
+    }
+
+    private Vehiculo crearVehiculo(String matricula) {
+        Cliente cliente = clienteService.saveCliente(Cliente.builder()
+                .nombre("Cliente " + matricula)
+                .correoElectronico(matricula.toLowerCase() + "@prueba.com")
+                .telefono("1234567890")
+                .build());
+        return vehiculoService.saveVehiculo(Vehiculo.builder().modelo("Gol").matricula(matricula).tipo("Sedan").build(),
+                cliente.getId());
+    }
+
+    private Turno turno(Long vehiculoId, Date fechaHora) {
+        return Turno.builder()
+                .fechaHora(fechaHora)
+                .estado("programado")
+                .tipoServicio("lavado completo")
+                .vehiculo(Vehiculo.builder().id(vehiculoId).build())
+                .build();
+    }
+
+    private int boxesLibres(LocalDate dia, LocalDateTime inicio) {
+        return disponibilidadService.consultarDisponibilidad(dia).stream()
+                .filter(franja -> franja.getInicio().equals(inicio))
+                .mapToInt(FranjaDisponible::getBoxesLibres)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private int contar(String sql, Object parametro) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, parametro);
+    }
+
+    private static Date aFecha(LocalDateTime horario) {
+        return Date.from(horario.toInstant(ZoneOffset.UTC));
+    }
+}
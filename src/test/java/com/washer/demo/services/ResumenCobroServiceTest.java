@@ -0,0 +1,122 @@
+package com.washer.demo.services;
+
+import com.washer.demo.controllers.CobroController;
+import com.washer.demo.dto.ResumenCobros;
+import com.washer.demo.dto.ResumenDiario;
+import com.washer.demo.entities.Cliente;
+import com.washer.demo.entities.Cobro;
+import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.Vehiculo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas de los resúmenes diarios de recaudación: después de cada alta, modificación y baja de cobros
+ * el resumen debe coincidir con el que se obtiene al reconstruirlo desde los cobros.
+ */
+// Base propia, para que los totales no incluyan cobros de las pruebas de otros contextos
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:lavadero-resumen;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class ResumenCobroServiceTest {
+
+    private static final LocalDate DIA = LocalDate.of(2001, 3, 10);
+
+    @Autowired
+    private ResumenCobroService resumenCobroService;
+
+    @Autowired
+    private CobroService cobroService;
+
+    @Autowired
+    private CobroController cobroController;
+
+    @Autowired
+    private TurnoService turnoService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private VehiculoService vehiculoService;
+
+    @Test
+    void elResumenSigueLasAltasModificacionesYBajasDeCobros() {
+        Long vehiculoId = crearVehiculo("RC1001");
+        Turno lavado = crearTurno(vehiculoId, DIA.atTime(9, 0), "lavado completo");
+        Turno encerado = crearTurno(vehiculoId, DIA.atTime(10, 0), "encerado");
+        Turno aspirado = crearTurno(vehiculoId, DIA.atTime(11, 0), "aspirado");
+
+        // Solo con el ID del turno, como llega desde la API: el cobro se agrupa bajo el tipo del turno
+        Cobro primero = cobroService.saveCobro(Cobro.builder()
+                .monto(100.0).fecha(aFecha(DIA.atTime(12, 0))).turno(Turno.builder().id(lavado.getId()).build()).build());
+        Cobro segundo = cobroController.createCobro(Cobro.builder()
+                .monto(50.0).fecha(aFecha(DIA.atTime(13, 0))).build(), encerado.getId()).getBody();
+        assertThat(detalle()).containsExactly(
+                new ResumenDiario(DIA, "encerado", 50.0, 1L),
+                new ResumenDiario(DIA, "lavado completo", 100.0, 1L));
+
+        // Cambian el monto, el día y el turno (con otro tipo de servicio)
+        cobroService.updateCobro(primero.getId(), Cobro.builder()
+                .monto(120.0).fecha(aFecha(DIA.plusDays(1).atTime(12, 0))).turno(Turno.builder().id(aspirado.getId()).build()).build(), null);
+        assertThat(detalle()).containsExactly(
+                new ResumenDiario(DIA, "encerado", 50.0, 1L),
+                new ResumenDiario(DIA.plusDays(1), "aspirado", 120.0, 1L));
+
+        cobroService.deleteCobro(segundo.getId());
+        List<ResumenDiario> incremental = detalle();
+        assertThat(incremental).containsExactly(new ResumenDiario(DIA.plusDays(1), "aspirado", 120.0, 1L));
+        ResumenCobros totales = resumenCobroService.consultar(DIA, DIA.plusDays(1));
+        assertThat(totales.getTotal()).isEqualTo(120.0);
+        assertThat(totales.getCantidad()).isEqualTo(1L);
+
+        resumenCobroService.reconstruir();
+        assertThat(detalle()).isEqualTo(incremental);
+    }
+
+    @Test
+    void rechazaUnCobroConUnTurnoInexistente() {
+        Cobro cobro = Cobro.builder().monto(10.0).fecha(aFecha(DIA.atTime(12, 0))).turno(Turno.builder().id(-1L).build()).build();
+
+        assertThatThrownBy(() -> cobroService.saveCobro(cobro))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Turno no encontrado");
+    }
+
+    private List<ResumenDiario> detalle() {
+        return resumenCobroService.consultar(DIA, DIA.plusDays(1)).getDetalle();
+    }
+
+    private Long crearVehiculo(String matricula) {
+        Cliente cliente = clienteService.saveCliente(Cliente.builder()
+                .nombre("Cliente Resumen")
+                .correoElectronico("resumen" + matricula + "@prueba.com")
+                .telefono("1234567890")
+                .build());
+        return vehiculoService.saveVehiculo(Vehiculo.builder().modelo("Gol").matricula(matricula).tipo("Sedan").build(),
+                cliente.getId()).getId();
+    }
+
+    private Turno crearTurno(Long vehiculoId, LocalDateTime horario, String tipoServicio) {
+        return turnoService.saveTurno(Turno.builder()
+                .fechaHora(aFecha(horario))
+                .estado("completado")
+                .tipoServicio(tipoServicio)
+                .vehiculo(Vehiculo.builder().id(vehiculoId).build())
+                .build());
+    }
+
+    private static Date aFecha(LocalDateTime horario) {
+        return Date.from(horario.toInstant(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,174 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.ResultadoLote;
+import com.washer.demo.entities.Turno;
+import com.washer.demo.entities.Vehiculo;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas del presupuesto de consultas de cada método de {@link TurnoService}.
+ */
+class TurnoServicePresupuestoTest extends PresupuestoConsultasBase {
+
+    @Test
+    void saveTurno() {
+        Datos datos = crearDatos();
+
+        Turno turno = turnoService.saveTurno(turno(datos.vehiculos().get(0).getId(), diaLibre().atTime(15, 0), "programado"));
+
+        assertThat(turno.getId()).isNotNull();
+    }
+
+    @Test
+    void saveTurnos() {
+        Datos datos = crearDatos();
+        LocalDate dia = diaLibre();
+        List<Turno> turnos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Vehiculo vehiculo = datos.vehiculos().get(i % VEHICULOS_POR_CLIENTE);
+            turnos.add(turno(vehiculo.getId(), dia.atTime(8, 0).plusMinutes(30L * i), "programado"));
+        }
+
+        List<ResultadoLote> resultados = turnoService.saveTurnos(turnos);
+
+        assertThat(resultados).allSatisfy(resultado -> assertThat(resultado.getId()).isNotNull());
+    }
+
+    @Test
+    void getTurno() {
+        Datos datos = crearDatos();
+
+        assertThat(turnoService.getTurno(datos.turnos().get(1).getId()).getId()).isEqualTo(datos.turnos().get(1).getId());
+    }
+
+    @Test
+    void getVersionTurno() {
+        Datos datos = crearDatos();
+
+        assertThat(turnoService.getVersionTurno(datos.turnos().get(0).getId())).isNotNull();
+    }
+
+    @Test
+    void getDisponibilidad() {
+        crearDatos();
+
+        assertThat(turnoService.getDisponibilidad(diaLibre())).isNotEmpty();
+    }
+
+    @Test
+    void getAllTurnos() {
+        crearDatos();
+        crearDatos();
+
+        assertThat(turnoService.getAllTurnos(null, 20).getContenido()).hasSize(20);
+    }
+
+    @Test
+    void buscarTurnos() {
+        Datos datos = crearDatos();
+
+        assertThat(turnoService.buscarTurnos(null, null, "programado", null, null, datos.cliente().getId(), null, 20)
+                .getContenido()).hasSize(VEHICULOS_POR_CLIENTE * TURNOS_POR_VEHICULO / 2);
+    }
+
+    @Test
+    void exportarTurnos() throws Exception {
+        crearDatos();
+        crearDatos();
+
+        assertThat(turnoService.exportarTurnos(new ByteArrayOutputStream())).isGreaterThanOrEqualTo(2L * VEHICULOS_POR_CLIENTE * TURNOS_POR_VEHICULO);
+    }
+
+    @Test
+    void deleteTurno() {
+        Datos datos = crearDatos();
+
+        Long id = datos.turnos().get(0).getId();
+
+        // Turno programado: además de borrarlo se libera su box
+        turnoService.deleteTurno(id);
+
+        assertThatThrownBy(() -> turnoService.getTurno(id)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void updateEstadoTurno() {
+        Datos datos = crearDatos();
+
+        assertThat(turnoService.updateEstadoTurno(datos.turnos().get(0).getId(), "cancelado", null).getEstado()).isEqualTo("cancelado");
+    }
+
+    @Test
+    void transicionarTurnos() {
+        Datos datos = crearDatos();
+        List<Long> ids = datos.turnos().stream().map(Turno::getId).toList();
+
+        assertThat(turnoService.transicionarTurnos(ids, "completado").getActualizados())
+                .isEqualTo(VEHICULOS_POR_CLIENTE * TURNOS_POR_VEHICULO / 2);
+    }
+
+    @Test
+    void transicionarTurnosEntre() {
+        Datos datos = crearDatos();
+        LocalDate dia = LocalDate.ofInstant(datos.turnos().get(0).getFechaHora().toInstant(), ZoneOffset.UTC);
+
+        // Bloques más chicos que los turnos programados del día, para que el presupuesto se controle en varios
+        int actualizados = conBloquesDe(4, () -> turnoService.transicionarTurnosEntre(
+                dia.atStartOfDay(), dia.plusDays(1).atStartOfDay(), "completado").getActualizados());
+
+        assertThat(actualizados).isEqualTo(VEHICULOS_POR_CLIENTE * TURNOS_POR_VEHICULO / 2);
+        assertThat(datos.turnos()).allSatisfy(turno ->
+                assertThat(turnoService.getTurno(turno.getId()).getEstado()).isEqualTo("completado"));
+    }
+
+    @Test
+    void cancelarInasistencias() {
+        Long vehiculoId = vehiculoService.saveVehiculo(vehiculo(), crearCliente().getId()).getId();
+        LocalDate dia = diaPasado();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(turnoService.saveTurno(turno(vehiculoId, dia.atTime(8, 0).plusMinutes(30L * i), "programado")).getId());
+        }
+
+        conBloquesDe(4, () -> {
+            turnoService.cancelarInasistencias();
+            return null;
+        });
+
+        assertThat(ids).allSatisfy(id -> assertThat(turnoService.getTurno(id).getEstado()).isEqualTo("cancelado"));
+    }
+
+    @Test
+    void updateTurno() {
+        Datos datos = crearDatos();
+        // Turno cobrado al que se le cambia el horario, el tipo de servicio y el vehículo: el camino más costoso
+        Turno cobrado = datos.turnos().get(1);
+        Turno cambios = turno(datos.vehiculos().get(1).getId(), diaLibre().atTime(16, 0), "programado");
+        cambios.setTipoServicio("encerado");
+
+        assertThat(turnoService.updateTurno(cobrado.getId(), cambios, null).getTipoServicio()).isEqualTo("encerado");
+    }
+
+    private <T> T conBloquesDe(int tamanio, Supplier<T> operacion) {
+        Object servicio = AopTestUtils.getTargetObject(turnoService);
+        Object anterior = ReflectionTestUtils.getField(servicio, "tamanioBloque");
+        ReflectionTestUtils.setField(servicio, "tamanioBloque", tamanio);
+        try {
+            return operacion.get();
+        } finally {
+            ReflectionTestUtils.setField(servicio, "tamanioBloque", anterior);
+        }
+    }
+}
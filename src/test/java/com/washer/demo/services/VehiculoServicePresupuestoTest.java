@@ -0,0 +1,103 @@
+package com.washer.demo.services;
+
+import com.washer.demo.dto.ItemLoteVehiculo;
+import com.washer.demo.dto.ResultadoLote;
+import com.washer.demo.entities.Cliente;
+import com.washer.demo.entities.Vehiculo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del presupuesto de consultas de cada método de {@link VehiculoService}.
+ */
+class VehiculoServicePresupuestoTest extends PresupuestoConsultasBase {
+
+    @Test
+    void saveVehiculo() {
+        Datos datos = crearDatos();
+
+        assertThat(vehiculoService.saveVehiculo(vehiculo(), datos.cliente().getId()).getId()).isNotNull();
+    }
+
+    @Test
+    void saveVehiculos() {
+        Cliente cliente = crearCliente();
+        Cliente otroCliente = crearCliente();
+        List<ItemLoteVehiculo> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(new ItemLoteVehiculo(i % 2 == 0 ? cliente.getId() : otroCliente.getId(), vehiculo()));
+        }
+
+        List<ResultadoLote> resultados = vehiculoService.saveVehiculos(items);
+
+        assertThat(resultados).allSatisfy(resultado -> assertThat(resultado.getId()).isNotNull());
+    }
+
+    @Test
+    void getVehiculo() {
+        Datos datos = crearDatos();
+
+        assertThat(vehiculoService.getVehiculo(datos.vehiculos().get(0).getId()).getId()).isEqualTo(datos.vehiculos().get(0).getId());
+    }
+
+    @Test
+    void getVersionVehiculo() {
+        Datos datos = crearDatos();
+
+        assertThat(vehiculoService.getVersionVehiculo(datos.vehiculos().get(0).getId())).isNotNull();
+    }
+
+    @Test
+    void getVehiculoPorMatricula() {
+        Datos datos = crearDatos();
+        String matricula = datos.vehiculos().get(2).getMatricula();
+
+        assertThat(vehiculoService.getVehiculoPorMatricula(matricula).getMatricula()).isEqualTo(matricula);
+    }
+
+    @Test
+    void buscarPorPrefijo() {
+        crearDatos();
+
+        assertThat(vehiculoService.buscarPorPrefijo("PC", 10)).isNotEmpty();
+    }
+
+    @Test
+    void getAllVehiculos() {
+        crearDatos();
+        crearDatos();
+
+        assertThat(vehiculoService.getAllVehiculos(null, 5).getContenido()).hasSize(5);
+    }
+
+    @Test
+    void deleteVehiculo() {
+        Datos datos = crearDatos();
+        Vehiculo vehiculo = datos.vehiculos().get(0);
+        // Los cobros impiden borrar sus turnos; se cubre el vehículo con turnos programados y completados sin cobrar
+        Vehiculo sinCobros = vehiculoService.saveVehiculo(vehiculo(), datos.cliente().getId());
+        turnoService.saveTurno(turno(sinCobros.getId(), diaLibre().atTime(9, 0), "programado"));
+        turnoService.saveTurno(turno(sinCobros.getId(), diaLibre().atTime(10, 0), "programado"));
+        turnoService.saveTurno(turno(sinCobros.getId(), diaLibre().atTime(11, 0), "completado"));
+
+        vehiculoService.deleteVehiculo(sinCobros.getId());
+
+        assertThat(vehiculoService.getVehiculo(vehiculo.getId())).isNotNull();
+    }
+
+    @Test
+    void updateVehiculo() {
+        Datos datos = crearDatos();
+        Cliente otroCliente = crearCliente();
+        Vehiculo cambios = vehiculo();
+        cambios.setCliente(Cliente.builder().id(otroCliente.getId()).build());
+
+        Vehiculo actualizado = vehiculoService.updateVehiculo(datos.vehiculos().get(0).getId(), cambios, null);
+
+        assertThat(actualizado.getMatricula()).isEqualTo(cambios.getMatricula());
+    }
+}